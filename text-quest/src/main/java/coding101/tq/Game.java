@@ -2,6 +2,7 @@ package coding101.tq;
 
 import coding101.tq.domain.Player;
 import coding101.tq.domain.PlayerItems;
+import coding101.tq.domain.ResolvedColorScheme;
 import coding101.tq.domain.Settings;
 import coding101.tq.domain.TerrainMap;
 import com.googlecode.lanterna.graphics.TextGraphics;
@@ -35,6 +36,17 @@ public interface Game {
      */
     TextGraphics textGraphics();
 
+    /**
+     * Get the render loop, which owns the screen.
+     *
+     * Panes request a screen refresh via {@link RenderLoop#requestRefresh()}
+     * after drawing, and other threads post changes to draw via
+     * {@link RenderLoop#post(Runnable)}.
+     *
+     * @return the render loop
+     */
+    RenderLoop renderLoop();
+
     /**
      * Get the game settings.
      *
@@ -42,6 +54,16 @@ public interface Game {
      */
     Settings settings();
 
+    /**
+     * Get the game colors.
+     *
+     * These are the colors of the settings color scheme, resolved once so they
+     * can be used for drawing without parsing any color references.
+     *
+     * @return the colors
+     */
+    ResolvedColorScheme colors();
+
     /**
      * Get all possible game items.
      *
@@ -25,6 +25,8 @@ package coding101.tq;
  * @param revealMap                show the map, regardless if visited; defaults
  *                                 to false
  * @param gui                      use the texture image renderer
+ * @param scrollMode               the map viewport scrolling mode; defaults to
+ *                                 {@link ScrollMode#Page}
  */
 public record GameConfiguration(
         int initialCoins,
@@ -38,11 +40,24 @@ public record GameConfiguration(
         GameXpConfiguration xp,
         GameShopConfiguration shop,
         boolean revealMap,
-        boolean gui) {
+        boolean gui,
+        ScrollMode scrollMode) {
 
     /** The default game configuration. */
     public static final GameConfiguration DEFAULTS = new GameConfiguration(
-            20, 30, 30, 100, 5, 100, 50, 5, GameXpConfiguration.DEFAULTS, GameShopConfiguration.DEFAULTS, false, false);
+            20,
+            30,
+            30,
+            100,
+            5,
+            100,
+            50,
+            5,
+            GameXpConfiguration.DEFAULTS,
+            GameShopConfiguration.DEFAULTS,
+            false,
+            false,
+            ScrollMode.Page);
 
     /**
      * Get a new configuration with a specific number of initial coins.
@@ -63,7 +78,8 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scrollMode);
     }
 
     /**
@@ -85,7 +101,8 @@ public record GameConfiguration(
                 new GameXpConfiguration(xp, this.xp.exploreXp(), this.xp.chestXp()),
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scrollMode);
     }
 
     /**
@@ -107,7 +124,8 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scrollMode);
     }
 
     /**
@@ -130,7 +148,8 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scrollMode);
     }
 
     /**
@@ -153,7 +172,8 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scrollMode);
     }
 
     /**
@@ -175,7 +195,8 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scrollMode);
     }
 
     /**
@@ -197,6 +218,30 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scrollMode);
+    }
+
+    /**
+     * Get a new configuration with a specific scroll mode.
+     *
+     * @param scrollMode the map viewport scrolling mode
+     * @return the new configuration
+     */
+    public GameConfiguration withScrollMode(ScrollMode scrollMode) {
+        return new GameConfiguration(
+                initialCoins,
+                initialHealth,
+                initialMaxHealth,
+                maxPossibleHealth,
+                lavaHealthDamage,
+                chestCoinsMaximum,
+                chestRewardFactor,
+                chestHealthDamageMaximum,
+                xp,
+                shop,
+                revealMap,
+                gui,
+                scrollMode);
     }
 }
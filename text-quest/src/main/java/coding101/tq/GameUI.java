@@ -1,7 +1,5 @@
 package coding101.tq;
 
-import static coding101.tq.domain.ColorPalette.color;
-
 import coding101.tq.domain.Shop;
 import com.googlecode.lanterna.Symbols;
 import com.googlecode.lanterna.TextColor.ANSI;
@@ -132,42 +130,42 @@ public class GameUI implements Pane {
 
     @Override
     public void draw() {
-        // clear screen
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiBorder(), ANSI.WHITE));
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().uiBorder(), ANSI.BLACK));
-        game.textGraphics().fill(' ');
-
-        drawChrome();
-        if (shop != null) {
-            shop().draw();
-        } else {
-            map().draw();
+        // draw everything as a single frame, so only the cells that change are output
+        final ShadowTextGraphics shadow = (game.textGraphics() instanceof ShadowTextGraphics s ? s : null);
+        if (shadow != null) {
+            shadow.beginFrame();
         }
-        info().draw();
-        status().draw();
-        health().draw();
-
         try {
-            game.screen().refresh();
-        } catch (IOException e) {
-            throw new RuntimeException("Error refreshing screen: %s".formatted(e.getMessage()), e);
+            // clear screen
+            game.textGraphics().setForegroundColor(game.colors().foreground().uiBorder(ANSI.WHITE));
+            game.textGraphics().setBackgroundColor(game.colors().background().uiBorder(ANSI.BLACK));
+            game.textGraphics().fill(' ');
+
+            drawChrome();
+            if (shop != null) {
+                shop().draw();
+            } else {
+                map().draw();
+            }
+            info().draw();
+            status().draw();
+            health().draw();
+        } finally {
+            if (shadow != null) {
+                shadow.endFrame();
+            }
         }
+        game.renderLoop().requestRefresh();
     }
 
     /**
-     * Draw a single pane and refresh the screen.
+     * Draw a single pane and request a screen refresh.
      *
      * @param pane the pane to draw
      */
     public void draw(Pane pane) {
         pane.draw();
-        try {
-            game.screen().refresh();
-        } catch (IOException e) {
-            throw new RuntimeException("Error refreshing screen: %s".formatted(e.getMessage()), e);
-        }
+        game.renderLoop().requestRefresh();
     }
 
     /**
@@ -176,10 +174,8 @@ public class GameUI implements Pane {
      * @throws IOException
      */
     public void drawChrome() {
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiBorder(), ANSI.WHITE));
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().uiBorder(), ANSI.BLACK));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiBorder(ANSI.WHITE));
+        game.textGraphics().setBackgroundColor(game.colors().background().uiBorder(ANSI.BLACK));
 
         // top
         game.textGraphics()
@@ -261,10 +257,8 @@ public class GameUI implements Pane {
                         2,
                         Symbols.SINGLE_LINE_HORIZONTAL);
 
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().uiText(), ANSI.BLACK));
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiText(), ANSI.WHITE_BRIGHT));
+        game.textGraphics().setBackgroundColor(game.colors().background().uiText(ANSI.BLACK));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiText(ANSI.WHITE_BRIGHT));
 
         String inventory = game.bundle().getString("inventory");
         game.textGraphics().putString(infoBorderCol + 1 + (info.width() - inventory.length()) / 2, 1, inventory);
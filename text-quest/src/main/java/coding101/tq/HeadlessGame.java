@@ -0,0 +1,241 @@
+package coding101.tq;
+
+import static java.util.Objects.requireNonNull;
+
+import coding101.tq.domain.Player;
+import coding101.tq.domain.ResolvedColorScheme;
+import coding101.tq.domain.Settings;
+import coding101.tq.domain.TerrainMap;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.graphics.TextGraphics;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.input.KeyType;
+import com.googlecode.lanterna.screen.Screen;
+import com.googlecode.lanterna.screen.TerminalScreen;
+import com.googlecode.lanterna.terminal.virtual.DefaultVirtualTerminal;
+import com.googlecode.lanterna.terminal.virtual.VirtualTerminal;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.ResourceBundle;
+
+/**
+ * A {@link Game} that renders to an in-memory virtual terminal, and reads
+ * player responses from a script of key strokes.
+ *
+ * No real terminal is needed, so this can be used to simulate game sessions,
+ * for example for load testing or benchmarking pane rendering. Once the script
+ * runs out of key strokes the player is treated as having pressed nothing: yes/no
+ * questions are answered no, no character is read, and no integer is read.
+ *
+ * The thread that creates an instance becomes the owner of its
+ * {@link RenderLoop}, and must be the only thread that draws the game. Call
+ * {@link #close()} once finished with the game, to stop its screen.
+ */
+public final class HeadlessGame implements Game, AutoCloseable {
+
+    /** The default screen size. */
+    public static final TerminalSize DEFAULT_SIZE = new TerminalSize(80, 24);
+
+    private final VirtualTerminal terminal;
+    private final Screen screen;
+    private final TextGraphics graphics;
+    private final RenderLoop renderLoop;
+    private final ResourceBundle bundle;
+    private final Settings settings;
+    private final ResolvedColorScheme colors;
+    private final Player player;
+    private final Deque<KeyStroke> input = new ArrayDeque<>(8);
+    private TerrainMap map;
+
+    /**
+     * Constructor.
+     *
+     * @param settings the game settings
+     * @param map      the active map
+     * @param player   the player
+     * @throws IOException              if an IO error occurs
+     * @throws IllegalArgumentException if any argument is {@code null}
+     */
+    public HeadlessGame(Settings settings, TerrainMap map, Player player) throws IOException {
+        this(settings, map, player, DEFAULT_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param settings the game settings
+     * @param map      the active map
+     * @param player   the player
+     * @param size     the screen size
+     * @throws IOException              if an IO error occurs
+     * @throws IllegalArgumentException if any argument is {@code null}
+     */
+    public HeadlessGame(Settings settings, TerrainMap map, Player player, TerminalSize size) throws IOException {
+        super();
+        this.settings = requireNonNull(settings);
+        this.colors = settings.colors().resolve();
+        this.map = requireNonNull(map);
+        this.player = requireNonNull(player);
+        this.terminal = new DefaultVirtualTerminal(requireNonNull(size));
+        this.screen = new TerminalScreen(terminal);
+        this.screen.startScreen();
+        this.screen.setCursorPosition(null);
+        this.graphics = new ShadowTextGraphics(screen.newTextGraphics());
+        this.renderLoop = new RenderLoop(screen, RenderLoop.UNLIMITED_REFRESHES);
+        this.renderLoop.start(false);
+        this.bundle = ResourceBundle.getBundle(TextQuest.class.getName());
+    }
+
+    /**
+     * Stop the render loop and the screen.
+     *
+     * @throws IOException if an IO error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        renderLoop.stop();
+        screen.stopScreen();
+    }
+
+    /**
+     * Get the virtual terminal the game renders to.
+     *
+     * @return the terminal
+     */
+    public VirtualTerminal terminal() {
+        return terminal;
+    }
+
+    /**
+     * Set the active map.
+     *
+     * @param map the map to set
+     * @throws IllegalArgumentException if {@code map} is {@code null}
+     */
+    public void setMap(TerrainMap map) {
+        this.map = requireNonNull(map);
+    }
+
+    /**
+     * Add key strokes to the end of the input script.
+     *
+     * @param keyStrokes the key strokes to add
+     * @return this instance, for chaining
+     */
+    public HeadlessGame input(KeyStroke... keyStrokes) {
+        for (KeyStroke keyStroke : keyStrokes) {
+            input.add(requireNonNull(keyStroke));
+        }
+        return this;
+    }
+
+    /**
+     * Add typed characters to the end of the input script.
+     *
+     * Each newline character is added as the Enter key.
+     *
+     * @param text the characters to add
+     * @return this instance, for chaining
+     */
+    public HeadlessGame type(String text) {
+        for (int i = 0, len = text.length(); i < len; i++) {
+            final char c = text.charAt(i);
+            input.add(c == '\n' ? new KeyStroke(KeyType.Enter) : new KeyStroke(c, false, false));
+        }
+        return this;
+    }
+
+    /**
+     * Get the number of key strokes remaining in the input script.
+     *
+     * @return the remaining key stroke count
+     */
+    public int remainingInput() {
+        return input.size();
+    }
+
+    @Override
+    public ResourceBundle bundle() {
+        return bundle;
+    }
+
+    @Override
+    public Screen screen() {
+        return screen;
+    }
+
+    @Override
+    public TextGraphics textGraphics() {
+        return graphics;
+    }
+
+    @Override
+    public RenderLoop renderLoop() {
+        return renderLoop;
+    }
+
+    @Override
+    public Settings settings() {
+        return settings;
+    }
+
+    @Override
+    public ResolvedColorScheme colors() {
+        return colors;
+    }
+
+    @Override
+    public Player player() {
+        return player;
+    }
+
+    @Override
+    public TerrainMap map() {
+        return map;
+    }
+
+    @Override
+    public boolean readYesNo() throws IOException {
+        KeyStroke keyStroke = input.poll();
+        KeyType keyType = keyStroke != null ? keyStroke.getKeyType() : null;
+        return (keyType == KeyType.Enter);
+    }
+
+    @Override
+    public char readCharacter() throws IOException {
+        KeyStroke keyStroke = input.poll();
+        KeyType keyType = keyStroke != null ? keyStroke.getKeyType() : null;
+        if (keyType == KeyType.Character) {
+            return keyStroke.getCharacter();
+        }
+        return 0;
+    }
+
+    @Override
+    public Integer readInteger(int x, int y) throws IOException {
+        StringBuilder buf = new StringBuilder();
+        while (true) {
+            KeyStroke keyStroke = input.poll();
+            KeyType keyType = keyStroke != null ? keyStroke.getKeyType() : null;
+            if (keyType == KeyType.Character) {
+                final char c = keyStroke.getCharacter();
+                if (c >= '0' && c <= '9') {
+                    buf.append(c);
+                    graphics.setCharacter(x++, y, c);
+                    renderLoop.requestRefresh();
+                }
+            } else if (keyType == null || keyType == KeyType.Enter) {
+                break;
+            }
+        }
+        if (!buf.isEmpty()) {
+            try {
+                return Integer.valueOf(buf.toString());
+            } catch (NumberFormatException e) {
+                // ignore and continue
+            }
+        }
+        return null;
+    }
+}
@@ -1,6 +1,5 @@
 package coding101.tq;
 
-import static coding101.tq.domain.ColorPalette.color;
 import static java.util.Objects.requireNonNull;
 
 import com.googlecode.lanterna.Symbols;
@@ -71,10 +70,8 @@ public class HealthPane implements Pane {
         int y = top();
         int startX = left();
 
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().health(), ANSI.RED));
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().health(), ANSI.BLACK));
+        game.textGraphics().setForegroundColor(game.colors().foreground().health(ANSI.RED));
+        game.textGraphics().setBackgroundColor(game.colors().background().health(ANSI.BLACK));
 
         // draw all full hearts
         for (int row = startX, max = startX + full; row < max; row++) {
@@ -83,9 +80,7 @@ public class HealthPane implements Pane {
 
         // if a partial heart, draw using a different color
         if (partial > 0) {
-            game.textGraphics()
-                    .setForegroundColor(
-                            color(game.settings().colors().foreground().healthPartial(), ANSI.RED_BRIGHT));
+            game.textGraphics().setForegroundColor(game.colors().foreground().healthPartial(ANSI.RED_BRIGHT));
             game.textGraphics().setCharacter(startX + full, y, Symbols.HEART);
         }
 
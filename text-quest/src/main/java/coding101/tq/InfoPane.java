@@ -1,10 +1,10 @@
 package coding101.tq;
 
-import static coding101.tq.domain.ColorPalette.color;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
+import coding101.tq.domain.ExplorationStats;
 import coding101.tq.domain.PlayerItems;
 import coding101.tq.domain.items.InventoryItem;
 import coding101.tq.domain.items.ItemType;
@@ -22,6 +22,9 @@ import java.util.MissingResourceException;
  */
 public class InfoPane implements Pane {
 
+    // the number of rows shown above the items: coins and exploration
+    private static final int HEADER_ROWS = 3;
+
     private final NumberFormat fmt = NumberFormat.getNumberInstance();
 
     private final Game game;
@@ -74,6 +77,7 @@ public class InfoPane implements Pane {
     @Override
     public void draw() {
         drawCoins();
+        drawExploration();
         drawItems();
     }
 
@@ -82,16 +86,13 @@ public class InfoPane implements Pane {
     }
 
     private void drawItem(String label, String value, int col, int row) {
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().uiText(), ANSI.BLACK));
+        game.textGraphics().setBackgroundColor(game.colors().background().uiText(ANSI.BLACK));
 
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiText(), ANSI.WHITE_BRIGHT));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiText(ANSI.WHITE_BRIGHT));
         game.textGraphics().putString(col, row, label);
 
         int valueDisplayCol = col + width - value.length();
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiBorder(), ANSI.WHITE));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiBorder(ANSI.WHITE));
 
         // need to re-draw border in case separator moved
         game.textGraphics().setCharacter(col - 1, row, Symbols.DOUBLE_LINE_VERTICAL);
@@ -101,8 +102,7 @@ public class InfoPane implements Pane {
             game.textGraphics().setCharacter(i, row, '.');
         }
 
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiText(), ANSI.WHITE_BRIGHT));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiText(ANSI.WHITE_BRIGHT));
         game.textGraphics().putString(valueDisplayCol, row, value);
     }
 
@@ -118,13 +118,40 @@ public class InfoPane implements Pane {
         final int left = left();
         final int coins = game.player().getCoins();
 
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().uiText(), ANSI.BLACK));
+        game.textGraphics().setBackgroundColor(game.colors().background().uiText(ANSI.BLACK));
 
         String label = game.bundle().getString("coins.label");
         drawItemCount(label, coins, left, top);
     }
 
+    /**
+     * Update the exploration display.
+     *
+     * This shows the percentage of the active map that has been visited, and the
+     * percentage of the map tile the player is in.
+     */
+    public void drawExploration() {
+        if (scrollOffset > 0) {
+            // exploration scrolled away
+            return;
+        }
+        final int top = top();
+        final int left = left();
+        final ExplorationStats stats = game.player().exploration(game.map());
+
+        drawItem(
+                game.bundle().getString("explored.map.label"),
+                "%d%%".formatted((int) stats.percentVisited()),
+                left,
+                top + 1);
+        drawItem(
+                game.bundle().getString("explored.area.label"),
+                "%d%%".formatted((int) stats.tilePercentVisitedAt(
+                        game.player().getX(), game.player().getY())),
+                left,
+                top + 2);
+    }
+
     /**
      * Get an ordered mapping of item types to associated items that are equipped on
      * the player.
@@ -157,7 +184,7 @@ public class InfoPane implements Pane {
      * Update the inventory items display.
      */
     public void drawItems() {
-        final int top = top() + (scrollOffset < 1 ? 1 : 0);
+        final int top = top() + (scrollOffset < 1 ? HEADER_ROWS : 0);
         final int bottom = bottom();
         final int left = left();
         final int right = right();
@@ -190,10 +217,8 @@ public class InfoPane implements Pane {
         }
 
         // draw horizontal rule before non-equipped items
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().uiBorder(), ANSI.BLACK));
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiBorder(), ANSI.WHITE));
+        game.textGraphics().setBackgroundColor(game.colors().background().uiBorder(ANSI.BLACK));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiBorder(ANSI.WHITE));
 
         game.textGraphics().setCharacter(left - 1, displayRow, Symbols.DOUBLE_LINE_T_SINGLE_RIGHT);
         game.textGraphics().drawLine(left, displayRow, right, displayRow, Symbols.SINGLE_LINE_HORIZONTAL);
@@ -224,8 +249,7 @@ public class InfoPane implements Pane {
             }
         }
 
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiText(), ANSI.WHITE_BRIGHT));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiText(ANSI.WHITE_BRIGHT));
         while ((++displayRow) <= bottom) {
             for (int i = left; i <= right; i++) {
                 game.textGraphics().setCharacter(i, displayRow, ' ');
@@ -1,12 +1,15 @@
 package coding101.tq;
 
-import static coding101.tq.domain.ColorPalette.color;
 import static java.util.Objects.requireNonNull;
 
 import coding101.tq.domain.Player;
+import coding101.tq.domain.PlayerMapState;
 import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainMap.TerrainSpanConsumer;
 import coding101.tq.domain.TerrainType;
 import com.googlecode.lanterna.Symbols;
+import com.googlecode.lanterna.TerminalPosition;
+import com.googlecode.lanterna.TerminalSize;
 import com.googlecode.lanterna.TextColor;
 import com.googlecode.lanterna.TextColor.ANSI;
 
@@ -15,10 +18,22 @@ import com.googlecode.lanterna.TextColor.ANSI;
  */
 public final class MapPane implements Pane {
 
+    // the colors of cells not yet visited, the same for any terrain so hidden cells compare equal when redrawn
+    private static final TextColor HIDDEN_FOREGROUND = ANSI.WHITE_BRIGHT;
+    private static final TextColor HIDDEN_BACKGROUND = ANSI.BLACK;
+
     private final Game game;
     private final int rightOffset;
     private final int bottomOffset;
 
+    // the map coordinate shown at the top-left of the pane, and the map it is for
+    private int originX = ScrollMode.NO_ORIGIN;
+    private int originY = ScrollMode.NO_ORIGIN;
+    private TerrainMap originMap;
+
+    // a buffer reused for reading each row of terrain to draw
+    private TerrainType[] rowBuffer = new TerrainType[0];
+
     /**
      * Constructor.
      *
@@ -57,83 +72,218 @@ public final class MapPane implements Pane {
 
     @Override
     public void draw() {
-        drawMapForPoint(game.map(), game.player().getX(), game.player().getY());
+        final TerrainMap map = game.map();
+        checkOriginMap(map);
+        updateOrigin(game.player().getX(), game.player().getY());
+        drawMapForOrigin(map);
         drawPlayer(game.player());
     }
 
+    /**
+     * Get the map X coordinate shown at the left of the pane.
+     *
+     * @return the viewport origin X coordinate
+     */
+    public int originX() {
+        return originX;
+    }
+
+    /**
+     * Get the map Y coordinate shown at the top of the pane.
+     *
+     * @return the viewport origin Y coordinate
+     */
+    public int originY() {
+        return originY;
+    }
+
+    private void checkOriginMap(TerrainMap map) {
+        if (map != originMap) {
+            // a different map, so position the viewport from scratch
+            originX = ScrollMode.NO_ORIGIN;
+            originY = ScrollMode.NO_ORIGIN;
+            originMap = map;
+        }
+    }
+
+    /**
+     * Update the viewport origin for a player coordinate, according to the
+     * configured {@link ScrollMode}.
+     *
+     * @param x the player X coordinate
+     * @param y the player Y coordinate
+     */
+    private void updateOrigin(int x, int y) {
+        final ScrollMode mode = scrollMode();
+        originX = mode.origin(x, originX, width(), game.map().width());
+        originY = mode.origin(y, originY, height(), game.map().height());
+    }
+
+    private ScrollMode scrollMode() {
+        final ScrollMode mode = game.player().config().scrollMode();
+        return (mode != null ? mode : ScrollMode.Page);
+    }
+
     /**
      * Specialized routine to move a player and re-draw the map.
      *
+     * When the viewport origin changes by less than the size of the pane, and
+     * the game graphics are a {@link ShadowTextGraphics}, the existing pane
+     * contents are shifted and only the newly exposed rows or columns are drawn.
+     *
      * @param newX the new X position
      * @param newY the new Y position
      * @return {@code true} if visiting the coordinate for the first time
      */
     public boolean movePlayer(int newX, int newY) {
-        // draw old position terrain
+        final TerrainMap map = game.map();
         final int paneWidth = width();
         final int paneHeight = height();
         final int paneTop = top();
         final int paneLeft = left();
-        final int startX = (game.player().getX() / paneWidth) * paneWidth;
-        final int startY = (game.player().getY() / paneHeight) * paneHeight;
-
-        final int newStartX = (newX / paneWidth) * paneWidth;
-        final int newStartY = (newY / paneHeight) * paneHeight;
+        checkOriginMap(map);
+        final int startX = originX;
+        final int startY = originY;
 
-        boolean result = game.player().moveTo(game.map(), newX, newY);
+        boolean result = game.player().moveTo(map, newX, newY);
 
-        if (newStartX != startX || newStartY != startY) {
-            // redraw entire map
-            drawMapForPoint(game.map(), newX, newY);
-        } else {
-            game.map().walkSurrounding(newX, newY, (col, row, t) -> {
-                drawTerrain(col, row, col - startX + paneLeft, row - startY + paneTop, t);
-            });
+        updateOrigin(newX, newY);
+        final int dx = originX - startX;
+        final int dy = originY - startY;
+        if (dx != 0 || dy != 0) {
+            if (startX == ScrollMode.NO_ORIGIN
+                    || startY == ScrollMode.NO_ORIGIN
+                    || Math.abs(dx) >= paneWidth
+                    || Math.abs(dy) >= paneHeight
+                    || !(game.textGraphics() instanceof ShadowTextGraphics shadow)) {
+                // redraw entire map
+                drawMapForOrigin(map);
+                drawPlayer(game.player());
+                return result;
+            }
+            // shift the existing terrain, and draw just the exposed edges
+            shadow.scroll(paneLeft, paneTop, paneWidth, paneHeight, -dx, -dy);
+            final PlayerMapState state = game.player().mapState(map);
+            if (dx != 0) {
+                final int exposedX = (dx > 0 ? originX + paneWidth - dx : originX);
+                drawRegion(map, state, exposedX, originY, Math.abs(dx), paneHeight);
+            }
+            if (dy != 0) {
+                final int exposedY = (dy > 0 ? originY + paneHeight - dy : originY);
+                drawRegion(map, state, originX, exposedY, paneWidth, Math.abs(dy));
+            }
         }
+        final PlayerMapState state = game.player().mapState(map);
+        final int viewX = originX;
+        final int viewY = originY;
+        map.walkSurrounding(newX, newY, (col, row, t) -> {
+            drawTerrain(state, col, row, col - viewX + paneLeft, row - viewY + paneTop, t);
+        });
         drawPlayer(game.player());
         return result;
     }
 
-    private void drawMapForPoint(TerrainMap map, int x, int y) {
+    private void drawMapForOrigin(TerrainMap map) {
         final int paneWidth = width();
         final int paneHeight = height();
+
+        // hint that the surrounding panes may be visited next
+        map.prefetch(originX - paneWidth, originY - paneHeight, paneWidth * 3, paneHeight * 3);
+
+        drawRegion(map, game.player().mapState(map), originX, originY, paneWidth, paneHeight);
+    }
+
+    /**
+     * Draw a region of the map that is within the viewport.
+     *
+     * @param map    the map
+     * @param state  the player state for the map
+     * @param x      the map X coordinate of the region
+     * @param y      the map Y coordinate of the region
+     * @param width  the region width
+     * @param height the region height
+     */
+    private void drawRegion(TerrainMap map, PlayerMapState state, int x, int y, int width, int height) {
         final int paneTop = top();
         final int paneLeft = left();
-        final int startX = (x / paneWidth) * paneWidth;
-        final int startY = (y / paneHeight) * paneHeight;
-        map.walk(startX, startY, paneWidth, paneHeight, (col, row, t) -> {
-            drawTerrain(col, row, col - startX + paneLeft, row - startY + paneTop, t);
-        });
+        final int startX = originX;
+        final int startY = originY;
+
+        // clip the region to the pane once, so the cells can be drawn without checking the pane bounds
+        final int minX = Math.max(x, startX);
+        final int minY = Math.max(y, startY);
+        final int maxX = Math.min(x + width, startX + width());
+        final int maxY = Math.min(y + height, startY + height());
+        if (minX >= maxX || minY >= maxY) {
+            return;
+        }
+        final int spanWidth = maxX - minX;
+        final boolean revealMap = game.player().config().revealMap();
+        if (rowBuffer.length < spanWidth) {
+            rowBuffer = new TerrainType[spanWidth];
+        }
+        final TerrainSpanConsumer drawRow = (col, r, types, offset, length) -> {
+            final int screenRow = r - startY + paneTop;
+            for (int i = 0, screenCol = col - startX + paneLeft; i < length; i++, screenCol++) {
+                drawCell(state, revealMap, col + i, r, screenCol, screenRow, types[offset + i]);
+            }
+        };
+        for (int row = minY; row < maxY; row++) {
+            if (!revealMap && !state.hasVisitedNearAny(minX, row, spanWidth)) {
+                // nothing visible in this row, so no need to look up any terrain
+                drawHiddenRow(row - startY + paneTop, minX - startX + paneLeft, spanWidth);
+                continue;
+            }
+            map.walkRows(minX, row, spanWidth, 1, rowBuffer, drawRow);
+        }
     }
 
-    private void drawTerrain(int x, int y, int screenCol, int screenRow, TerrainType t) {
+    private void drawHiddenRow(int screenRow, int screenCol, int width) {
+        if (screenRow < top() || screenRow > bottom()) {
+            return;
+        }
+        game.textGraphics().setForegroundColor(HIDDEN_FOREGROUND);
+        game.textGraphics().setBackgroundColor(HIDDEN_BACKGROUND);
+        game.textGraphics()
+                .fillRectangle(
+                        new TerminalPosition(screenCol, screenRow),
+                        new TerminalSize(Math.min(width, right() - screenCol + 1), 1),
+                        TerrainType.EMPTY);
+    }
+
+    private void drawTerrain(PlayerMapState state, int x, int y, int screenCol, int screenRow, TerrainType t) {
         if (screenCol < left() || screenCol > right() || screenRow < top() || screenRow > bottom()) {
             return;
         }
+        drawCell(state, game.player().config().revealMap(), x, y, screenCol, screenRow, t);
+    }
+
+    private void drawCell(
+            PlayerMapState state, boolean revealMap, int x, int y, int screenCol, int screenRow, TerrainType t) {
         // show the terrain if the revealMap config active, or if visited "near"
-        final boolean visited =
-                game.player().config().revealMap() || game.player().hasVisitedNear(game.map(), x, y);
+        final boolean visited = revealMap || state.hasVisitedNear(x, y);
         char c = t != null ? t.getKey() : TerrainType.EMPTY;
-        TextColor bg = game.settings().colors().background().terrain(t, ANSI.BLACK);
-        TextColor fg = game.settings().colors().foreground().terrain(t, ANSI.WHITE_BRIGHT);
+        TextColor bg = game.colors().background().terrain(t, ANSI.BLACK);
+        TextColor fg = game.colors().foreground().terrain(t, ANSI.WHITE_BRIGHT);
         if (!visited) {
-            bg = ANSI.BLACK;
+            bg = HIDDEN_BACKGROUND;
+            fg = HIDDEN_FOREGROUND;
             c = TerrainType.EMPTY;
         } else if (c == TerrainType.WALL_CORNER || c == TerrainType.WALL_HORIZONTAL || c == TerrainType.WALL_VERTICAL) {
             c = Symbols.BLOCK_SOLID;
-        } else if (c == TerrainType.CHEST && game.player().hasInteracted(game.map(), x, y)) {
+        } else if (c == TerrainType.CHEST && state.hasInteracted(x, y)) {
             // this chest has been opened; draw with a different color
-            fg = color(game.settings().colors().foreground().cave(), ANSI.WHITE_BRIGHT);
-        } else if (c == TerrainType.SHIP && !game.player().vehicleLocatedAt(game.map(), x, y)) {
+            fg = game.colors().foreground().cave(ANSI.WHITE_BRIGHT);
+        } else if (c == TerrainType.SHIP && !state.vehicleLocatedAt(x, y)) {
             // ship no longer at this spot, draw water instead
             c = TerrainType.WATER;
-            bg = game.settings().colors().background().terrain(TerrainType.Water, ANSI.BLACK);
-            fg = game.settings().colors().foreground().terrain(TerrainType.Water, ANSI.WHITE_BRIGHT);
-        } else if (c == TerrainType.WATER && game.player().vehicleLocatedAt(game.map(), x, y)) {
+            bg = game.colors().background().terrain(TerrainType.Water, ANSI.BLACK);
+            fg = game.colors().foreground().terrain(TerrainType.Water, ANSI.WHITE_BRIGHT);
+        } else if (c == TerrainType.WATER && state.vehicleLocatedAt(x, y)) {
             // ship is at this spot, draw ship instead
             c = TerrainType.SHIP;
-            bg = game.settings().colors().background().terrain(TerrainType.Ship, ANSI.BLACK);
-            fg = game.settings().colors().foreground().terrain(TerrainType.Ship, ANSI.WHITE_BRIGHT);
+            bg = game.colors().background().terrain(TerrainType.Ship, ANSI.BLACK);
+            fg = game.colors().foreground().terrain(TerrainType.Ship, ANSI.WHITE_BRIGHT);
         }
         game.textGraphics().setBackgroundColor(bg);
         game.textGraphics().setForegroundColor(fg);
@@ -141,16 +291,8 @@ public final class MapPane implements Pane {
     }
 
     private void drawPlayer(Player player) {
-        final int paneWidth = width();
-        final int paneHeight = height();
-        final int paneTop = top();
-        final int paneLeft = left();
-        final int startX = (player.getX() / paneWidth) * paneWidth;
-        final int startY = (player.getY() / paneHeight) * paneHeight;
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().player(), ANSI.WHITE_BRIGHT));
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().player(), ANSI.MAGENTA_BRIGHT));
-        game.textGraphics().setCharacter(player.getX() - startX + paneLeft, player.getY() - startY + paneTop, '@');
+        game.textGraphics().setForegroundColor(game.colors().foreground().player(ANSI.WHITE_BRIGHT));
+        game.textGraphics().setBackgroundColor(game.colors().background().player(ANSI.MAGENTA_BRIGHT));
+        game.textGraphics().setCharacter(player.getX() - originX + left(), player.getY() - originY + top(), '@');
     }
 }
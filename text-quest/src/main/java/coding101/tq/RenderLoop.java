@@ -0,0 +1,264 @@
+package coding101.tq;
+
+import static java.util.Objects.requireNonNull;
+
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.input.KeyType;
+import com.googlecode.lanterna.screen.Screen;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The game render loop.
+ *
+ * The thread that calls {@link #start()} becomes the owner of the screen: it is
+ * the only thread that draws to the screen or refreshes it. Key strokes are read
+ * by a separate input thread and queued, until {@link #stop()} is called, and
+ * other threads post changes to draw via {@link #post(Runnable)}. The owner
+ * thread takes both from the same queue via {@link #readInput()}, running
+ * posted changes as they arrive and returning the next key stroke.
+ *
+ * Drawing requests a refresh via {@link #requestRefresh()} rather than
+ * refreshing the screen directly. Requests are coalesced, so that the screen is
+ * refreshed at most a given number of times per second, and only if something
+ * was drawn. When key strokes arrive faster than that, for example when an arrow
+ * key is held down, they are handled without refreshing the screen after each
+ * one.
+ */
+public final class RenderLoop {
+
+    /** A maximum refresh rate that refreshes the screen on every request. */
+    public static final int UNLIMITED_REFRESHES = Integer.MAX_VALUE;
+
+    // the time the input thread waits between polling the screen for input
+    private static final long INPUT_POLL_MILLIS = 10;
+
+    private final Screen screen;
+    private final long refreshIntervalNanos;
+
+    // queued KeyStroke, Runnable, or IOException objects
+    private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+
+    private Thread owner;
+    private Thread inputThread;
+    private volatile boolean stopped;
+    private boolean dirty;
+    private long lastRefresh;
+    private long refreshCount;
+
+    /**
+     * Constructor.
+     *
+     * @param screen                the screen
+     * @param maxRefreshesPerSecond the maximum number of times per second to
+     *                              refresh the screen
+     * @throws IllegalArgumentException if {@code screen} is {@code null} or
+     *                                  {@code maxRefreshesPerSecond} is less than
+     *                                  {@code 1}
+     */
+    public RenderLoop(Screen screen, int maxRefreshesPerSecond) {
+        super();
+        this.screen = requireNonNull(screen);
+        if (maxRefreshesPerSecond < 1) {
+            throw new IllegalArgumentException("The maxRefreshesPerSecond argument must be at least 1.");
+        }
+        this.refreshIntervalNanos = TimeUnit.SECONDS.toNanos(1) / maxRefreshesPerSecond;
+        this.lastRefresh = System.nanoTime() - refreshIntervalNanos;
+    }
+
+    /**
+     * Start the loop, making the calling thread the owner of the screen.
+     *
+     * @throws IllegalStateException if the loop has already been started
+     */
+    public void start() {
+        start(true);
+    }
+
+    /**
+     * Start the loop, making the calling thread the owner of the screen.
+     *
+     * @param readScreenInput {@code true} to read key strokes from the screen on a
+     *                        separate input thread, or {@code false} if the
+     *                        screen provides no input
+     * @throws IllegalStateException if the loop has already been started
+     */
+    public synchronized void start(boolean readScreenInput) {
+        if (owner != null) {
+            throw new IllegalStateException("The render loop has already been started.");
+        }
+        owner = Thread.currentThread();
+        if (readScreenInput) {
+            inputThread = new Thread(this::readInputEvents, "TQ Input");
+            inputThread.setDaemon(true);
+            inputThread.start();
+        }
+    }
+
+    /**
+     * Stop the loop.
+     *
+     * The input thread is stopped, and this method waits for it to finish, so
+     * the screen can be safely stopped afterwards. This method can be called
+     * from any thread, and more than once.
+     */
+    public void stop() {
+        final Thread t;
+        synchronized (this) {
+            stopped = true;
+            t = inputThread;
+            inputThread = null;
+        }
+        if (t == null || t == Thread.currentThread()) {
+            return;
+        }
+        t.interrupt();
+        try {
+            t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void readInputEvents() {
+        // poll rather than block on the screen, so the thread can be stopped
+        try {
+            while (!stopped) {
+                KeyStroke keyStroke = screen.pollInput();
+                if (keyStroke == null) {
+                    Thread.sleep(INPUT_POLL_MILLIS);
+                    continue;
+                }
+                events.add(keyStroke);
+                if (keyStroke.getKeyType() == KeyType.EOF) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            events.add(e);
+        } catch (InterruptedException e) {
+            // stopped
+        }
+    }
+
+    /**
+     * Post a change to draw on the owner thread.
+     *
+     * This method can be called from any thread. The change will run the next
+     * time the owner thread reads input, and any refresh it requests is
+     * coalesced with all other requests.
+     *
+     * @param change the change to draw
+     */
+    public void post(Runnable change) {
+        events.add(requireNonNull(change));
+    }
+
+    /**
+     * Request the screen be refreshed.
+     *
+     * The screen is refreshed immediately if it has not been refreshed within the
+     * refresh interval, otherwise the next time the owner thread reads input.
+     * This method must only be called by the owner thread.
+     *
+     * @throws IllegalStateException if called by a thread other than the owner
+     */
+    public void requestRefresh() {
+        checkOwner();
+        dirty = true;
+        if (System.nanoTime() - lastRefresh >= refreshIntervalNanos) {
+            refreshQuietly();
+        }
+    }
+
+    /**
+     * Refresh the screen now, if anything has been drawn since the last refresh.
+     *
+     * This can be used before pausing the owner thread, so the player sees
+     * everything drawn so far. This method must only be called by the owner
+     * thread.
+     *
+     * @throws IOException           if an IO error occurs
+     * @throws IllegalStateException if called by a thread other than the owner
+     */
+    public void flush() throws IOException {
+        checkOwner();
+        if (dirty) {
+            refresh();
+        }
+    }
+
+    /**
+     * Read the next key stroke.
+     *
+     * While waiting for a key stroke, all posted changes are run and any
+     * requested refresh is performed once the refresh interval has passed. This
+     * method must only be called by the owner thread.
+     *
+     * @return the key stroke
+     * @throws IOException           if an IO error occurs
+     * @throws IllegalStateException if called by a thread other than the owner
+     */
+    public KeyStroke readInput() throws IOException {
+        checkOwner();
+        while (true) {
+            Object event;
+            try {
+                if (!dirty) {
+                    event = events.take();
+                } else {
+                    final long wait = refreshIntervalNanos - (System.nanoTime() - lastRefresh);
+                    event = (wait > 0 ? events.poll(wait, TimeUnit.NANOSECONDS) : null);
+                    if (event == null) {
+                        refresh();
+                        continue;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted reading input.", e);
+            }
+            if (event instanceof Runnable r) {
+                r.run();
+            } else if (event instanceof KeyStroke k) {
+                return k;
+            } else if (event instanceof IOException e) {
+                // leave the error for any subsequent read
+                events.add(e);
+                throw new IOException("Error reading input: %s".formatted(e.getMessage()), e);
+            }
+        }
+    }
+
+    /**
+     * Get the number of times the screen has been refreshed.
+     *
+     * @return the refresh count
+     */
+    public long refreshCount() {
+        return refreshCount;
+    }
+
+    private void checkOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("The screen can only be drawn by the render loop thread.");
+        }
+    }
+
+    private void refresh() throws IOException {
+        dirty = false;
+        lastRefresh = System.nanoTime();
+        refreshCount++;
+        screen.refresh();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (IOException e) {
+            throw new RuntimeException("Error refreshing screen: %s".formatted(e.getMessage()), e);
+        }
+    }
+}
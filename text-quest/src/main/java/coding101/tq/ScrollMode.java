@@ -0,0 +1,115 @@
+package coding101.tq;
+
+/**
+ * Enumeration of map viewport scrolling modes.
+ *
+ * A mode determines the map coordinate shown at the top-left corner of the map
+ * pane (the viewport origin) for a given player coordinate. Each axis is
+ * computed independently, via {@link #origin(int, int, int, int)}.
+ */
+public enum ScrollMode {
+
+    /**
+     * Show the map in whole pages: the viewport jumps a full pane when the player
+     * crosses the edge of the pane.
+     */
+    Page("page"),
+
+    /**
+     * Keep the player in the center of the pane, scrolling one cell with every
+     * move (other than near the edge of the map).
+     */
+    Center("center"),
+
+    /**
+     * Allow the player to move freely within the middle of the pane, scrolling
+     * only when the player moves into the margin around the edge of the pane.
+     */
+    DeadZone("dead-zone"),
+    ;
+
+    /** The value to pass as the current origin when there is none. */
+    public static final int NO_ORIGIN = Integer.MIN_VALUE;
+
+    private final String key;
+
+    private ScrollMode(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Get the key.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Get an enum value for a key.
+     *
+     * @param key the key to get the enum value for
+     * @return the enum value
+     * @throws IllegalArgumentException if {@code key} is not supported
+     */
+    public static ScrollMode forKey(String key) {
+        for (ScrollMode mode : values()) {
+            if (mode.key.equalsIgnoreCase(key)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported ScrollMode key: %s".formatted(key));
+    }
+
+    /**
+     * Get the size of the margin within which a {@link #DeadZone} viewport
+     * scrolls.
+     *
+     * @param paneSize the pane size
+     * @return the margin size
+     */
+    public static int deadZoneMargin(int paneSize) {
+        return Math.max(0, (paneSize - 1) / 4);
+    }
+
+    /**
+     * Compute the viewport origin along one axis.
+     *
+     * Other than for {@link #Page}, the origin is kept within the map when the
+     * map is larger than the pane, so the pane does not show past the edge of the
+     * map.
+     *
+     * @param position the player coordinate
+     * @param current  the current origin, or {@link #NO_ORIGIN} if there is none
+     * @param paneSize the pane size
+     * @param mapSize  the map size
+     * @return the origin
+     */
+    public int origin(int position, int current, int paneSize, int mapSize) {
+        if (paneSize < 1) {
+            return position;
+        }
+        if (this == Page) {
+            return Math.floorDiv(position, paneSize) * paneSize;
+        }
+        // center the player, unless they are still within the dead zone
+        final long result = (this == DeadZone && current != NO_ORIGIN
+                ? deadZoneOrigin(position, current, paneSize)
+                : (long) position - paneSize / 2);
+        if (mapSize <= paneSize) {
+            return 0;
+        }
+        return (int) Math.max(0, Math.min(result, (long) mapSize - paneSize));
+    }
+
+    private static long deadZoneOrigin(int position, int current, int paneSize) {
+        final int margin = deadZoneMargin(paneSize);
+        if (position < (long) current + margin) {
+            return (long) position - margin;
+        } else if (position > (long) current + paneSize - 1 - margin) {
+            return (long) position - paneSize + 1 + margin;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,237 @@
+package coding101.tq;
+
+import static java.util.Objects.requireNonNull;
+
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.TextCharacter;
+import com.googlecode.lanterna.graphics.AbstractTextGraphics;
+import com.googlecode.lanterna.graphics.TextGraphics;
+import java.util.Arrays;
+
+/**
+ * Text graphics that keep a shadow copy of the last character drawn to each
+ * cell, and only pass changed cells on to a delegate.
+ *
+ * Panes draw into this exactly as they would any other {@link TextGraphics}.
+ * Drawing a cell with the same character and colors it already shows is then
+ * a comparison against the shadow copy, rather than a write to the screen.
+ *
+ * Between {@link #beginFrame()} and {@link #endFrame()} cells are only drawn
+ * into the shadow copy, and ending the frame passes on just the cells that
+ * differ from what was drawn before the frame started. This allows a full
+ * redraw, for example one that first clears the whole screen, to only write
+ * the cells that actually changed.
+ *
+ * When the size of the delegate changes the shadow copy is discarded, so every
+ * cell is drawn again.
+ */
+public final class ShadowTextGraphics extends AbstractTextGraphics {
+
+    private final TextGraphics delegate;
+
+    private int columns;
+    private int rows;
+
+    // the last character drawn to the delegate for each cell, or null if unknown
+    private TextCharacter[] drawn = new TextCharacter[0];
+
+    // the characters drawn within the current frame
+    private TextCharacter[] frame;
+    private int frameDepth;
+
+    // a buffer reused for shifting cells
+    private TextCharacter[] scrollBuffer = new TextCharacter[0];
+
+    private long changedCount;
+    private long unchangedCount;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate the graphics to draw changed cells to
+     * @throws IllegalArgumentException if any argument is {@code null}
+     */
+    public ShadowTextGraphics(TextGraphics delegate) {
+        super();
+        this.delegate = requireNonNull(delegate);
+    }
+
+    @Override
+    public TerminalSize getSize() {
+        return delegate.getSize();
+    }
+
+    /**
+     * Match the shadow copy to the current size of the delegate.
+     */
+    private void checkSize() {
+        final TerminalSize size = delegate.getSize();
+        if (size.getColumns() == columns && size.getRows() == rows) {
+            return;
+        }
+        columns = size.getColumns();
+        rows = size.getRows();
+        drawn = new TextCharacter[columns * rows];
+        if (frame != null) {
+            frame = new TextCharacter[drawn.length];
+        }
+    }
+
+    @Override
+    public TextGraphics setCharacter(int columnIndex, int rowIndex, TextCharacter textCharacter) {
+        checkSize();
+        if (columnIndex < 0 || rowIndex < 0 || columnIndex >= columns || rowIndex >= rows) {
+            return this;
+        }
+        final int i = rowIndex * columns + columnIndex;
+        if (frame != null) {
+            frame[i] = textCharacter;
+        } else {
+            draw(i, columnIndex, rowIndex, textCharacter);
+        }
+        return this;
+    }
+
+    private void draw(int i, int columnIndex, int rowIndex, TextCharacter textCharacter) {
+        final TextCharacter prev = drawn[i];
+        if (prev == textCharacter || (prev != null && prev.equals(textCharacter))) {
+            unchangedCount++;
+            return;
+        }
+        delegate.setCharacter(columnIndex, rowIndex, textCharacter);
+        drawn[i] = textCharacter;
+        changedCount++;
+    }
+
+    @Override
+    public TextCharacter getCharacter(int column, int row) {
+        checkSize();
+        if (column < 0 || row < 0 || column >= columns || row >= rows) {
+            return null;
+        }
+        final int i = row * columns + column;
+        final TextCharacter result = (frame != null ? frame[i] : drawn[i]);
+        return (result != null ? result : delegate.getCharacter(column, row));
+    }
+
+    /**
+     * Start a frame.
+     *
+     * Frames can be nested, in which case only ending the outermost frame draws
+     * the changed cells.
+     */
+    public void beginFrame() {
+        if (frameDepth++ > 0) {
+            return;
+        }
+        checkSize();
+        frame = Arrays.copyOf(drawn, drawn.length);
+    }
+
+    /**
+     * End a frame, drawing all cells changed within the frame.
+     */
+    public void endFrame() {
+        if (frameDepth < 1 || --frameDepth > 0) {
+            return;
+        }
+        final TextCharacter[] f = frame;
+        frame = null;
+        for (int row = 0, i = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++, i++) {
+                if (f[i] != null) {
+                    draw(i, col, row, f[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Shift the contents of a rectangle of cells.
+     *
+     * Each cell in the rectangle is drawn with the character of the cell
+     * {@code dx} columns to the left and {@code dy} rows above it, taken from
+     * the shadow copy, so shifting does not need to render those characters
+     * again. The cells exposed along the edges of the rectangle keep their
+     * previous characters, and are expected to be drawn by the caller.
+     *
+     * This saves rendering, not output: every shifted cell whose character
+     * differs from the one it replaces is drawn to the delegate, and written to
+     * the terminal on the next refresh, so the cost grows with the area of the
+     * rectangle. A terminal scroll region, as used by
+     * {@code Screen.scrollLines()}, only covers whole rows, so cannot be used for
+     * a rectangle narrower than the screen, such as the map pane.
+     *
+     * @param left   the left column of the rectangle
+     * @param top    the top row of the rectangle
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     * @param dx     the number of columns to shift right, or left if negative
+     * @param dy     the number of rows to shift down, or up if negative
+     */
+    public void scroll(int left, int top, int width, int height, int dx, int dy) {
+        checkSize();
+        final int x0 = Math.max(0, left);
+        final int y0 = Math.max(0, top);
+        final int w = Math.min(columns, left + width) - x0;
+        final int h = Math.min(rows, top + height) - y0;
+        if (w < 1 || h < 1 || (dx == 0 && dy == 0) || Math.abs(dx) >= w || Math.abs(dy) >= h) {
+            return;
+        }
+
+        // copy the rectangle first, as the source and destination overlap
+        final TextCharacter[] src = (frame != null ? frame : drawn);
+        if (scrollBuffer.length < w * h) {
+            scrollBuffer = new TextCharacter[w * h];
+        }
+        final TextCharacter[] copy = scrollBuffer;
+        for (int row = 0; row < h; row++) {
+            System.arraycopy(src, (y0 + row) * columns + x0, copy, row * w, w);
+            for (int col = 0; col < w; col++) {
+                if (copy[row * w + col] == null) {
+                    // not drawn through this instance, so take from the delegate
+                    copy[row * w + col] = delegate.getCharacter(x0 + col, y0 + row);
+                }
+            }
+        }
+
+        for (int row = Math.max(0, dy), maxRow = Math.min(h, h + dy); row < maxRow; row++) {
+            for (int col = Math.max(0, dx), maxCol = Math.min(w, w + dx); col < maxCol; col++) {
+                final TextCharacter c = copy[(row - dy) * w + col - dx];
+                if (c != null) {
+                    setCharacter(x0 + col, y0 + row, c);
+                }
+            }
+        }
+        Arrays.fill(copy, 0, w * h, null);
+    }
+
+    /**
+     * Discard the shadow copy, so every cell is drawn again.
+     *
+     * This must be called if anything draws to the screen other than through
+     * this instance.
+     */
+    public void invalidate() {
+        Arrays.fill(drawn, null);
+    }
+
+    /**
+     * Get the number of cells drawn to the delegate because they changed.
+     *
+     * @return the changed cell count
+     */
+    public long changedCount() {
+        return changedCount;
+    }
+
+    /**
+     * Get the number of cells not drawn to the delegate because they were
+     * unchanged.
+     *
+     * @return the unchanged cell count
+     */
+    public long unchangedCount() {
+        return unchangedCount;
+    }
+}
@@ -1,6 +1,5 @@
 package coding101.tq;
 
-import static coding101.tq.domain.ColorPalette.color;
 import static java.util.Objects.requireNonNull;
 
 import coding101.tq.domain.Shop;
@@ -103,22 +102,18 @@ public class ShopPane implements Pane {
     }
 
     private void drawItem(String label, String value, int col, int row, int width) {
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().uiText(), ANSI.BLACK));
+        game.textGraphics().setBackgroundColor(game.colors().background().uiText(ANSI.BLACK));
 
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiText(), ANSI.WHITE_BRIGHT));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiText(ANSI.WHITE_BRIGHT));
         game.textGraphics().putString(col, row, label);
 
         int valueDisplayCol = col + width - value.length();
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiBorder(), ANSI.WHITE));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiBorder(ANSI.WHITE));
         for (int i = col + label.length(); i < valueDisplayCol; i++) {
             game.textGraphics().setCharacter(i, row, '.');
         }
 
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiText(), ANSI.WHITE_BRIGHT));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiText(ANSI.WHITE_BRIGHT));
         game.textGraphics().putString(valueDisplayCol, row, value);
     }
 
@@ -149,10 +144,8 @@ public class ShopPane implements Pane {
     }
 
     private int drawWrappedString(String message, int top, int left, int maxWidth) {
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiText(), ANSI.BLACK));
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().uiText(), ANSI.WHITE_BRIGHT));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiText(ANSI.BLACK));
+        game.textGraphics().setBackgroundColor(game.colors().background().uiText(ANSI.WHITE_BRIGHT));
 
         int start = 0;
         int y = top;
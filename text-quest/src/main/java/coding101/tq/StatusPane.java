@@ -1,6 +1,5 @@
 package coding101.tq;
 
-import static coding101.tq.domain.ColorPalette.color;
 import static java.util.Objects.requireNonNull;
 
 import coding101.tq.domain.Coordinate;
@@ -93,10 +92,8 @@ public class StatusPane implements Pane {
         final int paneTop = top();
         final int paneLeft = left();
         final int paneWidth = width();
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().uiText(), ANSI.BLACK));
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().uiText(), ANSI.WHITE_BRIGHT));
+        game.textGraphics().setForegroundColor(game.colors().foreground().uiText(ANSI.BLACK));
+        game.textGraphics().setBackgroundColor(game.colors().background().uiText(ANSI.WHITE_BRIGHT));
 
         final String msg = (message != null ? message.substring(0, Math.min(message.length(), width())) : null);
         final TerminalPosition topLeft = new TerminalPosition(paneLeft, paneTop);
@@ -118,6 +115,7 @@ public class StatusPane implements Pane {
         final TimerTask statusTask = this.statusTask;
         if (statusTask != null) {
             statusTask.cancel();
+            this.statusTask = null;
         }
         setMessage(message);
         if (message == null) {
@@ -146,8 +144,8 @@ public class StatusPane implements Pane {
                 break;
             }
             start = end;
+            game.renderLoop().requestRefresh();
             try {
-                game.screen().refresh();
                 game.readYesNo();
             } catch (IOException e) {
                 throw new RuntimeException("Error drawing message: %s".formatted(e.getMessage()), e);
@@ -158,13 +156,15 @@ public class StatusPane implements Pane {
 
                 @Override
                 public void run() {
-                    setMessage(null);
-                    draw();
-                    try {
-                        game.screen().refresh();
-                    } catch (IOException e) {
-                        // ignore
-                    }
+                    // draw on the render loop thread, unless another message has replaced this one
+                    game.renderLoop().post(() -> {
+                        if (StatusPane.this.statusTask == this) {
+                            StatusPane.this.statusTask = null;
+                            setMessage(null);
+                            draw();
+                            game.renderLoop().requestRefresh();
+                        }
+                    });
                 }
             };
             timer.schedule(tt, clearAfterSecs * 1000L);
@@ -6,6 +6,7 @@ import coding101.tq.domain.ColorScheme;
 import coding101.tq.domain.Coordinate;
 import coding101.tq.domain.Player;
 import coding101.tq.domain.PlayerItems;
+import coding101.tq.domain.ResolvedColorScheme;
 import coding101.tq.domain.Settings;
 import coding101.tq.domain.Shop;
 import coding101.tq.domain.TerrainMap;
@@ -16,7 +17,9 @@ import coding101.tq.util.CommandLineGameConfiguration;
 import coding101.tq.util.CoordinateJson;
 import coding101.tq.util.Persistence;
 import coding101.tq.util.PlayerItemsJson;
+import coding101.tq.util.TerrainMapBinary;
 import coding101.tq.util.TerrainMapBuilder;
+import coding101.tq.util.TerrainMapCache;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -60,20 +63,28 @@ public class TextQuest {
 
     private static final int SHIP_COST = 100;
 
+    private static final int MAX_REFRESHES_PER_SECOND = 30;
+
+    private static final int CHILD_MAP_CACHE_SIZE = 32;
+    private static final int CHILD_MAP_PREFETCH_DISTANCE = 3;
+
     private static char INTERACT_KEY = ' ';
     private static char SAVE_KEY = 's';
     private static char EQUIP_KEY = 'e';
 
     private final Screen screen;
     private final Settings settings;
+    private final ResolvedColorScheme colors;
     private final TerrainMap mainMap;
     private final Player player;
     private final ObjectMapper mapper;
     private final TextGraphics graphics;
+    private final RenderLoop renderLoop;
     private final ResourceBundle bundle;
     private final Timer timer;
     private final GameImpl game;
     private final GameUI ui;
+    private final TerrainMapCache childMaps;
     private TerrainMap activeMap;
     private Path savePath;
 
@@ -91,14 +102,22 @@ public class TextQuest {
         super();
         this.screen = Objects.requireNonNull(screen);
         this.settings = Objects.requireNonNull(settings);
+        this.colors = settings.colors().resolve();
         this.mainMap = Objects.requireNonNull(mainMap);
         this.player = Objects.requireNonNull(player);
         this.mapper = Objects.requireNonNull(mapper);
-        this.graphics = screen.newTextGraphics();
+        this.graphics = new ShadowTextGraphics(screen.newTextGraphics());
+        this.renderLoop = new RenderLoop(screen, MAX_REFRESHES_PER_SECOND);
         this.bundle = ResourceBundle.getBundle(getClass().getName());
         this.timer = new Timer("TQ Tasks", true);
         this.game = new GameImpl();
         this.ui = new GameUI(this.game, this.timer, INFO_PANE_WIDTH, STATUS_PANE_HEIGHT);
+        this.childMaps = new TerrainMapCache(
+                CHILD_MAP_CACHE_SIZE,
+                mapName -> TerrainMapBinary.load(
+                        "META-INF/tqmaps/%s/%s".formatted(mainMap.getName(), mapName),
+                        mapName,
+                        TerrainMapBuilder.StorageMode.RunLength));
 
         if (player.getActiveMapName().equals(mainMap.getName())) {
             this.activeMap = mainMap;
@@ -124,11 +143,21 @@ public class TextQuest {
             return graphics;
         }
 
+        @Override
+        public RenderLoop renderLoop() {
+            return renderLoop;
+        }
+
         @Override
         public Settings settings() {
             return settings;
         }
 
+        @Override
+        public ResolvedColorScheme colors() {
+            return colors;
+        }
+
         @Override
         public Player player() {
             return player;
@@ -141,7 +170,7 @@ public class TextQuest {
 
         @Override
         public boolean readYesNo() throws IOException {
-            KeyStroke keyStroke = screen.readInput();
+            KeyStroke keyStroke = renderLoop.readInput();
             KeyType keyType = keyStroke != null ? keyStroke.getKeyType() : null;
             if (keyType == KeyType.Enter) {
                 return true;
@@ -151,7 +180,7 @@ public class TextQuest {
 
         @Override
         public char readCharacter() throws IOException {
-            KeyStroke keyStroke = screen.readInput();
+            KeyStroke keyStroke = renderLoop.readInput();
             KeyType keyType = keyStroke != null ? keyStroke.getKeyType() : null;
             if (keyType == KeyType.Character) {
                 return keyStroke.getCharacter();
@@ -163,14 +192,14 @@ public class TextQuest {
         public Integer readInteger(int x, int y) throws IOException {
             StringBuilder buf = new StringBuilder();
             while (true) {
-                KeyStroke keyStroke = screen.readInput();
+                KeyStroke keyStroke = renderLoop.readInput();
                 KeyType keyType = keyStroke != null ? keyStroke.getKeyType() : null;
                 if (keyType == KeyType.Character) {
                     final char c = keyStroke.getCharacter();
                     if (c >= '0' && c <= '9') {
                         buf.append(c);
                         ui.status().drawCharacter(x++, y, c);
-                        screen().refresh();
+                        renderLoop.requestRefresh();
                     }
                 } else if (keyType == KeyType.Enter) {
                     break;
@@ -195,14 +224,25 @@ public class TextQuest {
      * Start the main game loop.
      *
      * This method will process key inputs and re-draw the game, until the game is
-     * quit via the Escape key, Ctl-C, and so on.
+     * quit via the Escape key, Ctl-C, and so on. The calling thread becomes the
+     * owner of the game {@link RenderLoop}.
      *
      * @throws IOException if an IO error occurs
      */
     public void run() throws IOException {
-        ui.draw();
+        renderLoop.start();
+        try {
+            ui.draw();
+            prefetchChildMaps();
+            handleInput();
+        } finally {
+            renderLoop.stop();
+        }
+    }
+
+    private void handleInput() throws IOException {
         while (true) {
-            KeyStroke keyStroke = screen.readInput();
+            KeyStroke keyStroke = renderLoop.readInput();
 
             // check for death
             if (player.getHealth() < 1) {
@@ -239,10 +279,15 @@ public class TextQuest {
                         player.addXp(player.config().xp().exploreXp());
                     }
 
+                    // redraw exploration in case that changed
+                    ui.info().drawExploration();
+
                     // redraw health in case that changed
                     ui.health().draw();
 
-                    screen.refresh();
+                    prefetchChildMaps();
+
+                    renderLoop.requestRefresh();
 
                     if (player.isDead()) {
                         death(0, bundle.getString("killed.terrain"));
@@ -362,7 +407,7 @@ public class TextQuest {
         // update coins display
         ui.info().drawCoins();
 
-        screen.refresh();
+        renderLoop.requestRefresh();
 
         // check for death!
         if (player.getHealth() < 1) {
@@ -373,6 +418,8 @@ public class TextQuest {
 
     private void death(int delay, String message) throws IOException {
         if (delay > 0) {
+            // show everything drawn so far before pausing
+            renderLoop.flush();
             try {
                 Thread.sleep(delay * 1000L);
             } catch (InterruptedException e) {
@@ -380,7 +427,7 @@ public class TextQuest {
             }
         }
         ui.status().drawMessage(message, -1);
-        screen.refresh();
+        renderLoop.requestRefresh();
     }
 
     private void interactWithShip() throws IOException {
@@ -389,14 +436,14 @@ public class TextQuest {
         if (player.onboard()) {
             // disembark!
             ui.status().drawMessage(bundle.getString("ship.askDisembark"), -1);
-            screen.refresh();
+            renderLoop.requestRefresh();
             if (game.readYesNo()) {
                 player.disembark();
                 ui.status().drawMessage(bundle.getString("ship.disembarked"), MESSAGE_CLEAR_DELAY);
             } else {
                 ui.status().drawMessage(null, -1);
             }
-            screen.refresh();
+            renderLoop.requestRefresh();
         } else {
             if (player.getCoins() < SHIP_COST) {
                 message = bundle.getString("ship.canNotAfford");
@@ -407,7 +454,7 @@ public class TextQuest {
                 clearDelay = -1;
             }
             ui.status().drawMessage(message, clearDelay);
-            screen.refresh();
+            renderLoop.requestRefresh();
             if (clearDelay < 0) {
                 if (game.readYesNo()) {
                     message = bundle.getString("ship.hired");
@@ -420,7 +467,7 @@ public class TextQuest {
                     message = bundle.getString("ship.hireDeclined");
                 }
                 ui.status().drawMessage(message, MESSAGE_CLEAR_DELAY);
-                screen.refresh();
+                renderLoop.requestRefresh();
             }
         }
     }
@@ -432,29 +479,29 @@ public class TextQuest {
         ui.startShop(shop);
         while (true) {
             ui.status().drawMessage(bundle.getString("shop.buyOrSell"), -1);
-            screen.refresh();
+            renderLoop.requestRefresh();
             char action = Character.toLowerCase(game.readCharacter());
             if (action == 'b') {
                 Coordinate inputPosition = ui.status().drawMessage(bundle.getString("shop.chooseItemToBuy"), -1);
-                screen.refresh();
+                renderLoop.requestRefresh();
                 Integer choice = game.readInteger(inputPosition.x() + 1, inputPosition.y());
                 if (choice == null || choice < 1 || choice > shop.itemsForSale().size()) {
                     ui.status().drawMessage(bundle.getString("shop.invalidChoice"), -1);
-                    screen.refresh();
+                    renderLoop.requestRefresh();
                     game.readYesNo();
                 } else {
                     InventoryItem itemToPurchase = shop.itemsForSale().get(choice - 1);
                     if (itemToPurchase.price() > player.getCoins()) {
                         // not enough coins to purchase
                         ui.status().drawMessage(bundle.getString("shop.insufficentFunds"), -1);
-                        screen.refresh();
+                        renderLoop.requestRefresh();
                         game.readYesNo();
                     } else {
                         shop.purchase(itemToPurchase);
                         ui.status().drawMessage(bundle.getString("shop.purchasedItem"), -1);
                         ui.shop().draw();
                         ui.info().draw();
-                        screen.refresh();
+                        renderLoop.requestRefresh();
                         game.readYesNo();
                     }
                 }
@@ -465,7 +512,7 @@ public class TextQuest {
                 InventoryItem itemToSell = null;
                 if (nonEquippedItems.isEmpty()) {
                     ui.status().drawMessage(bundle.getString("shop.nothingToSell"), -1);
-                    screen.refresh();
+                    renderLoop.requestRefresh();
                     game.readYesNo();
                     continue;
                 } else if (nonEquippedItems.size() == 1) {
@@ -473,14 +520,14 @@ public class TextQuest {
                     itemToSell = nonEquippedItems.getFirst();
                 } else {
                     Coordinate inputPosition = ui.status().drawMessage(bundle.getString("shop.chooseItemToSell"), -1);
-                    screen.refresh();
+                    renderLoop.requestRefresh();
                     Integer choice = game.readInteger(inputPosition.x() + 1, inputPosition.y());
                     if (choice != null) {
                         if (choice > 0 && choice <= shop.itemsForSale().size()) {
                             itemToSell = nonEquippedItems.get(choice - 1);
                         } else {
                             ui.status().drawMessage(bundle.getString("shop.invalidChoice"), -1);
-                            screen.refresh();
+                            renderLoop.requestRefresh();
                             game.readYesNo();
                         }
                     }
@@ -496,7 +543,7 @@ public class TextQuest {
                         shop.sell(itemToSell);
                         ui.info().draw();
                         ui.status().drawMessage(bundle.getString("shop.sold"), -1);
-                        screen.refresh();
+                        renderLoop.requestRefresh();
                         game.readYesNo();
                     }
                 }
@@ -507,7 +554,7 @@ public class TextQuest {
                 break;
             }
         }
-        screen.refresh();
+        renderLoop.requestRefresh();
     }
 
     private void equipItem() throws IOException {
@@ -518,24 +565,25 @@ public class TextQuest {
             ui.status().drawMessage(bundle.getString("inventory.equip.noneAvailable"), MESSAGE_CLEAR_DELAY);
         } else {
             Coordinate inputPosition = ui.status().drawMessage(bundle.getString("inventory.equip.choose"), -1);
-            screen.refresh();
+            renderLoop.requestRefresh();
             Integer choice = game.readInteger(inputPosition.x() + 1, inputPosition.y());
             if (choice != null) {
                 if (choice > 0 && choice <= equipableItems.size()) {
                     var itemToEquip = equipableItems.get(choice - 1);
                     player.getItems().apply(itemToEquip, player);
+                    player.movementChanged();
                     ui.info().drawItems();
                     ui.health().draw();
                     ui.status().drawMessage("", -1);
-                    screen.refresh();
+                    renderLoop.requestRefresh();
                 } else {
                     ui.status().drawMessage(bundle.getString("inventory.invalidChoice"), MESSAGE_CLEAR_DELAY);
-                    screen.refresh();
+                    renderLoop.requestRefresh();
                     game.readYesNo();
                 }
             }
         }
-        screen.refresh();
+        renderLoop.requestRefresh();
     }
 
     private void stashItem() throws IOException {
@@ -546,29 +594,45 @@ public class TextQuest {
             ui.status().drawMessage(bundle.getString("inventory.stash.noneAvailable"), MESSAGE_CLEAR_DELAY);
         } else {
             Coordinate inputPosition = ui.status().drawMessage(bundle.getString("inventory.stash.choose"), -1);
-            screen.refresh();
+            renderLoop.requestRefresh();
             Integer choice = game.readInteger(inputPosition.x() + 1, inputPosition.y());
             if (choice != null) {
                 if (choice > 0 && choice <= stashableItems.size()) {
                     var itemToStash = stashableItems.get(choice - 1);
                     player.getItems().stash(itemToStash, player);
+                    player.movementChanged();
                     ui.info().drawItems();
                     ui.status().drawMessage("", -1);
-                    screen.refresh();
+                    renderLoop.requestRefresh();
                 } else {
                     ui.status().drawMessage(bundle.getString("inventory.invalidChoice"), MESSAGE_CLEAR_DELAY);
-                    screen.refresh();
+                    renderLoop.requestRefresh();
                     game.readYesNo();
                 }
             }
         }
-        screen.refresh();
-        screen.refresh();
+        renderLoop.requestRefresh();
     }
 
     private TerrainMap loadChildMap(String mapName) {
-        return TerrainMapBuilder.parseResources("META-INF/tqmaps/%s/%s".formatted(mainMap.getName(), mapName))
-                .build(mapName);
+        TerrainMap map = childMaps.get(mapName);
+
+        // use a new map instance sharing the cached terrain, so map state like shops
+        // is reset each time the map is entered
+        return new TerrainMap(map.getName(), map.storage(), map.metadata(), map.tileWidth(), map.tileHeight());
+    }
+
+    private void prefetchChildMaps() {
+        if (activeMap != mainMap) {
+            return;
+        }
+        // load the child maps of any caves or towns near the player in the background
+        final int d = CHILD_MAP_PREFETCH_DISTANCE;
+        mainMap.walk(player.getX() - d, player.getY() - d, d * 2 + 1, d * 2 + 1, (x, y, t) -> {
+            if (t == TerrainType.Cave || t == TerrainType.Town) {
+                childMaps.prefetch("%04d,%04d".formatted(x, y));
+            }
+        });
     }
 
     private void saveGame() throws IOException {
@@ -582,7 +646,7 @@ public class TextQuest {
                             MessageFormat.format(bundle.getString("game.save.error"), e.getLocalizedMessage()),
                             MESSAGE_CLEAR_DELAY);
         }
-        screen.refresh();
+        renderLoop.requestRefresh();
     }
 
     private static void printHelp(Options options) {
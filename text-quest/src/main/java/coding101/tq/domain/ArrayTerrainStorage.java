@@ -0,0 +1,77 @@
+package coding101.tq.domain;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Terrain storage as a 2D array of rows.
+ *
+ * Rows may be {@code null} or shorter than the overall width, in which case
+ * {@code null} terrain is returned for the missing coordinates.
+ */
+public final class ArrayTerrainStorage implements TerrainStorage {
+
+    private final TerrainType[][] terrain;
+    private final int width;
+
+    /**
+     * Constructor.
+     *
+     * @param terrain the terrain
+     * @throws IllegalArgumentException if {@code terrain} is {@code null} or does
+     *                                  not have at least 1 non-empty row
+     */
+    public ArrayTerrainStorage(TerrainType[][] terrain) {
+        super();
+        this.terrain = Objects.requireNonNull(terrain);
+        if (terrain.length < 1 || terrain[0] == null || terrain[0].length < 1) {
+            throw new IllegalArgumentException("Invalid terrain array: must have at least 1 non-empty element.");
+        }
+        this.width = terrain[0].length;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return terrain.length;
+    }
+
+    @Override
+    public TerrainType terrainAt(int x, int y) {
+        TerrainType[] r = terrain[y];
+        return r != null && x < r.length ? r[x] : null;
+    }
+
+    /**
+     * Get the terrain array.
+     *
+     * The returned array is the storage itself, not a copy.
+     */
+    @Override
+    public TerrainType[][] toArray() {
+        return terrain;
+    }
+
+    @Override
+    public void readRow(int x, int y, int width, TerrainType[] dest, int offset) {
+        final TerrainType[] r = terrain[y];
+        final int len = (r != null ? Math.max(0, Math.min(width, r.length - x)) : 0);
+        if (len > 0) {
+            System.arraycopy(r, x, dest, offset, len);
+        }
+        if (len < width) {
+            // short or missing row
+            Arrays.fill(dest, offset + len, offset + width, null);
+        }
+    }
+
+    @Override
+    public TerrainType[] rowArray(int y) {
+        final TerrainType[] r = terrain[y];
+        return (r != null && r.length >= width ? r : null);
+    }
+}
@@ -120,4 +120,14 @@ public record ColorPalette(
             case Water -> color(water(), defaultColor);
         };
     }
+
+    /**
+     * Resolve all colors of the palette.
+     *
+     * @return the resolved palette
+     * @throws IllegalArgumentException if any color reference is not supported
+     */
+    public ResolvedColorPalette resolve() {
+        return new ResolvedColorPalette(this);
+    }
 }
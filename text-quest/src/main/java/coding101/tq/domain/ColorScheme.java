@@ -3,4 +3,15 @@ package coding101.tq.domain;
 /**
  * Color scheme.
  */
-public final record ColorScheme(ColorPalette background, ColorPalette foreground) {}
+public final record ColorScheme(ColorPalette background, ColorPalette foreground) {
+
+    /**
+     * Resolve all colors of the scheme.
+     *
+     * @return the resolved color scheme
+     * @throws IllegalArgumentException if any color reference is not supported
+     */
+    public ResolvedColorScheme resolve() {
+        return new ResolvedColorScheme(background.resolve(), foreground.resolve());
+    }
+}
@@ -0,0 +1,528 @@
+package coding101.tq.domain;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A map of "visited" terrain that uses compressed bitmaps, so memory scales
+ * with the number of visited coordinates rather than the map width.
+ *
+ * Each row is split into chunks of 65536 columns, and each chunk that has any
+ * visited coordinate is stored in a container, in the style of a "roaring"
+ * bitmap. A container uses whichever of these representations is smallest:
+ *
+ * <ol>
+ * <li>an array of sorted column offsets, for chunks with a few scattered
+ * visited coordinates</li>
+ * <li>a bitmap, for chunks with many scattered visited coordinates</li>
+ * <li>an array of runs of consecutive column offsets, for chunks where the
+ * visited coordinates form long runs</li>
+ * </ol>
+ *
+ * This is serialized as a {@code runs} property rather than the
+ * {@code visited} property of {@link VisitedMap}, as a map of row numbers to
+ * arrays of {@code start,length} column run pairs.
+ */
+public class CompressedVisitedMap extends VisitedMap {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_BYTES = CHUNK_SIZE / 8;
+
+    // container keys mapped to their position in keys and containers, plus one
+    private final LongHashTable index = new LongHashTable(true);
+    private long[] keys = new long[16];
+    private Container[] containers = new Container[16];
+
+    /**
+     * Constructor.
+     */
+    public CompressedVisitedMap() {
+        super();
+    }
+
+    /**
+     * Create a new instance with a copy of the data of another visited map.
+     *
+     * @param source the visited map to copy
+     * @return the new instance
+     */
+    public static CompressedVisitedMap copyOf(VisitedMap source) {
+        CompressedVisitedMap result = new CompressedVisitedMap();
+        for (Map.Entry<Integer, BitSet> e : source.visited().entrySet()) {
+            final int y = e.getKey();
+            final BitSet row = e.getValue();
+            for (int x = row.nextSetBit(0); x >= 0; x = row.nextSetBit(x + 1)) {
+                result.visit(x, y);
+            }
+        }
+        return result;
+    }
+
+    private static long key(int x, int y) {
+        return ((long) y << 32) | (x >>> CHUNK_BITS);
+    }
+
+    /**
+     * Get the visited data.
+     *
+     * The returned data is a copy of the visited data, expanded into one
+     * {@link BitSet} per row, so can be much larger than this instance.
+     *
+     * @return the visited data
+     */
+    @Override
+    @JsonIgnore
+    public SortedMap<Integer, BitSet> visited() {
+        SortedMap<Integer, BitSet> result = new TreeMap<>();
+        for (int i = 0, count = index.size(); i < count; i++) {
+            final int y = (int) (keys[i] >> 32);
+            final int base = (int) (keys[i] << CHUNK_BITS);
+            final BitSet row = result.computeIfAbsent(y, k -> new BitSet());
+            containers[i].forEachRun((start, end) -> row.set(base + start, base + end + 1));
+        }
+        return result;
+    }
+
+    /**
+     * Get the visited data as runs.
+     *
+     * @return mapping of row numbers to arrays of {@code start,length} column
+     *         run pairs
+     */
+    @JsonGetter("runs")
+    public SortedMap<Integer, int[]> runs() {
+        final long[] sorted = Arrays.copyOf(keys, index.size());
+        Arrays.sort(sorted);
+        SortedMap<Integer, int[]> result = new TreeMap<>();
+        int[] row = new int[16];
+        int len = 0;
+        int rowY = 0;
+        for (long key : sorted) {
+            final int y = (int) (key >> 32);
+            if (len > 0 && y != rowY) {
+                result.put(rowY, Arrays.copyOf(row, len));
+                len = 0;
+            }
+            rowY = y;
+            final int base = (int) (key << CHUNK_BITS);
+            final Container c = containers[(int) index.get(key) - 1];
+            if (row.length < len + c.runs * 2) {
+                row = Arrays.copyOf(row, Math.max(row.length * 2, len + c.runs * 2));
+            }
+            final int[] r = row;
+            final int[] l = new int[] {len};
+            c.forEachRun((start, end) -> {
+                if (l[0] > 0 && r[l[0] - 2] + r[l[0] - 1] == base + start) {
+                    // join run continuing from the previous chunk
+                    r[l[0] - 1] += end - start + 1;
+                } else {
+                    r[l[0]++] = base + start;
+                    r[l[0]++] = end - start + 1;
+                }
+            });
+            len = l[0];
+        }
+        if (len > 0) {
+            result.put(rowY, Arrays.copyOf(row, len));
+        }
+        return result;
+    }
+
+    /**
+     * Set the visited data from runs.
+     *
+     * @param runs mapping of row numbers to arrays of {@code start,length} column
+     *             run pairs
+     */
+    @JsonSetter("runs")
+    public void setRuns(Map<Integer, int[]> runs) {
+        index.clear();
+        keys = new long[16];
+        containers = new Container[16];
+        if (runs == null) {
+            return;
+        }
+        for (Map.Entry<Integer, int[]> e : runs.entrySet()) {
+            final int y = e.getKey();
+            final int[] row = e.getValue();
+            for (int i = 0; i + 1 < row.length; i += 2) {
+                for (int x = row[i], end = row[i] + row[i + 1]; x < end; x++) {
+                    visit(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of containers.
+     *
+     * @return the container count
+     */
+    public int containerCount() {
+        return index.size();
+    }
+
+    /**
+     * Get the approximate number of bytes used by the container data.
+     *
+     * @return the container data size
+     */
+    public long containerBytes() {
+        long result = 0;
+        for (int i = 0, count = index.size(); i < count; i++) {
+            result += containers[i].bytes();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean visit(int x, int y) {
+        final long key = key(x, y);
+        int i = (int) index.get(key) - 1;
+        final Container c = (i < 0 ? new ArrayContainer() : containers[i]);
+        if (!c.add(x & CHUNK_MASK)) {
+            return false;
+        }
+        if (i < 0) {
+            i = index.size();
+            if (i == keys.length) {
+                keys = Arrays.copyOf(keys, i * 2);
+                containers = Arrays.copyOf(containers, i * 2);
+            }
+            keys[i] = key;
+            index.put(key, i + 1);
+        }
+        containers[i] = optimize(c);
+        countVisit(x, y);
+        return true;
+    }
+
+    @Override
+    public void forEachVisitedRun(VisitedRunConsumer out) {
+        for (int i = 0, count = index.size(); i < count; i++) {
+            final int y = (int) (keys[i] >> 32);
+            final int base = (int) (keys[i] << CHUNK_BITS);
+            containers[i].forEachRun((start, end) -> out.accept(y, base + start, end - start + 1));
+        }
+    }
+
+    @Override
+    public boolean hasVisited(int x, int y) {
+        final int i = (int) index.get(key(x, y)) - 1;
+        return (i >= 0 && containers[i].contains(x & CHUNK_MASK));
+    }
+
+    @Override
+    public boolean hasVisitedNear(int x, int y) {
+        for (int row = Math.max(0, y - 1), maxRow = y + 1; row <= maxRow; row++) {
+            for (int col = Math.max(0, x - 1), maxCol = x + 1; col <= maxCol; col++) {
+                if (hasVisited(col, row)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Convert a container to the smallest representation of its data.
+     *
+     * Converting to or from a run container requires a clear size advantage, so
+     * a container does not flip back and forth between representations as
+     * coordinates are added.
+     *
+     * @param c the container
+     * @return the container to use, which might be {@code c}
+     */
+    private static Container optimize(Container c) {
+        final int runBytes = c.runs * 4;
+        final int otherBytes = Math.min(c.cardinality * 2, BITMAP_BYTES);
+        if (c instanceof RunContainer) {
+            if (runBytes <= otherBytes) {
+                return c;
+            }
+        } else if (runBytes * 2 <= otherBytes) {
+            return new RunContainer(c);
+        }
+        if (c.cardinality <= ARRAY_MAX) {
+            return (c instanceof ArrayContainer ? c : new ArrayContainer(c));
+        }
+        return (c instanceof BitmapContainer ? c : new BitmapContainer(c));
+    }
+
+    /**
+     * API for consuming runs of values.
+     */
+    @FunctionalInterface
+    private static interface RunConsumer {
+
+        /**
+         * Consume a run.
+         *
+         * @param start the first value of the run
+         * @param end   the last value of the run
+         */
+        void run(int start, int end);
+    }
+
+    /**
+     * A container of the values within a single chunk.
+     */
+    private abstract static class Container {
+
+        /** The number of values. */
+        int cardinality;
+
+        /** The number of runs of consecutive values. */
+        int runs;
+
+        abstract boolean contains(int v);
+
+        /**
+         * Add a value.
+         *
+         * @param v the value to add
+         * @return {@code true} if the value was not already present
+         */
+        abstract boolean add(int v);
+
+        abstract void forEachRun(RunConsumer out);
+
+        abstract int bytes();
+
+        void addAll(Container other) {
+            this.cardinality = other.cardinality;
+            this.runs = other.runs;
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+
+        private ArrayContainer() {
+            super();
+            this.values = new char[4];
+        }
+
+        private ArrayContainer(Container other) {
+            super();
+            this.values = new char[other.cardinality + (other.cardinality >> 2) + 1];
+            addAll(other);
+            final int[] i = new int[1];
+            other.forEachRun((start, end) -> {
+                for (int v = start; v <= end; v++) {
+                    values[i[0]++] = (char) v;
+                }
+            });
+        }
+
+        @Override
+        boolean contains(int v) {
+            return Arrays.binarySearch(values, 0, cardinality, (char) v) >= 0;
+        }
+
+        @Override
+        boolean add(int v) {
+            int idx = Arrays.binarySearch(values, 0, cardinality, (char) v);
+            if (idx >= 0) {
+                return false;
+            }
+            idx = -idx - 1;
+            final boolean joinsPrev = idx > 0 && values[idx - 1] == v - 1;
+            final boolean joinsNext = idx < cardinality && values[idx] == v + 1;
+            runs += 1 - (joinsPrev ? 1 : 0) - (joinsNext ? 1 : 0);
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, cardinality + (cardinality >> 1) + 1);
+            }
+            System.arraycopy(values, idx, values, idx + 1, cardinality - idx);
+            values[idx] = (char) v;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        void forEachRun(RunConsumer out) {
+            int i = 0;
+            while (i < cardinality) {
+                final int start = values[i];
+                int end = start;
+                while (++i < cardinality && values[i] == end + 1) {
+                    end++;
+                }
+                out.run(start, end);
+            }
+        }
+
+        @Override
+        int bytes() {
+            return values.length * 2;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words = new long[CHUNK_SIZE / 64];
+
+        private BitmapContainer(Container other) {
+            super();
+            addAll(other);
+            other.forEachRun((start, end) -> {
+                for (int v = start; v <= end; v++) {
+                    words[v >>> 6] |= 1L << v;
+                }
+            });
+        }
+
+        @Override
+        boolean contains(int v) {
+            return (words[v >>> 6] & (1L << v)) != 0;
+        }
+
+        @Override
+        boolean add(int v) {
+            if (contains(v)) {
+                return false;
+            }
+            final boolean joinsPrev = v > 0 && contains(v - 1);
+            final boolean joinsNext = v < CHUNK_MASK && contains(v + 1);
+            runs += 1 - (joinsPrev ? 1 : 0) - (joinsNext ? 1 : 0);
+            words[v >>> 6] |= 1L << v;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        void forEachRun(RunConsumer out) {
+            int v = nextSet(0);
+            while (v >= 0) {
+                int end = nextClear(v);
+                out.run(v, end - 1);
+                v = (end < CHUNK_SIZE ? nextSet(end) : -1);
+            }
+        }
+
+        private int nextSet(int from) {
+            int i = from >>> 6;
+            long w = words[i] & (-1L << from);
+            while (w == 0) {
+                if (++i == words.length) {
+                    return -1;
+                }
+                w = words[i];
+            }
+            return (i << 6) + Long.numberOfTrailingZeros(w);
+        }
+
+        private int nextClear(int from) {
+            int i = from >>> 6;
+            long w = ~words[i] & (-1L << from);
+            while (w == 0) {
+                if (++i == words.length) {
+                    return CHUNK_SIZE;
+                }
+                w = ~words[i];
+            }
+            return (i << 6) + Long.numberOfTrailingZeros(w);
+        }
+
+        @Override
+        int bytes() {
+            return BITMAP_BYTES;
+        }
+    }
+
+    private static final class RunContainer extends Container {
+
+        // pairs of start and end (inclusive) values
+        private char[] data;
+
+        private RunContainer(Container other) {
+            super();
+            this.data = new char[other.runs * 2 + 2];
+            addAll(other);
+            final int[] i = new int[1];
+            other.forEachRun((start, end) -> {
+                data[i[0]++] = (char) start;
+                data[i[0]++] = (char) end;
+            });
+        }
+
+        /**
+         * Find the last run that starts at or before a value.
+         *
+         * @param v the value
+         * @return the run index, or {@code -1} if {@code v} is before all runs
+         */
+        private int find(int v) {
+            int lo = 0;
+            int hi = runs - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (data[mid * 2] <= v) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+
+        @Override
+        boolean contains(int v) {
+            final int i = find(v);
+            return (i >= 0 && v <= data[i * 2 + 1]);
+        }
+
+        @Override
+        boolean add(int v) {
+            final int i = find(v);
+            if (i >= 0 && v <= data[i * 2 + 1]) {
+                return false;
+            }
+            cardinality++;
+            final boolean joinsPrev = i >= 0 && data[i * 2 + 1] == v - 1;
+            final boolean joinsNext = i + 1 < runs && data[(i + 1) * 2] == v + 1;
+            if (joinsPrev && joinsNext) {
+                // merge the two runs
+                data[i * 2 + 1] = data[(i + 1) * 2 + 1];
+                System.arraycopy(data, (i + 2) * 2, data, (i + 1) * 2, (runs - i - 2) * 2);
+                runs--;
+            } else if (joinsPrev) {
+                data[i * 2 + 1] = (char) v;
+            } else if (joinsNext) {
+                data[(i + 1) * 2] = (char) v;
+            } else {
+                if (runs * 2 + 2 > data.length) {
+                    data = Arrays.copyOf(data, (runs + (runs >> 1) + 1) * 2);
+                }
+                System.arraycopy(data, (i + 1) * 2, data, (i + 2) * 2, (runs - i - 1) * 2);
+                data[(i + 1) * 2] = (char) v;
+                data[(i + 1) * 2 + 1] = (char) v;
+                runs++;
+            }
+            return true;
+        }
+
+        @Override
+        void forEachRun(RunConsumer out) {
+            for (int i = 0; i < runs; i++) {
+                out.run(data[i * 2], data[i * 2 + 1]);
+            }
+        }
+
+        @Override
+        int bytes() {
+            return data.length * 2;
+        }
+    }
+}
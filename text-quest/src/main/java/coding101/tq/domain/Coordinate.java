@@ -5,12 +5,71 @@ import java.util.regex.Pattern;
 
 /**
  * An X,Y coordinate.
+ *
+ * A coordinate can also be encoded as a single packed {@code long}, with the x
+ * coordinate in the high 32 bits and the y coordinate in the low 32 bits, via
+ * {@link #pack(int, int)}. Packed coordinates let code that handles many
+ * coordinates avoid allocating a {@code Coordinate} for each one.
  */
 public record Coordinate(int x, int y) implements Comparable<Coordinate> {
 
     /** A string-encoding pattern for a coordinate, as {@code "x,y"}. */
     public static final Pattern KEY_PATTERN = Pattern.compile("(\\d+),(\\d+)");
 
+    /**
+     * Encode a coordinate as a packed {@code long}.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the packed coordinate
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get the x coordinate of a packed coordinate.
+     *
+     * @param packed the packed coordinate
+     * @return the x coordinate
+     * @see #pack(int, int)
+     */
+    public static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Get the y coordinate of a packed coordinate.
+     *
+     * @param packed the packed coordinate
+     * @return the y coordinate
+     * @see #pack(int, int)
+     */
+    public static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Create a coordinate from a packed coordinate.
+     *
+     * @param packed the packed coordinate
+     * @return the coordinate
+     * @see #pack(int, int)
+     */
+    public static Coordinate unpack(long packed) {
+        return new Coordinate(unpackX(packed), unpackY(packed));
+    }
+
+    /**
+     * Get this coordinate as a packed {@code long}.
+     *
+     * @return the packed coordinate
+     * @see #pack(int, int)
+     */
+    public long pack() {
+        return pack(x, y);
+    }
+
     @Override
     public int compareTo(Coordinate o) {
         if (o == null) {
@@ -43,10 +102,45 @@ public record Coordinate(int x, int y) implements Comparable<Coordinate> {
         if (key == null) {
             return null;
         }
+        final long packed = parseKey(key);
+        if (packed != -1L) {
+            return unpack(packed);
+        }
         Matcher m = KEY_PATTERN.matcher(key);
         if (!m.find()) {
             throw new IllegalArgumentException("Invalid coordinate key value [%s]".formatted(key));
         }
         return new Coordinate(Integer.valueOf(m.group(1)), Integer.valueOf(m.group(2)));
     }
+
+    /**
+     * Parse a "key" encoding in the exact form {@code x,y} into a packed
+     * coordinate, without a regular expression.
+     *
+     * @param key the key to parse
+     * @return the packed coordinate, or {@code -1} if {@code key} is not in the
+     *         exact form {@code x,y} of non-negative integers
+     */
+    private static long parseKey(String key) {
+        final int len = key.length();
+        long x = 0;
+        long y = 0;
+        int i = 0;
+        for (; i < len && key.charAt(i) != ','; i++) {
+            final int d = key.charAt(i) - '0';
+            if (d < 0 || d > 9 || (x = x * 10 + d) > Integer.MAX_VALUE) {
+                return -1L;
+            }
+        }
+        if (i == 0 || i + 1 >= len) {
+            return -1L;
+        }
+        for (i++; i < len; i++) {
+            final int d = key.charAt(i) - '0';
+            if (d < 0 || d > 9 || (y = y * 10 + d) > Integer.MAX_VALUE) {
+                return -1L;
+            }
+        }
+        return pack((int) x, (int) y);
+    }
 }
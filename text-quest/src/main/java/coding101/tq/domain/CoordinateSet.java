@@ -0,0 +1,126 @@
+package coding101.tq.domain;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of coordinates, stored as packed {@code long} values in an
+ * open-addressing hash table.
+ *
+ * The {@link #add(int, int)} and {@link #contains(int, int)} methods do not
+ * allocate any objects (other than when the table grows). Iterating over the
+ * set, for example to serialize it, returns the coordinates in
+ * {@link Coordinate} sort order from a sorted copy of the table, so the
+ * iteration order is stable regardless of the order coordinates were added.
+ *
+ * Removing coordinates is not supported, other than by {@link #clear()}.
+ */
+public final class CoordinateSet extends AbstractSet<Coordinate> {
+
+    private final LongHashTable table = new LongHashTable(false);
+
+    /**
+     * Constructor.
+     */
+    public CoordinateSet() {
+        super();
+    }
+
+    /**
+     * Add a coordinate.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate was not already in the set
+     */
+    public boolean add(int x, int y) {
+        return add(Coordinate.pack(x, y));
+    }
+
+    /**
+     * Add a packed coordinate.
+     *
+     * @param key the packed coordinate
+     * @return {@code true} if the coordinate was not already in the set
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean add(long key) {
+        return table.put(key, 0);
+    }
+
+    /**
+     * Test if the set contains a coordinate.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate is in the set
+     */
+    public boolean contains(int x, int y) {
+        return contains(Coordinate.pack(x, y));
+    }
+
+    /**
+     * Test if the set contains a packed coordinate.
+     *
+     * @param key the packed coordinate
+     * @return {@code true} if the coordinate is in the set
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean contains(long key) {
+        return table.containsKey(key);
+    }
+
+    @Override
+    public boolean add(Coordinate c) {
+        return add(c.x(), c.y());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return (o instanceof Coordinate c ? contains(c.x(), c.y()) : false);
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * Get an iterator over a sorted copy of the coordinates.
+     *
+     * The iterator does not support removal.
+     */
+    @Override
+    public Iterator<Coordinate> iterator() {
+        final long[] sorted = table.keys();
+        // flip the y sign bit so signed sorting orders by x and then y
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] ^= 0x80000000L;
+        }
+        Arrays.sort(sorted);
+        return new Iterator<>() {
+
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < sorted.length;
+            }
+
+            @Override
+            public Coordinate next() {
+                if (i >= sorted.length) {
+                    throw new NoSuchElementException();
+                }
+                return Coordinate.unpack(sorted[i++] ^ 0x80000000L);
+            }
+        };
+    }
+}
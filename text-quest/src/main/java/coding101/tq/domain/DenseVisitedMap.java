@@ -0,0 +1,280 @@
+package coding101.tq.domain;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A map of "visited" terrain sized to a specific map, backed by a single flat
+ * bitmap.
+ *
+ * A second "revealed" bitmap is maintained as coordinates are visited, with
+ * the 3x3 neighbourhood of every visited coordinate set. That turns
+ * {@link #hasVisitedNear(int, int)} into a single bit test, and
+ * {@link #hasVisitedNearAny(int, int, int)} into a test of whole words.
+ *
+ * Both bitmaps have a two-bit border around all sides of the map, so the 3x3
+ * neighbourhood of any map coordinate lies entirely within the bitmaps,
+ * without any bounds checks. The revealed bitmap is not serialized; it is
+ * rebuilt from the visited data by {@link #copyOf(int, int, VisitedMap)}.
+ *
+ * The {@code visited} data is the same as {@link VisitedMap}, so both
+ * serialize to the same JSON.
+ */
+public class DenseVisitedMap extends VisitedMap {
+
+    /** The maximum number of bits in the bitmap of a dense map. */
+    public static final long MAX_BITS = 1L << 27;
+
+    private static final int BORDER = 2;
+
+    private final int width;
+    private final int height;
+    private final int rowBits;
+    private final long[] words;
+    private final long[] revealed;
+
+    /**
+     * Constructor.
+     *
+     * @param width  the map width
+     * @param height the map height
+     * @throws IllegalArgumentException if {@code width} or {@code height} is less
+     *                                  than {@code 1} or the bitmap would be
+     *                                  larger than {@link #MAX_BITS}
+     */
+    public DenseVisitedMap(int width, int height) {
+        super();
+        if (!supports(width, height)) {
+            throw new IllegalArgumentException(
+                    "Invalid dense visited map size: %d x %d is not supported.".formatted(width, height));
+        }
+        this.width = width;
+        this.height = height;
+        // round each row up to whole words, including the border columns
+        this.rowBits = ((width + BORDER * 2 + 63) >>> 6) << 6;
+        this.words = new long[(rowBits >>> 6) * (height + BORDER * 2)];
+        this.revealed = new long[words.length];
+    }
+
+    /**
+     * Create a new instance with a copy of the data of another visited map.
+     *
+     * Any visited coordinate outside the bounds of the new instance is ignored.
+     *
+     * @param width  the map width
+     * @param height the map height
+     * @param source the visited map to copy
+     * @return the new instance
+     * @throws IllegalArgumentException if {@code width} or {@code height} is not
+     *                                  supported
+     */
+    public static DenseVisitedMap copyOf(int width, int height, VisitedMap source) {
+        DenseVisitedMap result = new DenseVisitedMap(width, height);
+        for (Map.Entry<Integer, BitSet> e : source.visited().entrySet()) {
+            final int y = e.getKey();
+            final BitSet row = e.getValue();
+            for (int x = row.nextSetBit(0); x >= 0 && x < width; x = row.nextSetBit(x + 1)) {
+                result.visit(x, y);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Test if a dense map can be created for a given map size.
+     *
+     * @param width  the map width
+     * @param height the map height
+     * @return {@code true} if a dense map can be created
+     */
+    public static boolean supports(int width, int height) {
+        if (width < 1 || height < 1) {
+            return false;
+        }
+        final long rowBits = (((long) width + BORDER * 2 + 63) >>> 6) << 6;
+        return rowBits * ((long) height + BORDER * 2) <= MAX_BITS;
+    }
+
+    /**
+     * Get the map width.
+     *
+     * @return the width
+     */
+    public final int width() {
+        return width;
+    }
+
+    /**
+     * Get the map height.
+     *
+     * @return the height
+     */
+    public final int height() {
+        return height;
+    }
+
+    /**
+     * Get the visited data.
+     *
+     * The returned data is a copy of the visited bitmap.
+     *
+     * @return the visited data
+     */
+    @Override
+    public SortedMap<Integer, BitSet> visited() {
+        SortedMap<Integer, BitSet> result = new TreeMap<>();
+        for (int y = 0; y < height; y++) {
+            BitSet row = null;
+            for (int x = 0; x < width; x++) {
+                if (get(bit(x, y))) {
+                    if (row == null) {
+                        row = new BitSet(width);
+                        result.put(y, row);
+                    }
+                    row.set(x);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mark a specific map coordinate as visited.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate was not visited before, or
+     *         {@code false} if it was or the coordinate is out of bounds
+     */
+    @Override
+    public boolean visit(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        final int bit = bit(x, y);
+        final long mask = 1L << bit;
+        final int i = bit >>> 6;
+        final boolean result = (words[i] & mask) == 0;
+        if (result) {
+            words[i] |= mask;
+            countVisit(x, y);
+
+            // reveal the neighbourhood, starting one row up and one column left
+            final int start = bit(x - 1, y - 1);
+            reveal(start);
+            reveal(start + rowBits);
+            reveal(start + rowBits + rowBits);
+        }
+        return result;
+    }
+
+    @Override
+    public void forEachVisitedRun(VisitedRunConsumer out) {
+        final int rowWords = rowBits >>> 6;
+        for (int y = 0; y < height; y++) {
+            final int base = (y + BORDER) * rowWords;
+            int start = -1;
+            for (int i = 0; i < rowWords; i++) {
+                long w = words[base + i];
+                if (w == 0 && start < 0) {
+                    continue;
+                }
+                // find each transition between visited and not visited bits in the word
+                int bit = 0;
+                while (bit < 64) {
+                    if (start < 0) {
+                        w = words[base + i] & (-1L << bit);
+                        if (w == 0) {
+                            break;
+                        }
+                        bit = Long.numberOfTrailingZeros(w);
+                        start = (i << 6) + bit - BORDER;
+                    } else {
+                        w = ~words[base + i] & (-1L << bit);
+                        if (w == 0) {
+                            break;
+                        }
+                        bit = Long.numberOfTrailingZeros(w);
+                        out.accept(y, start, (i << 6) + bit - BORDER - start);
+                        start = -1;
+                    }
+                }
+            }
+            if (start >= 0) {
+                out.accept(y, start, rowWords * 64 - BORDER - start);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasVisited(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        return get(bit(x, y));
+    }
+
+    @Override
+    public boolean hasVisitedNear(int x, int y) {
+        if (x < -1 || y < -1 || x > width || y > height) {
+            return false;
+        }
+        final int bit = bit(x, y);
+        return (revealed[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    @Override
+    public boolean hasVisitedNearAny(int x, int y, int width) {
+        if (y < -1 || y > height) {
+            return false;
+        }
+        // only the map and the first border column on each side can be revealed
+        final int minX = Math.max(x, -1);
+        final int maxX = Math.min(x + width - 1, this.width);
+        if (minX > maxX) {
+            return false;
+        }
+        final int startBit = bit(minX, y);
+        final int endBit = bit(maxX, y);
+        final int startWord = startBit >>> 6;
+        final int endWord = endBit >>> 6;
+        final long startMask = -1L << startBit;
+        final long endMask = -1L >>> (63 - (endBit & 63));
+        if (startWord == endWord) {
+            return (revealed[startWord] & startMask & endMask) != 0;
+        }
+        if ((revealed[startWord] & startMask) != 0 || (revealed[endWord] & endMask) != 0) {
+            return true;
+        }
+        for (int i = startWord + 1; i < endWord; i++) {
+            if (revealed[i] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int bit(int x, int y) {
+        return (y + BORDER) * rowBits + x + BORDER;
+    }
+
+    private boolean get(int bit) {
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Set three consecutive revealed bits.
+     *
+     * @param bit the index of the first bit
+     */
+    private void reveal(int bit) {
+        final int i = bit >>> 6;
+        final int shift = bit & 63;
+        revealed[i] |= 7L << shift;
+        if (shift > 61) {
+            revealed[i + 1] |= 7L >>> (64 - shift);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package coding101.tq.domain;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statistics on the visited coordinates of a map.
+ *
+ * The number of visited coordinates is counted for the whole map, for each
+ * tile of the map (see {@link TerrainMap#tileWidth()}), and for each
+ * {@link TerrainType}. The counts are built in bulk from the runs of visited
+ * coordinates of a {@link VisitedMap}, and after that are updated by the
+ * visited map as each new coordinate is visited, so reading them does not
+ * require scanning the visited data. Only coordinates within the bounds of the
+ * map are counted.
+ *
+ * @see VisitedMap#exploration(TerrainMap)
+ */
+public final class ExplorationStats {
+
+    /** A comparator that sorts the most explored statistics first. */
+    public static final Comparator<ExplorationStats> MOST_EXPLORED =
+            Comparator.comparingDouble(ExplorationStats::percentVisited).reversed();
+
+    private static final TerrainType[] TYPES = TerrainType.values();
+
+    private final TerrainMap map;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final long[] typeCounts = new long[TYPES.length];
+
+    // visited counts per tile, keyed by packed tile coordinate
+    private final Map<Long, int[]> tileCounts = new HashMap<>(16);
+    private long count;
+
+    private ExplorationStats(TerrainMap map) {
+        super();
+        this.map = map;
+        this.tileWidth = map.tileWidth();
+        this.tileHeight = map.tileHeight();
+    }
+
+    /**
+     * Build statistics from visited data.
+     *
+     * @param map     the map
+     * @param visited the visited data of the map
+     * @return the statistics
+     */
+    public static ExplorationStats of(TerrainMap map, VisitedMap visited) {
+        ExplorationStats result = new ExplorationStats(map);
+        visited.forEachVisitedRun(result::countRun);
+        return result;
+    }
+
+    /**
+     * Get the map.
+     *
+     * @return the map
+     */
+    public TerrainMap map() {
+        return map;
+    }
+
+    /**
+     * Count a newly visited coordinate.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    void count(int x, int y) {
+        if (x < 0 || y < 0 || x >= map.width() || y >= map.height()) {
+            return;
+        }
+        count++;
+        tile(x / tileWidth, y / tileHeight)[0]++;
+        TerrainType t = map.terrainAt(x, y);
+        if (t != null) {
+            typeCounts[t.ordinal()]++;
+        }
+    }
+
+    private void countRun(int y, int x, int length) {
+        // clip the run to the map bounds
+        if (y < 0 || y >= map.height()) {
+            return;
+        }
+        final int start = Math.max(0, x);
+        final int end = (int) Math.min(map.width(), (long) x + length);
+        if (start >= end) {
+            return;
+        }
+        count += end - start;
+
+        // split the run at tile boundaries
+        final int tileY = y / tileHeight;
+        for (int col = start; col < end; ) {
+            final int tileX = col / tileWidth;
+            final int tileEnd = Math.min(end, (int) Math.min(Integer.MAX_VALUE, (long) (tileX + 1) * tileWidth));
+            tile(tileX, tileY)[0] += tileEnd - col;
+            col = tileEnd;
+        }
+
+        map.walkRows(start, y, end - start, 1, (c, r, types, offset, len) -> {
+            for (int i = offset, max = offset + len; i < max; i++) {
+                final TerrainType t = types[i];
+                if (t != null) {
+                    typeCounts[t.ordinal()]++;
+                }
+            }
+        });
+    }
+
+    private int[] tile(int tileX, int tileY) {
+        return tileCounts.computeIfAbsent(Coordinate.pack(tileX, tileY), k -> new int[1]);
+    }
+
+    /**
+     * Get the number of visited coordinates.
+     *
+     * @return the visited count
+     */
+    public long visitedCount() {
+        return count;
+    }
+
+    /**
+     * Get the total number of coordinates.
+     *
+     * @return the total count
+     */
+    public long totalCount() {
+        return (long) map.width() * map.height();
+    }
+
+    /**
+     * Get the percentage of the map that has been visited.
+     *
+     * @return the visited percentage, from {@code 0} to {@code 100}
+     */
+    public double percentVisited() {
+        return percent(count, totalCount());
+    }
+
+    /**
+     * Get the number of visited coordinates of a given terrain type.
+     *
+     * @param type the terrain type
+     * @return the visited count
+     */
+    public long visitedCount(TerrainType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Get the number of visited coordinates within a tile.
+     *
+     * @param tileX the tile x coordinate
+     * @param tileY the tile y coordinate
+     * @return the visited count
+     */
+    public int tileVisitedCount(int tileX, int tileY) {
+        int[] c = tileCounts.get(Coordinate.pack(tileX, tileY));
+        return (c != null ? c[0] : 0);
+    }
+
+    /**
+     * Get the total number of coordinates within a tile.
+     *
+     * Tiles along the right and bottom edges of the map can be smaller than the
+     * map tile size.
+     *
+     * @param tileX the tile x coordinate
+     * @param tileY the tile y coordinate
+     * @return the total count
+     */
+    public long tileTotalCount(int tileX, int tileY) {
+        final long w = Math.max(0, Math.min(tileWidth, map.width() - (long) tileX * tileWidth));
+        final long h = Math.max(0, Math.min(tileHeight, map.height() - (long) tileY * tileHeight));
+        return w * h;
+    }
+
+    /**
+     * Get the percentage of a tile that has been visited.
+     *
+     * @param tileX the tile x coordinate
+     * @param tileY the tile y coordinate
+     * @return the visited percentage, from {@code 0} to {@code 100}
+     */
+    public double tilePercentVisited(int tileX, int tileY) {
+        return percent(tileVisitedCount(tileX, tileY), tileTotalCount(tileX, tileY));
+    }
+
+    /**
+     * Get the percentage of the tile containing a coordinate that has been
+     * visited.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the visited percentage, from {@code 0} to {@code 100}
+     */
+    public double tilePercentVisitedAt(int x, int y) {
+        return tilePercentVisited(Math.max(0, x) / tileWidth, Math.max(0, y) / tileHeight);
+    }
+
+    private static double percent(long count, long total) {
+        return (total > 0 ? count * 100.0 / total : 0.0);
+    }
+}
@@ -0,0 +1,231 @@
+package coding101.tq.domain;
+
+/**
+ * An open-addressing hash table of {@code long} keys, optionally with a
+ * {@code long} value for each key.
+ *
+ * Looking up, adding, or removing a key does not allocate any objects (other
+ * than when the table grows). The {@code 0} key is the free slot marker, so is
+ * stored separately.
+ */
+final class LongHashTable {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private final boolean withValues;
+    private long[] keys;
+    private long[] values;
+    private boolean containsZero;
+    private long zeroValue;
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param withValues {@code true} to store a value for each key, or
+     *                   {@code false} to store only the keys, in which case
+     *                   {@link #get(long)} always returns {@code 0}
+     */
+    LongHashTable(boolean withValues) {
+        super();
+        this.withValues = withValues;
+        clear();
+    }
+
+    private static int hash(long key) {
+        // the MurmurHash3 64-bit finalizer
+        key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        key = (key ^ (key >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (key ^ (key >>> 33));
+    }
+
+    /**
+     * Find the slot of a non-zero key.
+     *
+     * @param key the key
+     * @return the slot index, or {@code -1} if not found
+     */
+    private int slot(long key) {
+        final int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        long k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the number of keys.
+     *
+     * @return the number of keys
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Test if the table contains a key.
+     *
+     * @param key the key
+     * @return {@code true} if the table contains {@code key}
+     */
+    boolean containsKey(long key) {
+        return (key == 0 ? containsZero : slot(key) >= 0);
+    }
+
+    /**
+     * Get the value of a key.
+     *
+     * @param key the key
+     * @return the value, or {@code 0} if the table does not contain {@code key}
+     */
+    long get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        final int i = slot(key);
+        return (i < 0 || !withValues ? 0 : values[i]);
+    }
+
+    /**
+     * Add a key, or update the value of an existing key.
+     *
+     * @param key   the key
+     * @param value the value, which is ignored if the table does not store values
+     * @return {@code true} if the table did not already contain {@code key}
+     */
+    boolean put(long key, long value) {
+        if (key == 0) {
+            final boolean added = !containsZero;
+            if (added) {
+                containsZero = true;
+                size++;
+            }
+            if (withValues) {
+                zeroValue = value;
+            }
+            return added;
+        }
+        final int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        long k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                if (withValues) {
+                    values[i] = value;
+                }
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        if (withValues) {
+            values[i] = value;
+        }
+        size++;
+        if (size * 4 > keys.length * 3) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @param key the key
+     */
+    void remove(long key) {
+        if (key == 0) {
+            if (containsZero) {
+                containsZero = false;
+                zeroValue = 0;
+                size--;
+            }
+            return;
+        }
+        int i = slot(key);
+        if (i < 0) {
+            return;
+        }
+        size--;
+
+        // shift following keys back into the free slot, unless already in place
+        final int mask = keys.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            final long k = keys[j];
+            if (k == 0) {
+                break;
+            }
+            final int h = hash(k) & mask;
+            final boolean inPlace = (i <= j ? (i < h && h <= j) : (i < h || h <= j));
+            if (!inPlace) {
+                keys[i] = k;
+                if (withValues) {
+                    values[i] = values[j];
+                }
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        if (withValues) {
+            values[i] = 0;
+        }
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        final int mask = capacity - 1;
+        keys = new long[capacity];
+        values = (withValues ? new long[capacity] : null);
+        for (int j = 0; j < oldKeys.length; j++) {
+            final long key = oldKeys[j];
+            if (key != 0) {
+                int i = hash(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                if (withValues) {
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a copy of the keys, in no particular order.
+     *
+     * @return the keys
+     */
+    long[] keys() {
+        final long[] result = new long[size];
+        int n = 0;
+        if (containsZero) {
+            result[n++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove all keys.
+     */
+    void clear() {
+        keys = new long[MIN_CAPACITY];
+        values = (withValues ? new long[MIN_CAPACITY] : null);
+        containsZero = false;
+        zeroValue = 0;
+        size = 0;
+    }
+}
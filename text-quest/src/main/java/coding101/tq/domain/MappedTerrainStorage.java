@@ -0,0 +1,81 @@
+package coding101.tq.domain;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Objects;
+
+/**
+ * Terrain storage backed by a memory-mapped file of packed terrain bytes.
+ *
+ * The file data is expected to hold one byte per coordinate in row-major
+ * order, using the same encoding as {@link PackedTerrainStorage}. The data is
+ * paged in by the operating system as it is accessed, so opening even a very
+ * large map is fast and does not consume heap memory.
+ *
+ * As a single mapped buffer is limited to 2GB, the data is mapped as a series
+ * of buffers, each holding a whole number of rows.
+ */
+public final class MappedTerrainStorage implements TerrainStorage {
+
+    private static final long MAX_BUFFER_SIZE = Integer.MAX_VALUE;
+
+    private final int width;
+    private final int height;
+    private final int rowsPerBuffer;
+    private final MappedByteBuffer[] buffers;
+
+    /**
+     * Constructor.
+     *
+     * The channel can be closed once this instance has been created.
+     *
+     * @param channel the file channel to map
+     * @param offset  the offset within the file the terrain data starts at
+     * @param width   the width
+     * @param height  the height
+     * @throws IllegalArgumentException if {@code channel} is {@code null} or
+     *                                  {@code width} or {@code height} is less
+     *                                  than {@code 1}
+     * @throws IOException              if the file is too small or any other I/O
+     *                                  error occurs
+     */
+    public MappedTerrainStorage(FileChannel channel, long offset, int width, int height) throws IOException {
+        super();
+        Objects.requireNonNull(channel);
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Invalid terrain size: width and height must be at least 1.");
+        }
+        final long size = (long) width * (long) height;
+        if (channel.size() < offset + size) {
+            throw new IOException("Terrain data truncated: expected %d bytes but only %d available."
+                    .formatted(size, channel.size() - offset));
+        }
+        this.width = width;
+        this.height = height;
+        this.rowsPerBuffer = (int) Math.min(height, MAX_BUFFER_SIZE / width);
+        this.buffers = new MappedByteBuffer[(height + rowsPerBuffer - 1) / rowsPerBuffer];
+        for (int i = 0; i < buffers.length; i++) {
+            int rows = Math.min(rowsPerBuffer, height - i * rowsPerBuffer);
+            buffers[i] = channel.map(
+                    MapMode.READ_ONLY, offset + (long) i * rowsPerBuffer * width, (long) rows * width);
+        }
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public TerrainType terrainAt(int x, int y) {
+        MappedByteBuffer buf = buffers[y / rowsPerBuffer];
+        return PackedTerrainStorage.decode(buf.get((y % rowsPerBuffer) * width + x));
+    }
+}
@@ -0,0 +1,107 @@
+package coding101.tq.domain;
+
+/**
+ * Rules for which terrain a player can move onto.
+ *
+ * The rules are compiled into bit masks over {@link TerrainType} ordinals, where
+ * a set bit means the terrain is passable. A mask is derived for the current
+ * movement mode of a player (on foot or on board a ship, plus any terrain the
+ * player is immune to), and testing a terrain is then a single bit test. See
+ * {@link PassabilityMap} for the same masks applied to every coordinate of a
+ * map.
+ */
+public final class MovementRules {
+
+    static {
+        assert TerrainType.values().length <= Integer.SIZE;
+    }
+
+    /** The terrain that blocks a player on foot. */
+    public static final int IMPASSABLE_ON_FOOT = mask(
+            TerrainType.Water,
+            TerrainType.Mountain,
+            TerrainType.WallHorizontal,
+            TerrainType.WallVertical,
+            TerrainType.WallCorner);
+
+    /** The terrain passable by a player on foot. */
+    public static final int ON_FOOT = ~IMPASSABLE_ON_FOOT & mask(TerrainType.values());
+
+    /**
+     * The terrain passable by a player on board a ship.
+     *
+     * Ship terrain is not included, as it is passable only once the ship
+     * originally located there has moved away.
+     */
+    public static final int ON_BOARD = mask(TerrainType.Water);
+
+    private MovementRules() {
+        // not available
+    }
+
+    /**
+     * Get a mask of terrain types.
+     *
+     * @param types the types to include in the mask
+     * @return the mask
+     */
+    public static int mask(TerrainType... types) {
+        int result = 0;
+        for (TerrainType type : types) {
+            result |= bit(type);
+        }
+        return result;
+    }
+
+    /**
+     * Get the mask bit of a terrain type.
+     *
+     * @param type the terrain type
+     * @return the mask bit
+     */
+    public static int bit(TerrainType type) {
+        return 1 << type.ordinal();
+    }
+
+    /**
+     * Test if a terrain type is passable.
+     *
+     * @param mask the passable terrain mask
+     * @param type the terrain type to test; {@code null} is treated as
+     *             {@link TerrainType#Empty}
+     * @return {@code true} if {@code type} is passable according to {@code mask}
+     */
+    public static boolean passable(int mask, TerrainType type) {
+        return (mask & bit(type != null ? type : TerrainType.Empty)) != 0;
+    }
+
+    /**
+     * Get the mask of terrain types the equipped items of a player are immune to.
+     *
+     * @param items the player items
+     * @return the mask
+     * @see PlayerItems#immuneTo(TerrainType)
+     */
+    public static int immunities(PlayerItems items) {
+        int result = 0;
+        for (TerrainType type : TerrainType.values()) {
+            if (items.immuneTo(type)) {
+                result |= bit(type);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the passable terrain mask for a movement mode.
+     *
+     * Immunities only apply on foot: a ship can only travel on water.
+     *
+     * @param onboard    {@code true} if on board a ship
+     * @param immunities the mask of terrain types the player is immune to
+     * @return the passable terrain mask
+     */
+    public static int mask(boolean onboard, int immunities) {
+        return (onboard ? ON_BOARD : ON_FOOT | immunities);
+    }
+}
@@ -0,0 +1,163 @@
+package coding101.tq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Terrain storage that packs one byte per coordinate into a single row-major
+ * array.
+ *
+ * Each byte holds the {@link TerrainType#ordinal()} of the terrain at that
+ * coordinate, or {@link #NO_TERRAIN} if no terrain is available. Compared to
+ * a {@code TerrainType[][]} this avoids one object reference per coordinate
+ * and one array per row.
+ */
+public final class PackedTerrainStorage implements TerrainStorage {
+
+    /** The byte value used for coordinates without any terrain. */
+    public static final byte NO_TERRAIN = -1;
+
+    private static final TerrainType[] TYPES = TerrainType.values();
+
+    private final int width;
+    private final int height;
+    private final byte[] data;
+
+    /**
+     * Constructor.
+     *
+     * All coordinates are initialized to {@link #NO_TERRAIN}.
+     *
+     * @param width  the width
+     * @param height the height
+     * @throws IllegalArgumentException if {@code width} or {@code height} is less
+     *                                  than {@code 1} or the overall size is too
+     *                                  large to fit in a single array
+     */
+    public PackedTerrainStorage(int width, int height) {
+        super();
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Invalid terrain size: width and height must be at least 1.");
+        }
+        if ((long) width * (long) height > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                    "Invalid terrain size: %d x %d is too large to pack.".formatted(width, height));
+        }
+        this.width = width;
+        this.height = height;
+        this.data = new byte[width * height];
+        Arrays.fill(data, NO_TERRAIN);
+    }
+
+    /**
+     * Create a new instance from a 2D array of rows.
+     *
+     * @param terrain the terrain to copy
+     * @return the new instance
+     * @throws IllegalArgumentException if {@code terrain} is {@code null} or does
+     *                                  not have at least 1 non-empty row
+     */
+    public static PackedTerrainStorage of(TerrainType[][] terrain) {
+        ArrayTerrainStorage src = new ArrayTerrainStorage(terrain);
+        PackedTerrainStorage result = new PackedTerrainStorage(src.width(), src.height());
+        for (int y = 0; y < terrain.length; y++) {
+            TerrainType[] row = terrain[y];
+            if (row != null) {
+                result.setRow(0, y, row, 0, Math.min(row.length, result.width));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public TerrainType terrainAt(int x, int y) {
+        return decode(data[y * width + x]);
+    }
+
+    @Override
+    public void readRow(int x, int y, int width, TerrainType[] dest, int offset) {
+        for (int i = 0, pos = y * this.width + x; i < width; i++, pos++) {
+            dest[offset + i] = decode(data[pos]);
+        }
+    }
+
+    /**
+     * Set the terrain type at a specific coordinate.
+     *
+     * @param x    the x coordinate
+     * @param y    the y coordinate
+     * @param type the terrain type, or {@code null} for no terrain
+     */
+    public void set(int x, int y, TerrainType type) {
+        data[y * width + x] = encode(type);
+    }
+
+    /**
+     * Copy a range of terrain into a row.
+     *
+     * @param x      the x coordinate to start copying to
+     * @param y      the row to copy to
+     * @param src    the terrain to copy from
+     * @param offset the offset within {@code src} to start copying from
+     * @param length the number of coordinates to copy
+     */
+    public void setRow(int x, int y, TerrainType[] src, int offset, int length) {
+        for (int i = 0, pos = y * width + x; i < length; i++, pos++) {
+            data[pos] = encode(src[offset + i]);
+        }
+    }
+
+    /**
+     * Copy a range of packed terrain values into a row.
+     *
+     * The values are validated before any are copied, so an invalid value leaves
+     * the row unchanged.
+     *
+     * @param x      the x coordinate to start copying to
+     * @param y      the row to copy to
+     * @param src    the packed values to copy from, as returned by
+     *               {@link #encode(TerrainType)}
+     * @param offset the offset within {@code src} to start copying from
+     * @param length the number of coordinates to copy
+     * @throws IllegalArgumentException if any value to copy is not a valid packed
+     *                                  terrain value
+     */
+    public void setRow(int x, int y, byte[] src, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            final byte b = src[i];
+            if (b != NO_TERRAIN && (b < 0 || b >= TYPES.length)) {
+                throw new IllegalArgumentException("Invalid packed terrain value %d.".formatted(b));
+            }
+        }
+        System.arraycopy(src, offset, data, y * width + x, length);
+    }
+
+    /**
+     * Encode a terrain type into its packed byte value.
+     *
+     * @param type the type to encode, or {@code null}
+     * @return the encoded value
+     */
+    public static byte encode(TerrainType type) {
+        return type != null ? (byte) type.ordinal() : NO_TERRAIN;
+    }
+
+    /**
+     * Decode a packed terrain byte value.
+     *
+     * @param b the value to decode
+     * @return the decoded terrain type, or {@code null} for {@link #NO_TERRAIN}
+     */
+    public static TerrainType decode(byte b) {
+        return b >= 0 && b < TYPES.length ? TYPES[b] : null;
+    }
+}
@@ -0,0 +1,289 @@
+package coding101.tq.domain;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Terrain storage that loads tiles of terrain on demand, keeping only a
+ * limited number of tiles resident in memory.
+ *
+ * Tiles are loaded when a coordinate within them is first accessed, and the
+ * least-recently-used tiles are evicted once more than {@code maxTiles} tiles
+ * are resident. The {@link #prefetch(int, int, int, int)} method can be used to
+ * load the tiles around a viewport on a background thread, before they are
+ * accessed.
+ *
+ * Each resident tile is stored as a {@link PackedTerrainStorage}.
+ */
+public final class PagedTerrainStorage implements TerrainStorage {
+
+    /**
+     * API for loading the terrain of a single tile.
+     */
+    @FunctionalInterface
+    public static interface TileLoader {
+
+        /**
+         * Load the terrain of a tile.
+         *
+         * @param tileX the tile horizontal coordinate
+         * @param tileY the tile vertical coordinate
+         * @param dest  the storage to load the tile terrain into, sized to the tile
+         *              width and height
+         * @return {@code false} if no tile exists at the given tile coordinate
+         * @throws IllegalArgumentException if the tile cannot be loaded
+         */
+        boolean loadTile(int tileX, int tileY, PackedTerrainStorage dest);
+    }
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "TQ Map Prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** A resident tile. */
+    private static final class Page {
+
+        private final long key;
+        private final PackedTerrainStorage data;
+
+        private Page(long key, PackedTerrainStorage data) {
+            super();
+            this.key = key;
+            this.data = data;
+        }
+    }
+
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int tilesWide;
+    private final int tilesHigh;
+    private final int maxTiles;
+    private final TileLoader loader;
+    private final Executor prefetchExecutor;
+    private final Map<Long, Page> pages;
+    private final Set<Long> pendingPrefetch = new HashSet<>(16);
+
+    // the most recently accessed page, to skip the page lookup for repeated access
+    // to the same tile; such access does not update the LRU order, so the page is
+    // touched before inserting any other page, and forgotten if evicted
+    private volatile Page lastPage;
+
+    /**
+     * Constructor.
+     *
+     * @param tileWidth  the width of each tile
+     * @param tileHeight the height of each tile
+     * @param tilesWide  the number of tiles across
+     * @param tilesHigh  the number of tiles down
+     * @param maxTiles   the maximum number of tiles to keep resident
+     * @param loader     the tile loader
+     * @throws IllegalArgumentException if {@code loader} is {@code null} or any
+     *                                  number is less than {@code 1}
+     */
+    public PagedTerrainStorage(
+            int tileWidth, int tileHeight, int tilesWide, int tilesHigh, int maxTiles, TileLoader loader) {
+        this(tileWidth, tileHeight, tilesWide, tilesHigh, maxTiles, loader, PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tileWidth        the width of each tile
+     * @param tileHeight       the height of each tile
+     * @param tilesWide        the number of tiles across
+     * @param tilesHigh        the number of tiles down
+     * @param maxTiles         the maximum number of tiles to keep resident
+     * @param loader           the tile loader
+     * @param prefetchExecutor the executor to load prefetched tiles with; a
+     *                         multi-threaded executor will load tiles in parallel
+     * @throws IllegalArgumentException if {@code loader} or
+     *                                  {@code prefetchExecutor} is {@code null}
+     *                                  or any number is less than {@code 1}
+     */
+    public PagedTerrainStorage(
+            int tileWidth,
+            int tileHeight,
+            int tilesWide,
+            int tilesHigh,
+            int maxTiles,
+            TileLoader loader,
+            Executor prefetchExecutor) {
+        super();
+        if (tileWidth < 1 || tileHeight < 1 || tilesWide < 1 || tilesHigh < 1 || maxTiles < 1) {
+            throw new IllegalArgumentException("Invalid paged terrain size: all sizes must be at least 1.");
+        }
+        if ((long) tileWidth * tilesWide > Integer.MAX_VALUE || (long) tileHeight * tilesHigh > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid paged terrain size: too many tiles.");
+        }
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.tilesWide = tilesWide;
+        this.tilesHigh = tilesHigh;
+        this.maxTiles = maxTiles;
+        this.loader = Objects.requireNonNull(loader);
+        this.prefetchExecutor = Objects.requireNonNull(prefetchExecutor);
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Page> eldest) {
+                if (size() <= PagedTerrainStorage.this.maxTiles) {
+                    return false;
+                }
+                if (eldest.getValue() == lastPage) {
+                    // only when maxTiles is 1, as the last page is otherwise touched first
+                    lastPage = null;
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the maximum number of tiles that fit into a memory budget.
+     *
+     * @param tileWidth    the width of each tile
+     * @param tileHeight   the height of each tile
+     * @param memoryBudget the memory budget, in bytes
+     * @return the maximum number of tiles, at least {@code 1}
+     */
+    public static int maxTilesForBudget(int tileWidth, int tileHeight, long memoryBudget) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, memoryBudget / ((long) tileWidth * tileHeight)));
+    }
+
+    @Override
+    public int width() {
+        return tileWidth * tilesWide;
+    }
+
+    @Override
+    public int height() {
+        return tileHeight * tilesHigh;
+    }
+
+    @Override
+    public TerrainType terrainAt(int x, int y) {
+        final int tileX = x / tileWidth;
+        final int tileY = y / tileHeight;
+        Page page = page(tileX, tileY);
+        if (page.data == null) {
+            return null;
+        }
+        return page.data.terrainAt(x - tileX * tileWidth, y - tileY * tileHeight);
+    }
+
+    @Override
+    public void readRow(int x, int y, int width, TerrainType[] dest, int offset) {
+        final int maxCol = x + width;
+        final int tileY = y / tileHeight;
+        final int tileRow = y - tileY * tileHeight;
+        for (int col = x; col < maxCol; ) {
+            // copy the span within each tile with a single page lookup
+            final int tileX = col / tileWidth;
+            final int tileEnd = Math.min(maxCol, (tileX + 1) * tileWidth);
+            final Page page = page(tileX, tileY);
+            if (page.data == null) {
+                Arrays.fill(dest, offset + col - x, offset + tileEnd - x, null);
+            } else {
+                page.data.readRow(col - tileX * tileWidth, tileRow, tileEnd - col, dest, offset + col - x);
+            }
+            col = tileEnd;
+        }
+    }
+
+    /**
+     * Get the number of tiles currently resident.
+     *
+     * @return the number of resident tiles
+     */
+    public int residentTiles() {
+        synchronized (pages) {
+            return pages.size();
+        }
+    }
+
+    /**
+     * Load all tiles overlapping an area in the background, if they are not
+     * already resident.
+     *
+     * @param x      the x origin
+     * @param y      the y origin
+     * @param width  the area width
+     * @param height the area height
+     */
+    @Override
+    public void prefetch(int x, int y, int width, int height) {
+        final int minTileX = Math.max(0, x / tileWidth);
+        final int minTileY = Math.max(0, y / tileHeight);
+        final int maxTileX = Math.min(tilesWide - 1, (x + width - 1) / tileWidth);
+        final int maxTileY = Math.min(tilesHigh - 1, (y + height - 1) / tileHeight);
+        for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+            for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+                final long key = Coordinate.pack(tileX, tileY);
+                synchronized (pages) {
+                    if (pages.containsKey(key) || !pendingPrefetch.add(key)) {
+                        continue;
+                    }
+                }
+                final int tx = tileX;
+                final int ty = tileY;
+                prefetchExecutor.execute(() -> {
+                    try {
+                        resident(key, tx, ty);
+                    } finally {
+                        synchronized (pages) {
+                            pendingPrefetch.remove(key);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private Page page(int tileX, int tileY) {
+        final long key = Coordinate.pack(tileX, tileY);
+        Page page = lastPage;
+        if (page == null || page.key != key) {
+            page = resident(key, tileX, tileY);
+            lastPage = page;
+        }
+        return page;
+    }
+
+    private Page resident(long key, int tileX, int tileY) {
+        Page page;
+        synchronized (pages) {
+            page = pages.get(key);
+        }
+        if (page == null) {
+            page = load(key, tileX, tileY);
+            synchronized (pages) {
+                // keep the last page from being evicted, as it is likely still being accessed
+                final Page last = lastPage;
+                if (last != null) {
+                    pages.get(last.key);
+                }
+                Page existing = pages.putIfAbsent(key, page);
+                if (existing != null) {
+                    page = existing;
+                }
+            }
+        }
+        return page;
+    }
+
+    private Page load(long key, int tileX, int tileY) {
+        PackedTerrainStorage data = new PackedTerrainStorage(tileWidth, tileHeight);
+        return new Page(key, loader.loadTile(tileX, tileY, data) ? data : null);
+    }
+}
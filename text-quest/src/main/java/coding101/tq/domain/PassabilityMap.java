@@ -0,0 +1,163 @@
+package coding101.tq.domain;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bitmap of the passable coordinates of a map, for a given
+ * {@link MovementRules} mask.
+ *
+ * Maps small enough are converted to a single bitmap up front. Larger maps,
+ * like a procedural world, are converted one tile at a time as coordinates in
+ * each tile are first tested, keeping only a limited number of bits resident.
+ * Either way, testing a coordinate does not need to look up its terrain type.
+ *
+ * Coordinates outside the map are treated as {@link TerrainType#Empty}, the
+ * same as {@link TerrainMap#terrainAt(int, int)}.
+ *
+ * @see TerrainMap#passability(int)
+ */
+public final class PassabilityMap {
+
+    /** The maximum number of bits to convert up front, as a single tile. */
+    public static final long MAX_WHOLE_BITS = 1L << 26;
+
+    /** The tile size to use for large maps without their own tile size. */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    /** The maximum number of bits of a map tile to use as a bitmap tile. */
+    public static final long MAX_TILE_BITS = 1L << 20;
+
+    /** The maximum number of tile bits to keep resident for large maps. */
+    public static final long MAX_RESIDENT_BITS = 1L << 27;
+
+    private final TerrainMap map;
+    private final int mask;
+    private final boolean emptyPassable;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int maxTiles;
+
+    // the tile bitmaps, keyed by packed tile coordinate, least-recently-used first
+    private final Map<Long, long[]> tiles;
+
+    // the most recently used tile, to avoid a lookup when testing neighbours
+    private long lastKey = -1L;
+    private long[] lastTile;
+
+    /**
+     * Constructor.
+     *
+     * @param map  the map
+     * @param mask the passable terrain mask
+     */
+    public PassabilityMap(TerrainMap map, int mask) {
+        super();
+        this.map = map;
+        this.mask = mask;
+        this.emptyPassable = MovementRules.passable(mask, TerrainType.Empty);
+        if ((long) map.width() * map.height() <= MAX_WHOLE_BITS) {
+            this.tileWidth = Math.max(1, map.width());
+            this.tileHeight = Math.max(1, map.height());
+            this.maxTiles = 1;
+            this.tiles = null;
+            this.lastKey = 0L;
+            this.lastTile = bitmap(0, 0);
+        } else {
+            // use the map tiles when they are a reasonable size, as they are likely
+            // to line up with the tiles of the terrain storage
+            final boolean tiled = (map.tileWidth() < map.width() || map.tileHeight() < map.height())
+                    && (long) map.tileWidth() * map.tileHeight() <= MAX_TILE_BITS;
+            this.tileWidth = (tiled ? map.tileWidth() : DEFAULT_TILE_SIZE);
+            this.tileHeight = (tiled ? map.tileHeight() : DEFAULT_TILE_SIZE);
+            this.maxTiles = (int) Math.max(1, MAX_RESIDENT_BITS / ((long) tileWidth * tileHeight));
+            this.tiles = new LinkedHashMap<>(16, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                    return size() > PassabilityMap.this.maxTiles;
+                }
+            };
+        }
+    }
+
+    /**
+     * Get the map.
+     *
+     * @return the map
+     */
+    public TerrainMap map() {
+        return map;
+    }
+
+    /**
+     * Get the passable terrain mask.
+     *
+     * @return the mask
+     */
+    public int mask() {
+        return mask;
+    }
+
+    /**
+     * Test if a coordinate is passable.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the terrain at the coordinate is passable
+     */
+    public boolean passable(int x, int y) {
+        if (x < 0 || y < 0 || x >= map.width() || y >= map.height()) {
+            return emptyPassable;
+        }
+        final int tileX = x / tileWidth;
+        final int tileY = y / tileHeight;
+        final long[] bits = tile(tileX, tileY);
+        final int bit = (y - tileY * tileHeight) * tileWidth + (x - tileX * tileWidth);
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Test if a packed coordinate is passable.
+     *
+     * @param coordinate the packed coordinate
+     * @return {@code true} if the terrain at the coordinate is passable
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean passable(long coordinate) {
+        return passable(Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
+    }
+
+    private long[] tile(int tileX, int tileY) {
+        final long key = Coordinate.pack(tileX, tileY);
+        if (key == lastKey) {
+            return lastTile;
+        }
+        long[] result = tiles.get(key);
+        if (result == null) {
+            result = bitmap(tileX, tileY);
+            tiles.put(key, result);
+        }
+        lastKey = key;
+        lastTile = result;
+        return result;
+    }
+
+    private long[] bitmap(int tileX, int tileY) {
+        final int x0 = tileX * tileWidth;
+        final int y0 = tileY * tileHeight;
+        final long[] result = new long[(int) (((long) tileWidth * tileHeight + 63) >>> 6)];
+        final int w = Math.min(tileWidth, map.width() - x0);
+        final int h = Math.min(tileHeight, map.height() - y0);
+        map.walkRows(x0, y0, w, h, (x, y, types, offset, length) -> {
+            for (int i = 0, bit = (y - y0) * tileWidth; i < length; i++, bit++) {
+                if (MovementRules.passable(mask, types[offset + i])) {
+                    result[bit >>> 6] |= (1L << bit);
+                }
+            }
+        });
+        return result;
+    }
+}
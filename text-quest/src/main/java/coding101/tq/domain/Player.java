@@ -3,40 +3,52 @@ package coding101.tq.domain;
 import coding101.tq.GameConfiguration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
 
 /**
  * A player.
+ *
+ * The position, health, coins and experience points of a player are held in a
+ * slot of a {@link PlayerStore}, so that many players can share one store. The
+ * default constructors create a store just for this player.
  */
 public class Player {
 
     private GameConfiguration config;
-    private int health;
-    private int maxHealth;
-    private String activeMapName;
-    private int x;
-    private int y;
+    // the position, health, coins and xp are held in a slot of the store
+    private final PlayerStore store;
+    private final int slot;
     private Coordinate onboard; // the map coordinate of the boarded vehicle
-    private int coins;
-    private int xp;
     private final PlayerItems items = new PlayerItems();
     private Map<String, VisitedMap> visitedMaps = new HashMap<>(2);
-    private Map<String, Set<Coordinate>> interactions = new HashMap<>(16);
+    private Map<String, CoordinateSet> interactions = new HashMap<>(16);
 
     // a mapping of dynamic vehicles (ships) for each map
     // the nested map keys represent the coordinate the ship starts at on the map
     // and the associated value is the ships current position
-    private Map<String, Map<Coordinate, Coordinate>> vehicles = new HashMap<>(8);
+    private Map<String, VehicleIndex> vehicles = new HashMap<>(8);
+
+    // the state of the most recently used map
+    private PlayerMapState mapState;
 
     /**
      * Constructor.
      */
     public Player() {
+        this(new PlayerStore(1));
+    }
+
+    /**
+     * Constructor.
+     *
+     * A new slot is allocated in the store for the player.
+     *
+     * @param store the store to hold the player state in
+     */
+    public Player(PlayerStore store) {
         super();
+        this.store = Objects.requireNonNull(store);
+        this.slot = store.add();
     }
 
     /**
@@ -45,12 +57,44 @@ public class Player {
      * @param config the game configuration
      */
     public Player(GameConfiguration config) {
+        this(config, new PlayerStore(1));
+    }
+
+    /**
+     * Constructor.
+     *
+     * A new slot is allocated in the store for the player.
+     *
+     * @param config the game configuration
+     * @param store  the store to hold the player state in
+     */
+    public Player(GameConfiguration config, PlayerStore store) {
         super();
         this.config = Objects.requireNonNull(config);
-        this.coins = config.initialCoins();
-        this.health = config.initialHealth();
-        this.maxHealth = config.initialMaxHealth();
-        this.xp = config.xp().initialXp();
+        this.store = Objects.requireNonNull(store);
+        this.slot = store.add();
+        store.setCoins(slot, config.initialCoins());
+        store.setHealth(slot, config.initialHealth());
+        store.setMaxHealth(slot, config.initialMaxHealth());
+        store.setXp(slot, config.xp().initialXp());
+    }
+
+    /**
+     * Get the store holding the player state.
+     *
+     * @return the store
+     */
+    public PlayerStore store() {
+        return store;
+    }
+
+    /**
+     * Get the slot of the player within the store.
+     *
+     * @return the slot
+     */
+    public int slot() {
+        return slot;
     }
 
     /**
@@ -77,7 +121,7 @@ public class Player {
      * @return the active map name
      */
     public String getActiveMapName() {
-        return activeMapName;
+        return store.activeMapName(slot);
     }
 
     /**
@@ -86,7 +130,7 @@ public class Player {
      * @param activeMapName the active map name to set
      */
     public void setActiveMapName(String activeMapName) {
-        this.activeMapName = activeMapName;
+        store.setActiveMapName(slot, activeMapName);
     }
 
     /**
@@ -120,16 +164,9 @@ public class Player {
     public boolean moveTo(TerrainMap map, int x, int y) {
         if (onboard != null) {
             // update vehicle coordinate to match
-            Map<Coordinate, Coordinate> mapVehicles = vehicles.get(map.getName());
-            Coordinate vehicleOrigCoord = null;
-            for (Entry<Coordinate, Coordinate> e : mapVehicles.entrySet()) {
-                if (e.getValue().x() == this.x && e.getValue().y() == this.y) {
-                    vehicleOrigCoord = e.getKey();
-                    break;
-                }
-            }
-            if (vehicleOrigCoord != null) {
-                mapVehicles.put(vehicleOrigCoord, new Coordinate(x, y));
+            VehicleIndex mapVehicles = mapState(map).vehicles();
+            if (mapVehicles != null) {
+                mapVehicles.move(getX(), getY(), x, y);
             }
         }
         setX(x);
@@ -138,13 +175,26 @@ public class Player {
         return visited(map, x, y);
     }
 
+    /**
+     * Update the player coordinate to a packed coordinate.
+     *
+     * @param map        the map to move to
+     * @param coordinate the packed coordinate
+     * @return {@code true} if visiting the coordinate for the first time
+     * @see #moveTo(TerrainMap, int, int)
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean moveTo(TerrainMap map, long coordinate) {
+        return moveTo(map, Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
+    }
+
     /**
      * Get the current X coordinate on the active map.
      *
      * @return the X coordinate
      */
     public int getX() {
-        return x;
+        return store.x(slot);
     }
 
     /**
@@ -153,7 +203,7 @@ public class Player {
      * @param x the X coordinate to set
      */
     public void setX(int x) {
-        this.x = x;
+        store.setX(slot, x);
     }
 
     /**
@@ -162,7 +212,7 @@ public class Player {
      * @return the Y coordinate
      */
     public int getY() {
-        return y;
+        return store.y(slot);
     }
 
     /**
@@ -171,7 +221,7 @@ public class Player {
      * @param y the Y coordinate to set
      */
     public void setY(int y) {
-        this.y = y;
+        store.setY(slot, y);
     }
 
     /**
@@ -180,7 +230,7 @@ public class Player {
      * @return the health
      */
     public int getHealth() {
-        return health;
+        return store.health(slot);
     }
 
     /**
@@ -192,7 +242,7 @@ public class Player {
         if (health < 0) {
             health = 0;
         }
-        this.health = health;
+        store.setHealth(slot, health);
     }
 
     /**
@@ -201,7 +251,7 @@ public class Player {
      * @return {@code true} if the player's health has reached 0
      */
     public boolean isDead() {
-        return health < 1;
+        return store.health(slot) < 1;
     }
 
     /**
@@ -210,8 +260,8 @@ public class Player {
      * @param health the health to add
      */
     public void addHealth(int health) {
-        int newHealth = this.health + health;
-        setHealth(Math.min(maxHealth, newHealth));
+        int newHealth = getHealth() + health;
+        setHealth(Math.min(getMaxHealth(), newHealth));
     }
 
     /**
@@ -220,7 +270,7 @@ public class Player {
      * @param health the health to remove
      */
     public void deductHealth(int health) {
-        setHealth(this.health - health);
+        setHealth(getHealth() - health);
     }
 
     /**
@@ -229,7 +279,7 @@ public class Player {
      * @return the maximum health
      */
     public int getMaxHealth() {
-        return maxHealth;
+        return store.maxHealth(slot);
     }
 
     /**
@@ -238,7 +288,7 @@ public class Player {
      * @param maxHealth the max health to set
      */
     public void setMaxHealth(int maxHealth) {
-        this.maxHealth = maxHealth;
+        store.setMaxHealth(slot, maxHealth);
     }
 
     /**
@@ -270,39 +320,32 @@ public class Player {
      */
     public void setOnboard(Coordinate coord) {
         this.onboard = coord;
+        movementChanged();
     }
 
     /**
      * Board the vehicle at the player's current location.
      */
     public void board() {
-        final Coordinate coord = new Coordinate(x, y);
+        final long coord = Coordinate.pack(getX(), getY());
+        final String activeMapName = getActiveMapName();
 
         // have to consult vehicles data for moved ship locations
-        Map<Coordinate, Coordinate> mapVehicles = vehicles.get(activeMapName);
-
-        // find the ship "origin": its original position encoded on the map
-        Coordinate shipOrigin = null;
-        if (mapVehicles != null) {
-            for (Entry<Coordinate, Coordinate> e : mapVehicles.entrySet()) {
-                Coordinate shipCoord = e.getValue();
-                if (shipCoord.equals(coord)) {
-                    // found the ship's current location
-                    shipOrigin = e.getKey();
-                    break;
-                }
-            }
-        }
-        if (shipOrigin == null) {
-            // origin must be current location
-            shipOrigin = coord;
-        }
+        VehicleIndex mapVehicles = vehicles.get(activeMapName);
+
+        // find the ship "origin": its original position encoded on the map,
+        // or the current location if the ship has not moved
+        final long shipOrigin = (mapVehicles != null ? mapVehicles.originOrSelf(coord) : coord);
 
-        this.onboard = shipOrigin;
+        this.onboard = Coordinate.unpack(shipOrigin);
+        movementChanged();
 
         if (mapVehicles == null) {
-            mapVehicles = new TreeMap<>();
+            mapVehicles = new VehicleIndex();
             vehicles.put(activeMapName, mapVehicles);
+
+            // re-resolve the map state to include the new vehicles data
+            mapState = null;
         }
         mapVehicles.put(shipOrigin, coord);
     }
@@ -312,6 +355,7 @@ public class Player {
      */
     public void disembark() {
         onboard = null;
+        movementChanged();
     }
 
     /**
@@ -320,7 +364,7 @@ public class Player {
      * @return the coins the player owns
      */
     public int getCoins() {
-        return coins;
+        return store.coins(slot);
     }
 
     /**
@@ -329,7 +373,7 @@ public class Player {
      * @param coins the coins to set
      */
     public void setCoins(int coins) {
-        this.coins = Math.max(0, coins);
+        store.setCoins(slot, Math.max(0, coins));
     }
 
     /**
@@ -338,7 +382,7 @@ public class Player {
      * @param coins the coins to add
      */
     public void addCoins(int coins) {
-        setCoins(this.coins + coins);
+        setCoins(getCoins() + coins);
     }
 
     /**
@@ -347,7 +391,7 @@ public class Player {
      * @param coins the coins to remove
      */
     public void deductCoins(int coins) {
-        setCoins(this.coins - coins);
+        setCoins(getCoins() - coins);
     }
 
     /**
@@ -356,7 +400,7 @@ public class Player {
      * @return the experience points the player has
      */
     public int getXp() {
-        return xp;
+        return store.xp(slot);
     }
 
     /**
@@ -365,7 +409,7 @@ public class Player {
      * @param xp the experience points to set
      */
     public void setXp(int xp) {
-        this.xp = Math.max(0, xp);
+        store.setXp(slot, Math.max(0, xp));
     }
 
     /**
@@ -374,7 +418,7 @@ public class Player {
      * @param coins the experience points to add
      */
     public void addXp(int xp) {
-        setXp(this.xp + xp);
+        setXp(getXp() + xp);
     }
 
     /**
@@ -407,14 +451,12 @@ public class Player {
         assert map != null;
         // DUNNIIT: walking on lava should decrease player's health
         if (map.terrainAt(x, y) == TerrainType.Lava) {
-            this.health -= config.lavaHealthDamage();
+            store.setHealth(slot, getHealth() - config.lavaHealthDamage());
         }
         // TODO: walking on lava should decrease player's health
 
         // update the visited state of this coordinate
-        VisitedMap visited = visitedMaps.computeIfAbsent(map.getName(), name -> new VisitedMap());
-        boolean result = visited.visit(x, y);
-        return result;
+        return mapState(map).visit(x, y);
     }
 
     /**
@@ -426,10 +468,22 @@ public class Player {
      * @return {@code true} if the coordinate has been visited before
      */
     public boolean hasVisited(TerrainMap map, int x, int y) {
-        VisitedMap visited = visitedMaps.get(map.getName());
+        final VisitedMap visited = existingVisitedMap(map);
         return (visited != null && visited.hasVisited(x, y));
     }
 
+    /**
+     * Test if a specific packed map coordinate has been visited before.
+     *
+     * @param map        the map
+     * @param coordinate the packed coordinate
+     * @return {@code true} if the coordinate has been visited before
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean hasVisited(TerrainMap map, long coordinate) {
+        return hasVisited(map, Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
+    }
+
     /**
      * Test if a specific map coordinate has been visited "near by" before.
      *
@@ -439,10 +493,138 @@ public class Player {
      * @return {@code true} if the coordinate has been visited before
      */
     public boolean hasVisitedNear(TerrainMap map, int x, int y) {
-        VisitedMap visited = visitedMaps.get(map.getName());
+        final VisitedMap visited = existingVisitedMap(map);
         return (visited != null && visited.hasVisitedNear(x, y));
     }
 
+    /**
+     * Test if a specific packed map coordinate has been visited "near by" before.
+     *
+     * @param map        the map
+     * @param coordinate the packed coordinate
+     * @return {@code true} if the coordinate has been visited "near by" before
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean hasVisitedNear(TerrainMap map, long coordinate) {
+        return hasVisitedNear(map, Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
+    }
+
+    /**
+     * Test if any coordinate in a span of a row has been visited "near by"
+     * before.
+     *
+     * @param map   the map
+     * @param x     the x coordinate of the start of the span
+     * @param y     the y coordinate
+     * @param width the span width
+     * @return {@code true} if any coordinate in the span has been visited near by
+     *         before
+     */
+    public boolean hasVisitedNearAny(TerrainMap map, int x, int y, int width) {
+        final VisitedMap visited = existingVisitedMap(map);
+        return (visited != null && visited.hasVisitedNearAny(x, y, width));
+    }
+
+    /**
+     * Get the state of the player on a map.
+     *
+     * The returned state is cached until the state for a different map is
+     * requested, so calling this method repeatedly for the same map is cheap.
+     * Code that queries the state of many coordinates should call this method
+     * once and then use the returned state directly.
+     *
+     * @param map the map
+     * @return the state, never {@code null}
+     */
+    public PlayerMapState mapState(TerrainMap map) {
+        PlayerMapState state = this.mapState;
+        if (state == null || state.map() != map) {
+            assert map != null;
+            final String name = map.getName();
+            final VisitedMap visited = visitedMap(map);
+
+            // share with the store, for updates across all players
+            store.setVisited(name, slot, visited);
+
+            // attach the exploration statistics, so they are maintained from now on
+            visited.exploration(map);
+
+            // derive the passability of the map up front, rather than on the first move
+            state = new PlayerMapState(
+                    map,
+                    visited,
+                    interactions.computeIfAbsent(name, k -> new CoordinateSet()),
+                    vehicles.get(name),
+                    map.passability(movementMask()));
+            this.mapState = state;
+        }
+        return state;
+    }
+
+    /**
+     * Get the state of the player on a map, if it is already resolved.
+     *
+     * Unlike {@link #mapState(TerrainMap)} this never resolves the state, so
+     * methods that only query the player data do not create any data for maps
+     * the player has not been to.
+     *
+     * @param map the map
+     * @return the state, or {@code null} if the state of a different map is
+     *         resolved
+     */
+    private PlayerMapState resolvedMapState(TerrainMap map) {
+        final PlayerMapState state = this.mapState;
+        return (state != null && state.map() == map ? state : null);
+    }
+
+    private VisitedMap existingVisitedMap(TerrainMap map) {
+        final PlayerMapState state = resolvedMapState(map);
+        return (state != null ? state.visited() : visitedMaps.get(map.getName()));
+    }
+
+    private VehicleIndex existingVehicles(TerrainMap map) {
+        final PlayerMapState state = resolvedMapState(map);
+        return (state != null ? state.vehicles() : vehicles.get(map.getName()));
+    }
+
+    /**
+     * Get the exploration statistics of a map.
+     *
+     * @param map the map
+     * @return the statistics, never {@code null}
+     */
+    public ExplorationStats exploration(TerrainMap map) {
+        return mapState(map).exploration();
+    }
+
+    /**
+     * Get the visited map for a map.
+     *
+     * A {@link DenseVisitedMap} is used for any map small enough to support it,
+     * and a {@link CompressedVisitedMap} for any other map, replacing any
+     * existing {@link VisitedMap} (for example one loaded from a saved game) with
+     * a copy.
+     *
+     * @param map the map to get the visited map for
+     * @return the visited map
+     */
+    private VisitedMap visitedMap(TerrainMap map) {
+        VisitedMap visited = visitedMaps.get(map.getName());
+        if (visited instanceof DenseVisitedMap) {
+            return visited;
+        }
+        if (DenseVisitedMap.supports(map.width(), map.height())) {
+            visited = (visited != null
+                    ? DenseVisitedMap.copyOf(map.width(), map.height(), visited)
+                    : new DenseVisitedMap(map.width(), map.height()));
+            visitedMaps.put(map.getName(), visited);
+        } else if (!(visited instanceof CompressedVisitedMap)) {
+            visited = (visited != null ? CompressedVisitedMap.copyOf(visited) : new CompressedVisitedMap());
+            visitedMaps.put(map.getName(), visited);
+        }
+        return visited;
+    }
+
     /**
      * Get the visited map data.
      *
@@ -464,6 +646,8 @@ public class Player {
             visitedMaps = new HashMap<>(2);
         }
         this.visitedMaps = visitedMaps;
+        this.mapState = null;
+        store.clearVisited(slot);
     }
 
     /**
@@ -476,9 +660,19 @@ public class Player {
      */
     public boolean interacted(TerrainMap map, int x, int y) {
         assert map != null;
-        // use TreeSet here just for convenience of keeping sorted for persistence
-        Set<Coordinate> mapInteractions = interactions.computeIfAbsent(map.getName(), k -> new TreeSet<>());
-        return mapInteractions.add(new Coordinate(x, y));
+        return mapState(map).interacted(x, y);
+    }
+
+    /**
+     * Mark a specific packed map coordinate as interacted with.
+     *
+     * @param map        the map
+     * @param coordinate the packed coordinate
+     * @return {@code true} if the coordinate was not interacted with before
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean interacted(TerrainMap map, long coordinate) {
+        return interacted(map, Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
     }
 
     /**
@@ -490,8 +684,24 @@ public class Player {
      * @return {@code true} if the coordinate has been interacted with before
      */
     public boolean hasInteracted(TerrainMap map, int x, int y) {
-        Set<Coordinate> mapInteractions = interactions.get(map.getName());
-        return (mapInteractions != null ? mapInteractions.contains(new Coordinate(x, y)) : false);
+        final PlayerMapState state = resolvedMapState(map);
+        if (state != null) {
+            return state.hasInteracted(x, y);
+        }
+        final CoordinateSet mapInteractions = interactions.get(map.getName());
+        return (mapInteractions != null && mapInteractions.contains(x, y));
+    }
+
+    /**
+     * Test if a specific packed map coordinate has been interacted with before.
+     *
+     * @param map        the map
+     * @param coordinate the packed coordinate
+     * @return {@code true} if the coordinate has been interacted with before
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean hasInteracted(TerrainMap map, long coordinate) {
+        return hasInteracted(map, Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
     }
 
     /**
@@ -502,7 +712,7 @@ public class Player {
      *
      * @return the interactions, never {@literal null}
      */
-    public Map<String, Set<Coordinate>> getInteractions() {
+    public Map<String, CoordinateSet> getInteractions() {
         return interactions;
     }
 
@@ -511,8 +721,9 @@ public class Player {
      *
      * @param interactions the interactions to set
      */
-    public void setInteractions(Map<String, Set<Coordinate>> interactions) {
+    public void setInteractions(Map<String, CoordinateSet> interactions) {
         this.interactions = interactions;
+        this.mapState = null;
     }
 
     /**
@@ -524,7 +735,7 @@ public class Player {
      *
      * @return the vehicle location data
      */
-    public Map<String, Map<Coordinate, Coordinate>> getVehicles() {
+    public Map<String, VehicleIndex> getVehicles() {
         return vehicles;
     }
 
@@ -533,8 +744,9 @@ public class Player {
      *
      * @param vehicles the vehicle location data to set
      */
-    public void setVehicles(Map<String, Map<Coordinate, Coordinate>> vehicles) {
+    public void setVehicles(Map<String, VehicleIndex> vehicles) {
         this.vehicles = vehicles;
+        this.mapState = null;
     }
 
     /**
@@ -546,27 +758,51 @@ public class Player {
      * @return {@literal true} if a ship is located at the given point
      */
     public boolean vehicleLocatedAt(TerrainMap map, int x, int y) {
-        Map<Coordinate, Coordinate> mapVehicles = vehicles.get(map.getName());
-        boolean shipMoved = false;
-        if (mapVehicles != null) {
-            // search current vehicle locations for coordinate match
-            for (Entry<Coordinate, Coordinate> e : mapVehicles.entrySet()) {
-                Coordinate coord = e.getValue();
-                if (coord.x() == x && coord.y() == y) {
-                    return true;
-                }
-                coord = e.getKey();
-                if (coord.x() == x && coord.y() == y) {
-                    shipMoved = true;
-                }
-            }
+        return PlayerMapState.vehicleLocatedAt(map, existingVehicles(map), x, y);
+    }
+
+    /**
+     * Test if a (possibly moved) vehicle is located at the given packed coordinate.
+     *
+     * @param map        the map to test
+     * @param coordinate the packed coordinate
+     * @return {@literal true} if a ship is located at the given point
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean vehicleLocatedAt(TerrainMap map, long coordinate) {
+        return vehicleLocatedAt(map, Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
+    }
+
+    /**
+     * Get the passable terrain mask for the current movement mode.
+     *
+     * @return the mask
+     * @see MovementRules#mask(boolean, int)
+     */
+    public int movementMask() {
+        return MovementRules.mask(onboard(), MovementRules.immunities(items));
+    }
+
+    /**
+     * Update the cached movement state after the player's movement mode changes.
+     *
+     * This is called when boarding or disembarking a vehicle, and must be called
+     * after equipping or stashing items, as they can provide immunity to terrain.
+     */
+    public void movementChanged() {
+        final PlayerMapState state = this.mapState;
+        if (state != null) {
+            state.setPassability(state.map().passability(movementMask()));
         }
-        return map.terrainAt(x, y) == TerrainType.Ship && !shipMoved;
     }
 
     /**
      * Test if a player can move to a given coordinate on a given map.
      *
+     * This tests the coordinate in the {@link TerrainMap#passability(int)}
+     * bitmap for the current {@link #movementMask()}, and only consults the
+     * vehicle data for terrain that is not passable.
+     *
      * @param map the map to test
      * @param x   the x coordinate to test
      * @param y   the y coordinate to test
@@ -574,24 +810,38 @@ public class Player {
      *         coordinate on {@code map}
      */
     public boolean canMoveTo(TerrainMap map, int x, int y) {
-        // get terrain at the desired position so we can validate it is OK to move
-        final TerrainType newTerrain = map.terrainAt(x, y);
-
-        // test for on board a ship
-        if (onboard()) {
-            // on a ship! can only travel to another water
-            return (newTerrain == TerrainType.Water || newTerrain == TerrainType.Ship) && !vehicleLocatedAt(map, x, y);
+        final PlayerMapState state = resolvedMapState(map);
+        final VehicleIndex mapVehicles = (state != null ? state.vehicles() : vehicles.get(map.getName()));
+        final PassabilityMap passable = (state != null ? state.passability() : map.passability(movementMask()));
+        final long coord = Coordinate.pack(x, y);
+        if (passable.passable(x, y)) {
+            // on board a ship, can not sail into another ship
+            return !onboard() || mapVehicles == null || !mapVehicles.vehicleAt(coord);
         }
-        // TODO: finish validation that player can move to specified coordinate
-        if ((newTerrain == TerrainType.Water
-                        || newTerrain == TerrainType.Mountain
-                        || newTerrain == TerrainType.WallHorizontal
-                        || newTerrain == TerrainType.WallVertical
-                        || newTerrain == TerrainType.WallCorner)
-                && !vehicleLocatedAt(map, x, y)) {
+        if (mapVehicles == null) {
             return false;
-        } else {
-            return true;
         }
+        if (onboard()) {
+            // the origin of a ship that has moved away is open water
+            return map.terrainAt(x, y) == TerrainType.Ship
+                    && mapVehicles.originAt(coord)
+                    && !mapVehicles.vehicleAt(coord);
+        }
+        // on foot, can always move onto a ship to board it
+        return mapVehicles.vehicleAt(coord);
+    }
+
+    /**
+     * Test if a player can move to a given packed coordinate on a given map.
+     *
+     * @param map        the map to test
+     * @param coordinate the packed coordinate
+     * @return {@literal true} if the player is allowed to move to the coordinate
+     *         on {@code map}
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean canMoveTo(TerrainMap map, long coordinate) {
+        return canMoveTo(map, Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
     }
+
 }
@@ -0,0 +1,215 @@
+package coding101.tq.domain;
+
+/**
+ * The state of a player on a specific map.
+ *
+ * This is a handle to the visited, interactions and vehicle data of a
+ * {@link Player} for a single {@link TerrainMap}, resolved once so that code
+ * that queries the state for many coordinates, like rendering the map, does not
+ * have to look up the data by map name for every coordinate.
+ *
+ * Instances are obtained from {@link Player#mapState(TerrainMap)}, and remain
+ * valid until the player data is replaced, for example by
+ * {@link Player#setVisitedMaps(java.util.Map)}.
+ */
+public final class PlayerMapState {
+
+    private final TerrainMap map;
+    private final VisitedMap visited;
+    private final CoordinateSet interactions;
+    private final VehicleIndex vehicles;
+    private PassabilityMap passability;
+
+    /**
+     * Constructor.
+     *
+     * @param map          the map
+     * @param visited      the visited data
+     * @param interactions the interactions data
+     * @param vehicles     the vehicles data, or {@code null} if none
+     * @param passability  the passability for the player's movement mode
+     */
+    PlayerMapState(
+            TerrainMap map,
+            VisitedMap visited,
+            CoordinateSet interactions,
+            VehicleIndex vehicles,
+            PassabilityMap passability) {
+        super();
+        this.map = map;
+        this.visited = visited;
+        this.interactions = interactions;
+        this.vehicles = vehicles;
+        this.passability = passability;
+    }
+
+    /**
+     * Get the map.
+     *
+     * @return the map
+     */
+    public TerrainMap map() {
+        return map;
+    }
+
+    /**
+     * Get the visited data.
+     *
+     * @return the visited data, never {@code null}
+     */
+    public VisitedMap visited() {
+        return visited;
+    }
+
+    /**
+     * Get the exploration statistics.
+     *
+     * @return the statistics, never {@code null}
+     */
+    public ExplorationStats exploration() {
+        return visited.exploration(map);
+    }
+
+    /**
+     * Get the interactions data.
+     *
+     * @return the interactions data, never {@code null}
+     */
+    public CoordinateSet interactions() {
+        return interactions;
+    }
+
+    /**
+     * Get the vehicles data.
+     *
+     * @return the vehicles data, or {@code null} if no vehicles have been boarded
+     *         on this map
+     */
+    public VehicleIndex vehicles() {
+        return vehicles;
+    }
+
+    /**
+     * Get the passability for the player's movement mode.
+     *
+     * This is resolved when the state is created, and again whenever the
+     * player's movement mode changes, so testing if the player can move does not
+     * have to derive the movement mask on every move.
+     *
+     * @return the passability, never {@code null}
+     * @see Player#movementChanged()
+     */
+    public PassabilityMap passability() {
+        return passability;
+    }
+
+    /**
+     * Set the passability for the player's movement mode.
+     *
+     * @param passability the passability to set
+     */
+    void setPassability(PassabilityMap passability) {
+        this.passability = passability;
+    }
+
+    /**
+     * Mark a specific map coordinate as visited.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate was not visited before
+     */
+    public boolean visit(int x, int y) {
+        return visited.visit(x, y);
+    }
+
+    /**
+     * Test if a specific map coordinate has been visited before.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate has been visited before
+     */
+    public boolean hasVisited(int x, int y) {
+        return visited.hasVisited(x, y);
+    }
+
+    /**
+     * Test if a specific map coordinate has been visited "near by" before.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate has been visited "near by" before
+     */
+    public boolean hasVisitedNear(int x, int y) {
+        return visited.hasVisitedNear(x, y);
+    }
+
+    /**
+     * Test if any coordinate in a span of a row has been visited "near by"
+     * before.
+     *
+     * @param x     the x coordinate of the start of the span
+     * @param y     the y coordinate
+     * @param width the span width
+     * @return {@code true} if any coordinate in the span has been visited near by
+     *         before
+     */
+    public boolean hasVisitedNearAny(int x, int y, int width) {
+        return visited.hasVisitedNearAny(x, y, width);
+    }
+
+    /**
+     * Mark a specific map coordinate as interacted with.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate was not interacted with before
+     */
+    public boolean interacted(int x, int y) {
+        return interactions.add(x, y);
+    }
+
+    /**
+     * Test if a specific map coordinate has been interacted with before.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate has been interacted with before
+     */
+    public boolean hasInteracted(int x, int y) {
+        return interactions.contains(x, y);
+    }
+
+    /**
+     * Test if a (possibly moved) vehicle is located at the given coordinates.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@literal true} if a ship is located at the given point
+     */
+    public boolean vehicleLocatedAt(int x, int y) {
+        return vehicleLocatedAt(map, vehicles, x, y);
+    }
+
+    /**
+     * Test if a (possibly moved) vehicle is located at the given coordinates.
+     *
+     * @param map      the map
+     * @param vehicles the vehicles data, or {@code null} if none
+     * @param x        the x coordinate
+     * @param y        the y coordinate
+     * @return {@literal true} if a ship is located at the given point
+     */
+    static boolean vehicleLocatedAt(TerrainMap map, VehicleIndex vehicles, int x, int y) {
+        if (vehicles != null) {
+            if (vehicles.vehicleAt(x, y)) {
+                return true;
+            } else if (vehicles.originAt(x, y)) {
+                // the ship at this origin has moved away
+                return false;
+            }
+        }
+        return map.terrainAt(x, y) == TerrainType.Ship;
+    }
+}
@@ -0,0 +1,341 @@
+package coding101.tq.domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar storage for the state of many players.
+ *
+ * Each player is assigned a slot, and the position, health, coins and
+ * experience points of all players are held in parallel primitive arrays
+ * indexed by slot. {@link Player} instances act as views over a single slot, so
+ * code working with one player is unchanged, while updates that apply to all
+ * players, like {@link #applyTerrainDamage(TerrainMap, TerrainType, int)} or
+ * {@link #awardXp(int)}, are simple loops over the arrays.
+ *
+ * The visited data of the players is also held per map, as a column of
+ * {@link VisitedMap} instances indexed by slot.
+ *
+ * This class is not thread safe.
+ */
+public final class PlayerStore {
+
+    private static final int MIN_CAPACITY = 4;
+
+    private boolean[] active;
+    private String[] activeMapNames;
+    private int[] x;
+    private int[] y;
+    private int[] health;
+    private int[] maxHealth;
+    private int[] coins;
+    private int[] xp;
+
+    // released slots available for reuse
+    private int[] free = new int[0];
+    private int freeCount;
+
+    // the number of slots allocated so far, including released slots
+    private int limit;
+    private int size;
+
+    // the visited data of each map, indexed by slot
+    private final Map<String, VisitedMap[]> visited = new HashMap<>(4);
+
+    /**
+     * Constructor.
+     */
+    public PlayerStore() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the initial player capacity
+     */
+    public PlayerStore(int capacity) {
+        super();
+        capacity = Math.max(1, capacity);
+        this.active = new boolean[capacity];
+        this.activeMapNames = new String[capacity];
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.health = new int[capacity];
+        this.maxHealth = new int[capacity];
+        this.coins = new int[capacity];
+        this.xp = new int[capacity];
+    }
+
+    /**
+     * Allocate a slot for a new player.
+     *
+     * All values of the slot start at {@code 0}.
+     *
+     * @return the slot
+     */
+    public int add() {
+        final int slot;
+        if (freeCount > 0) {
+            slot = free[--freeCount];
+        } else {
+            if (limit == active.length) {
+                grow(active.length * 2);
+            }
+            slot = limit++;
+        }
+        active[slot] = true;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Release a slot, so that it can be reused by a new player.
+     *
+     * Any {@link Player} viewing the slot must no longer be used.
+     *
+     * @param slot the slot to release
+     */
+    public void remove(int slot) {
+        if (slot < 0 || slot >= limit || !active[slot]) {
+            return;
+        }
+        active[slot] = false;
+        activeMapNames[slot] = null;
+        x[slot] = 0;
+        y[slot] = 0;
+        health[slot] = 0;
+        maxHealth[slot] = 0;
+        coins[slot] = 0;
+        xp[slot] = 0;
+        clearVisited(slot);
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, Math.max(MIN_CAPACITY, free.length * 2));
+        }
+        free[freeCount++] = slot;
+        size--;
+    }
+
+    private void grow(int capacity) {
+        active = Arrays.copyOf(active, capacity);
+        activeMapNames = Arrays.copyOf(activeMapNames, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        coins = Arrays.copyOf(coins, capacity);
+        xp = Arrays.copyOf(xp, capacity);
+        for (Map.Entry<String, VisitedMap[]> e : visited.entrySet()) {
+            e.setValue(Arrays.copyOf(e.getValue(), capacity));
+        }
+    }
+
+    /**
+     * Get the number of players.
+     *
+     * @return the number of allocated slots
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Test if a slot is allocated.
+     *
+     * @param slot the slot
+     * @return {@code true} if the slot is allocated to a player
+     */
+    public boolean active(int slot) {
+        return slot >= 0 && slot < limit && active[slot];
+    }
+
+    /**
+     * Get the active map name of a player.
+     *
+     * @param slot the slot
+     * @return the active map name
+     */
+    public String activeMapName(int slot) {
+        return activeMapNames[slot];
+    }
+
+    void setActiveMapName(int slot, String name) {
+        activeMapNames[slot] = name;
+    }
+
+    /**
+     * Get the X coordinate of a player.
+     *
+     * @param slot the slot
+     * @return the X coordinate
+     */
+    public int x(int slot) {
+        return x[slot];
+    }
+
+    void setX(int slot, int value) {
+        x[slot] = value;
+    }
+
+    /**
+     * Get the Y coordinate of a player.
+     *
+     * @param slot the slot
+     * @return the Y coordinate
+     */
+    public int y(int slot) {
+        return y[slot];
+    }
+
+    void setY(int slot, int value) {
+        y[slot] = value;
+    }
+
+    /**
+     * Get the health of a player.
+     *
+     * @param slot the slot
+     * @return the health
+     */
+    public int health(int slot) {
+        return health[slot];
+    }
+
+    void setHealth(int slot, int value) {
+        health[slot] = value;
+    }
+
+    /**
+     * Get the maximum health of a player.
+     *
+     * @param slot the slot
+     * @return the maximum health
+     */
+    public int maxHealth(int slot) {
+        return maxHealth[slot];
+    }
+
+    void setMaxHealth(int slot, int value) {
+        maxHealth[slot] = value;
+    }
+
+    /**
+     * Get the coins of a player.
+     *
+     * @param slot the slot
+     * @return the coins
+     */
+    public int coins(int slot) {
+        return coins[slot];
+    }
+
+    void setCoins(int slot, int value) {
+        coins[slot] = value;
+    }
+
+    /**
+     * Get the experience points of a player.
+     *
+     * @param slot the slot
+     * @return the experience points
+     */
+    public int xp(int slot) {
+        return xp[slot];
+    }
+
+    void setXp(int slot, int value) {
+        xp[slot] = value;
+    }
+
+    /**
+     * Get the visited data of a player on a map.
+     *
+     * @param mapName the map name
+     * @param slot    the slot
+     * @return the visited data, or {@code null} if none has been set
+     */
+    public VisitedMap visited(String mapName, int slot) {
+        final VisitedMap[] column = visited.get(mapName);
+        return (column != null ? column[slot] : null);
+    }
+
+    void setVisited(String mapName, int slot, VisitedMap value) {
+        visited.computeIfAbsent(mapName, k -> new VisitedMap[active.length])[slot] = value;
+    }
+
+    void clearVisited(int slot) {
+        for (VisitedMap[] column : visited.values()) {
+            column[slot] = null;
+        }
+    }
+
+    /**
+     * Award experience points to all players.
+     *
+     * @param amount the experience points to add to every player
+     */
+    public void awardXp(int amount) {
+        final boolean[] active = this.active;
+        final int[] xp = this.xp;
+        for (int i = 0, len = limit; i < len; i++) {
+            if (active[i]) {
+                xp[i] = Math.max(0, xp[i] + amount);
+            }
+        }
+    }
+
+    /**
+     * Deduct health from all players located on a given type of terrain.
+     *
+     * This can be used to apply damage from terrain like lava on every game tick.
+     *
+     * @param map    the map; only players whose active map has the same name are
+     *               affected
+     * @param type   the type of terrain that causes damage
+     * @param damage the health to deduct
+     * @return the number of players damaged
+     */
+    public int applyTerrainDamage(TerrainMap map, TerrainType type, int damage) {
+        final String mapName = map.getName();
+        final boolean[] active = this.active;
+        final String[] names = this.activeMapNames;
+        final int[] x = this.x;
+        final int[] y = this.y;
+        final int[] health = this.health;
+        int result = 0;
+        for (int i = 0, len = limit; i < len; i++) {
+            if (active[i] && mapName.equals(names[i]) && map.terrainAt(x[i], y[i]) == type) {
+                health[i] = Math.max(0, health[i] - damage);
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mark the current coordinate of all players on a map as visited.
+     *
+     * Only players that have visited data for the map are updated, which is any
+     * player that has moved on the map via {@link Player#moveTo(TerrainMap, int, int)}.
+     *
+     * @param map the map
+     * @return the number of coordinates visited for the first time
+     */
+    public int visitAll(TerrainMap map) {
+        final String mapName = map.getName();
+        final VisitedMap[] column = visited.get(mapName);
+        if (column == null) {
+            return 0;
+        }
+        int result = 0;
+        for (int i = 0, len = limit; i < len; i++) {
+            if (active[i] && column[i] != null && mapName.equals(activeMapNames[i])) {
+                if (column[i].visit(x[i], y[i])) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+}
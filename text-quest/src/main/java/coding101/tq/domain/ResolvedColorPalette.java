@@ -0,0 +1,131 @@
+package coding101.tq.domain;
+
+import static coding101.tq.domain.ColorPalette.color;
+
+import com.googlecode.lanterna.TextColor;
+
+/**
+ * A color palette with all color references parsed into {@link TextColor}
+ * objects.
+ *
+ * The colors of a {@link ColorPalette} are strings, which must be parsed every
+ * time they are used. This class parses them all once, and holds the terrain
+ * colors in an array indexed by {@link TerrainType#ordinal()}, so looking up the
+ * color of a map cell is an array access.
+ *
+ * Colors not configured in the palette are held as {@code null}, so each
+ * accessor accepts the default color to use in that case, the same as the
+ * {@link ColorPalette} methods.
+ *
+ * @see ColorPalette#resolve()
+ */
+public final class ResolvedColorPalette {
+
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+
+    private final TextColor uiText;
+    private final TextColor uiBorder;
+    private final TextColor health;
+    private final TextColor healthPartial;
+    private final TextColor player;
+    private final TextColor cave;
+    private final TextColor[] terrain;
+
+    /**
+     * Constructor.
+     *
+     * @param palette the palette to resolve
+     * @throws IllegalArgumentException if any color reference is not supported
+     */
+    public ResolvedColorPalette(ColorPalette palette) {
+        super();
+        this.uiText = color(palette.uiText(), null);
+        this.uiBorder = color(palette.uiBorder(), null);
+        this.health = color(palette.health(), null);
+        this.healthPartial = color(palette.healthPartial(), null);
+        this.player = color(palette.player(), null);
+        this.cave = color(palette.cave(), null);
+        this.terrain = new TextColor[TERRAIN_TYPES.length];
+        for (TerrainType type : TERRAIN_TYPES) {
+            terrain[type.ordinal()] = palette.terrain(type, null);
+        }
+    }
+
+    private static TextColor or(TextColor color, TextColor defaultColor) {
+        return (color != null ? color : defaultColor);
+    }
+
+    /**
+     * Get the UI text color.
+     *
+     * @param defaultColor the default color to use
+     * @return the color
+     */
+    public TextColor uiText(TextColor defaultColor) {
+        return or(uiText, defaultColor);
+    }
+
+    /**
+     * Get the UI border color.
+     *
+     * @param defaultColor the default color to use
+     * @return the color
+     */
+    public TextColor uiBorder(TextColor defaultColor) {
+        return or(uiBorder, defaultColor);
+    }
+
+    /**
+     * Get the health color.
+     *
+     * @param defaultColor the default color to use
+     * @return the color
+     */
+    public TextColor health(TextColor defaultColor) {
+        return or(health, defaultColor);
+    }
+
+    /**
+     * Get the partial health color.
+     *
+     * @param defaultColor the default color to use
+     * @return the color
+     */
+    public TextColor healthPartial(TextColor defaultColor) {
+        return or(healthPartial, defaultColor);
+    }
+
+    /**
+     * Get the player color.
+     *
+     * @param defaultColor the default color to use
+     * @return the color
+     */
+    public TextColor player(TextColor defaultColor) {
+        return or(player, defaultColor);
+    }
+
+    /**
+     * Get the cave color.
+     *
+     * @param defaultColor the default color to use
+     * @return the color
+     */
+    public TextColor cave(TextColor defaultColor) {
+        return or(cave, defaultColor);
+    }
+
+    /**
+     * Get a color for a terrain.
+     *
+     * @param type         the terrain type
+     * @param defaultColor the default color to use
+     * @return the color
+     */
+    public TextColor terrain(TerrainType type, TextColor defaultColor) {
+        if (type == null) {
+            return defaultColor;
+        }
+        return or(terrain[type.ordinal()], defaultColor);
+    }
+}
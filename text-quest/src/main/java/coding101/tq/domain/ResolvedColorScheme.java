@@ -0,0 +1,10 @@
+package coding101.tq.domain;
+
+/**
+ * Color scheme with all colors resolved.
+ *
+ * @param background the resolved background palette
+ * @param foreground the resolved foreground palette
+ * @see ColorScheme#resolve()
+ */
+public final record ResolvedColorScheme(ResolvedColorPalette background, ResolvedColorPalette foreground) {}
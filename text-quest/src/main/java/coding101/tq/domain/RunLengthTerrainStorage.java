@@ -0,0 +1,167 @@
+package coding101.tq.domain;
+
+import coding101.tq.domain.TerrainMap.TerrainConsumer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Terrain storage that run-length encodes each row of terrain.
+ *
+ * A run is a sequence of coordinates within a row that all have the same
+ * terrain. Each run is stored as its starting column and the
+ * {@link PackedTerrainStorage} encoding of its terrain, and a row index holds
+ * the offset of the first run of every row. Looking up a coordinate is a
+ * binary search over the runs of a single row, and walking a row decodes each
+ * run once, without expanding the row.
+ *
+ * Maps that are mostly long runs of the same terrain, like large areas of
+ * {@code Water}, need a small fraction of the memory of
+ * {@link PackedTerrainStorage}. Instances are immutable.
+ */
+public final class RunLengthTerrainStorage implements TerrainStorage {
+
+    private final int width;
+    private final int height;
+
+    // the index of the first run of each row, with a final entry for the total
+    // number of runs
+    private final int[] rowRuns;
+
+    // the starting column of each run
+    private final int[] runStarts;
+
+    // the packed terrain type of each run
+    private final byte[] runTypes;
+
+    private RunLengthTerrainStorage(int width, int height, int[] rowRuns, int[] runStarts, byte[] runTypes) {
+        super();
+        this.width = width;
+        this.height = height;
+        this.rowRuns = rowRuns;
+        this.runStarts = runStarts;
+        this.runTypes = runTypes;
+    }
+
+    /**
+     * Create a new instance from existing terrain storage.
+     *
+     * @param terrain the terrain to encode
+     * @return the new instance
+     * @throws IllegalArgumentException if {@code terrain} is {@code null}
+     */
+    public static RunLengthTerrainStorage of(TerrainStorage terrain) {
+        final int width = Objects.requireNonNull(terrain).width();
+        final int height = terrain.height();
+        final int[] rowRuns = new int[height + 1];
+        int[] runStarts = new int[Math.max(16, height)];
+        byte[] runTypes = new byte[runStarts.length];
+        int runs = 0;
+        for (int y = 0; y < height; y++) {
+            rowRuns[y] = runs;
+            byte prev = 0;
+            for (int x = 0; x < width; x++) {
+                byte b = PackedTerrainStorage.encode(terrain.terrainAt(x, y));
+                if (x == 0 || b != prev) {
+                    if (runs == runStarts.length) {
+                        int len = runs + (runs >> 1);
+                        runStarts = Arrays.copyOf(runStarts, len);
+                        runTypes = Arrays.copyOf(runTypes, len);
+                    }
+                    runStarts[runs] = x;
+                    runTypes[runs] = b;
+                    runs++;
+                    prev = b;
+                }
+            }
+        }
+        rowRuns[height] = runs;
+        return new RunLengthTerrainStorage(
+                width, height, rowRuns, Arrays.copyOf(runStarts, runs), Arrays.copyOf(runTypes, runs));
+    }
+
+    /**
+     * Create a new instance from a 2D array of rows.
+     *
+     * @param terrain the terrain to encode
+     * @return the new instance
+     * @throws IllegalArgumentException if {@code terrain} is {@code null} or does
+     *                                  not have at least 1 non-empty row
+     */
+    public static RunLengthTerrainStorage of(TerrainType[][] terrain) {
+        return of(new ArrayTerrainStorage(terrain));
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Get the total number of runs across all rows.
+     *
+     * @return the run count
+     */
+    public int runCount() {
+        return runStarts.length;
+    }
+
+    @Override
+    public TerrainType terrainAt(int x, int y) {
+        return PackedTerrainStorage.decode(runTypes[run(x, y)]);
+    }
+
+    @Override
+    public void walkRow(int x, int y, int width, TerrainConsumer out) {
+        final int maxCol = x + width;
+        final int lastRun = rowRuns[y + 1] - 1;
+        int run = run(x, y);
+        int runEnd = run < lastRun ? runStarts[run + 1] : this.width;
+        TerrainType type = PackedTerrainStorage.decode(runTypes[run]);
+        for (int col = x; col < maxCol; col++) {
+            if (col == runEnd) {
+                run++;
+                runEnd = run < lastRun ? runStarts[run + 1] : this.width;
+                type = PackedTerrainStorage.decode(runTypes[run]);
+            }
+            out.accept(col, y, type);
+        }
+    }
+
+    @Override
+    public void readRow(int x, int y, int width, TerrainType[] dest, int offset) {
+        final int maxCol = x + width;
+        final int lastRun = rowRuns[y + 1] - 1;
+        for (int run = run(x, y), col = x; col < maxCol; run++) {
+            final int runEnd = Math.min(maxCol, run < lastRun ? runStarts[run + 1] : this.width);
+            Arrays.fill(dest, offset + col - x, offset + runEnd - x, PackedTerrainStorage.decode(runTypes[run]));
+            col = runEnd;
+        }
+    }
+
+    /**
+     * Find the run that contains a coordinate.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the run index
+     */
+    private int run(int x, int y) {
+        int lo = rowRuns[y];
+        int hi = rowRuns[y + 1] - 1;
+        // find the last run that starts at or before x
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (runStarts[mid] <= x) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+}
@@ -3,13 +3,14 @@ package coding101.tq.domain;
 import coding101.tq.Game;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Matcher;
@@ -17,6 +18,8 @@ import java.util.regex.Pattern;
 
 /**
  * A map of terrain, as a 2D array of rows.
+ *
+ * The terrain data itself is held by a {@link TerrainStorage} instance.
  */
 public class TerrainMap {
 
@@ -30,10 +33,18 @@ public class TerrainMap {
     private final Map<String, String> metadata;
     private final int width;
     private final int height;
-    private final TerrainType[][] terrain;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final TerrainStorage terrain;
 
-    // a transient mapping of coordinates to associated Shop instances
-    private Map<Coordinate, Shop> shops = new HashMap<>(2);
+    // a transient mapping of packed coordinates to associated Shop instances;
+    // maps have few shops so these are searched linearly
+    private long[] shopCoordinates = new long[0];
+    private Shop[] shops = new Shop[0];
+
+    // the passability bitmaps derived so far, one per movement mask; maps are
+    // used with few masks so these are searched linearly
+    private PassabilityMap[] passability = new PassabilityMap[0];
 
     /**
      * Constructor.
@@ -48,15 +59,43 @@ public class TerrainMap {
             @JsonProperty("name") String name,
             @JsonProperty("terrain") TerrainType[][] terrain,
             @JsonProperty("metadata") Map<String, String> metadata) {
+        this(name, new ArrayTerrainStorage(terrain), metadata);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name     the map name
+     * @param terrain  the terrain storage
+     * @param metadata the metadata
+     * @throws IllegalArgumentException if any argument is {@literal null}
+     */
+    public TerrainMap(String name, TerrainStorage terrain, Map<String, String> metadata) {
+        this(name, terrain, metadata, 0, 0);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name       the map name
+     * @param terrain    the terrain storage
+     * @param metadata   the metadata
+     * @param tileWidth  the width of the tiles the map was built from, or
+     *                   {@code 0} to treat the whole map as a single tile
+     * @param tileHeight the height of the tiles the map was built from, or
+     *                   {@code 0} to treat the whole map as a single tile
+     * @throws IllegalArgumentException if any argument is {@literal null}
+     */
+    public TerrainMap(
+            String name, TerrainStorage terrain, Map<String, String> metadata, int tileWidth, int tileHeight) {
         super();
         this.name = Objects.requireNonNull(name);
         this.terrain = Objects.requireNonNull(terrain);
         this.metadata = Collections.unmodifiableMap(Objects.requireNonNull(metadata));
-        if (terrain.length < 1 || terrain[0] == null || terrain[0].length < 1) {
-            throw new IllegalArgumentException("Invalid terrain array: must have at least 1 non-empty element.");
-        }
-        this.width = terrain[0].length;
-        this.height = terrain.length;
+        this.width = terrain.width();
+        this.height = terrain.height();
+        this.tileWidth = (tileWidth > 0 && tileHeight > 0 ? tileWidth : width);
+        this.tileHeight = (tileWidth > 0 && tileHeight > 0 ? tileHeight : height);
     }
 
     /**
@@ -86,6 +125,24 @@ public class TerrainMap {
         return height;
     }
 
+    /**
+     * Get the width of the tiles the map was built from.
+     *
+     * @return the tile width
+     */
+    public final int tileWidth() {
+        return tileWidth;
+    }
+
+    /**
+     * Get the height of the tiles the map was built from.
+     *
+     * @return the tile height
+     */
+    public final int tileHeight() {
+        return tileHeight;
+    }
+
     /**
      * Get the metadata.
      *
@@ -99,10 +156,23 @@ public class TerrainMap {
     /**
      * Get the terrain.
      *
+     * If the terrain storage does not hold the terrain as a 2D array then a copy
+     * of the terrain is returned.
+     *
      * @return the terrain
      */
     @JsonGetter(value = "terrain")
     public TerrainType[][] terrain() {
+        return terrain.toArray();
+    }
+
+    /**
+     * Get the terrain storage.
+     *
+     * @return the storage
+     */
+    @JsonIgnore
+    public TerrainStorage storage() {
         return terrain;
     }
 
@@ -138,7 +208,32 @@ public class TerrainMap {
         if (x >= width || y >= height || x < 0 || y < 0) {
             return TerrainType.Empty;
         }
-        return terrain[y][x];
+        return terrain.terrainAt(x, y);
+    }
+
+    /**
+     * Get the terrain type at a specific packed coordinate.
+     *
+     * @param coordinate the packed coordinate
+     * @return the terrain type, or {@link TerrainType#Empty} if the coordinate is
+     *         out of bounds
+     * @see Coordinate#pack(int, int)
+     */
+    public final TerrainType terrainAt(long coordinate) {
+        return terrainAt(Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
+    }
+
+    /**
+     * Hint that a quadrant of the terrain is likely to be accessed soon.
+     *
+     * @param x      the x origin
+     * @param y      the y origin
+     * @param width  the quadrant width
+     * @param height the quadrant height
+     * @see TerrainStorage#prefetch(int, int, int, int)
+     */
+    public void prefetch(int x, int y, int width, int height) {
+        terrain.prefetch(x, y, width, height);
     }
 
     @Override
@@ -179,12 +274,131 @@ public class TerrainMap {
     public void walk(int x, int y, int width, int height, TerrainConsumer out) {
         int maxCol = x + width;
         int maxRow = y + height;
+        // the span of columns within the map bounds
+        final int minInCol = Math.max(x, 0);
+        final int maxInCol = Math.min(maxCol, this.width);
+        for (int row = y; row < maxRow; row++) {
+            if (row < 0 || row >= this.height || minInCol >= maxInCol) {
+                for (int col = x; col < maxCol; col++) {
+                    out.accept(col, row, null);
+                }
+                continue;
+            }
+            for (int col = x; col < minInCol; col++) {
+                out.accept(col, row, null);
+            }
+            terrain.walkRow(minInCol, row, maxInCol - minInCol, out);
+            for (int col = maxInCol; col < maxCol; col++) {
+                out.accept(col, row, null);
+            }
+        }
+    }
+
+    /**
+     * Consume a span of terrain coordinates within a single row.
+     */
+    @FunctionalInterface
+    public static interface TerrainSpanConsumer {
+
+        /**
+         * Process a span of terrain coordinates within a single row.
+         *
+         * The terrain type at coordinate {@code (x + i, y)} is
+         * {@code types[offset + i]}, for {@code i} from {@code 0} to
+         * {@code length - 1}. The array is either the row array of the map storage
+         * or a buffer reused for every span, so it must not be modified or
+         * retained after this method returns.
+         *
+         * @param x      the x coordinate of the start of the span
+         * @param y      the y coordinate
+         * @param types  the terrain types
+         * @param offset the offset within {@code types} of the start of the span
+         * @param length the span length
+         */
+        void accept(int x, int y, TerrainType[] types, int offset, int length);
+    }
+
+    /**
+     * Walk a quadrant of the terrain, one row at a time.
+     *
+     * This is like {@link #walk(int, int, int, int, TerrainConsumer)}, but passes
+     * each row of the quadrant to {@code out} as a single span, so the consumer
+     * can process the row in a simple loop. Coordinates that are out of bounds of
+     * the map data are included in each span, with a {@code null} value.
+     *
+     * @param x      the x origin
+     * @param y      the y origin
+     * @param width  the quadrant width
+     * @param height the quadrant height
+     * @param out    the destination
+     */
+    public void walkRows(int x, int y, int width, int height, TerrainSpanConsumer out) {
+        if (width < 1 || height < 1) {
+            return;
+        }
+        walkRows(x, y, width, height, new TerrainType[width], false, out);
+    }
+
+    /**
+     * Walk a quadrant of the terrain, one row at a time, reading rows into a
+     * given buffer.
+     *
+     * This is like {@link #walkRows(int, int, int, int, TerrainSpanConsumer)},
+     * but reuses {@code buffer} rather than allocating a new one, so a caller
+     * that walks many small quadrants can use one buffer for all of them.
+     *
+     * @param x      the x origin
+     * @param y      the y origin
+     * @param width  the quadrant width
+     * @param height the quadrant height
+     * @param buffer the buffer to read rows into, at least {@code width} long
+     * @param out    the destination
+     * @throws IllegalArgumentException if {@code buffer} is shorter than
+     *                                  {@code width}
+     */
+    public void walkRows(int x, int y, int width, int height, TerrainType[] buffer, TerrainSpanConsumer out) {
+        if (width < 1 || height < 1) {
+            return;
+        }
+        if (buffer.length < width) {
+            throw new IllegalArgumentException(
+                    "The buffer length %d is less than the width %d.".formatted(buffer.length, width));
+        }
+        walkRows(x, y, width, height, buffer, true, out);
+    }
+
+    private void walkRows(
+            int x, int y, int width, int height, TerrainType[] buf, boolean clear, TerrainSpanConsumer out) {
+        final int maxCol = x + width;
+        final int maxRow = y + height;
+        // the span of columns within the map bounds
+        final int minInCol = Math.max(x, 0);
+        final int maxInCol = Math.min(maxCol, this.width);
+
+        // columns outside the map bounds are never copied to, so remain null
+        if (clear) {
+            Arrays.fill(buf, 0, width, null);
+        }
+        boolean bufRowEmpty = true;
         for (int row = y; row < maxRow; row++) {
-            for (int col = x; col < maxCol; col++) {
-                TerrainType[] r = row < terrain.length ? terrain[row] : null;
-                TerrainType t = r != null && col < r.length ? r[col] : null;
-                out.accept(col, row, t);
+            if (row < 0 || row >= this.height || minInCol >= maxInCol) {
+                if (!bufRowEmpty) {
+                    Arrays.fill(buf, minInCol - x, maxInCol - x, null);
+                    bufRowEmpty = true;
+                }
+                out.accept(x, row, buf, 0, width);
+                continue;
             }
+            if (minInCol == x && maxInCol == maxCol) {
+                final TerrainType[] rowArray = terrain.rowArray(row);
+                if (rowArray != null) {
+                    out.accept(x, row, rowArray, x, width);
+                    continue;
+                }
+            }
+            terrain.readRow(minInCol, row, maxInCol - minInCol, buf, minInCol - x);
+            bufRowEmpty = false;
+            out.accept(x, row, buf, 0, width);
         }
     }
 
@@ -201,9 +415,7 @@ public class TerrainMap {
                 if (col == x && row == y) {
                     continue;
                 }
-                TerrainType[] r = row < terrain.length ? terrain[row] : null;
-                TerrainType t = r != null && col < r.length ? r[col] : null;
-                out.accept(col, row, t);
+                out.accept(col, row, terrain.terrainAt(col, row));
             }
         }
     }
@@ -287,10 +499,54 @@ public class TerrainMap {
      * @return the shop
      */
     public Shop shopAt(int x, int y, Game game) {
+        return shopAt(Coordinate.pack(x, y), game);
+    }
+
+    /**
+     * Get a shop instance at a given packed coordinate.
+     *
+     * @param coordinate the packed coordinate
+     * @param game       the game
+     * @return the shop
+     * @see #shopAt(int, int, Game)
+     */
+    public Shop shopAt(long coordinate, Game game) {
+        for (int i = 0; i < shopCoordinates.length; i++) {
+            if (shopCoordinates[i] == coordinate) {
+                return shops[i];
+            }
+        }
         final double purchaseRateDiscount = game.player().config().shop().purchaseRateDiscount();
         final int sellItemsMaximum = 3; // maybe configure somewhere?
-        return shops.computeIfAbsent(
-                new Coordinate(x, y),
-                coord -> new Shop(game.items(), game.player(), purchaseRateDiscount, sellItemsMaximum));
+        final Shop shop = new Shop(game.items(), game.player(), purchaseRateDiscount, sellItemsMaximum);
+        final int len = shopCoordinates.length;
+        shopCoordinates = Arrays.copyOf(shopCoordinates, len + 1);
+        shops = Arrays.copyOf(shops, len + 1);
+        shopCoordinates[len] = coordinate;
+        shops[len] = shop;
+        return shop;
+    }
+
+    /**
+     * Get the passability bitmap for a movement mask.
+     *
+     * The bitmap is derived the first time a given mask is requested, and then
+     * reused.
+     *
+     * @param mask the passable terrain mask
+     * @return the passability bitmap
+     * @see MovementRules
+     */
+    public PassabilityMap passability(int mask) {
+        for (PassabilityMap p : passability) {
+            if (p.mask() == mask) {
+                return p;
+            }
+        }
+        final PassabilityMap result = new PassabilityMap(this, mask);
+        final int len = passability.length;
+        passability = Arrays.copyOf(passability, len + 1);
+        passability[len] = result;
+        return result;
     }
 }
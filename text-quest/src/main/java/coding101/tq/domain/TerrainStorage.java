@@ -0,0 +1,124 @@
+package coding101.tq.domain;
+
+/**
+ * API for the storage of terrain data within a {@link TerrainMap}.
+ *
+ * Coordinates passed to the methods of this API are always within the bounds
+ * of the storage {@code width} and {@code height}; the {@link TerrainMap}
+ * handles out of bounds coordinates before delegating to the storage.
+ */
+public interface TerrainStorage {
+
+    /**
+     * Get the terrain width.
+     *
+     * @return the width
+     */
+    int width();
+
+    /**
+     * Get the terrain height.
+     *
+     * @return the height
+     */
+    int height();
+
+    /**
+     * Get the terrain type at a specific coordinate.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the terrain type, or {@code null} if no terrain is available at the
+     *         given coordinate (for example a hole in the tiles the terrain was
+     *         built from)
+     */
+    TerrainType terrainAt(int x, int y);
+
+    /**
+     * Walk a span of coordinates within a single row.
+     *
+     * Storage that can decode a row sequentially more efficiently than looking up
+     * each coordinate can override this. This default implementation calls
+     * {@link #terrainAt(int, int)} for each coordinate.
+     *
+     * @param x     the x origin
+     * @param y     the row
+     * @param width the span width
+     * @param out   the destination
+     */
+    default void walkRow(int x, int y, int width, TerrainMap.TerrainConsumer out) {
+        for (int col = x, maxCol = x + width; col < maxCol; col++) {
+            out.accept(col, y, terrainAt(col, y));
+        }
+    }
+
+    /**
+     * Copy a span of coordinates within a single row into an array.
+     *
+     * Storage that can decode a row sequentially more efficiently than looking up
+     * each coordinate can override this. This default implementation calls
+     * {@link #terrainAt(int, int)} for each coordinate.
+     *
+     * @param x      the x origin
+     * @param y      the row
+     * @param width  the span width
+     * @param dest   the array to copy the terrain to
+     * @param offset the offset within {@code dest} to start copying to
+     */
+    default void readRow(int x, int y, int width, TerrainType[] dest, int offset) {
+        for (int i = 0; i < width; i++) {
+            dest[offset + i] = terrainAt(x + i, y);
+        }
+    }
+
+    /**
+     * Get the array a row of terrain is stored in.
+     *
+     * Storage that holds each row as an array can return it, to avoid copying the
+     * row. The returned array must not be modified. This default implementation
+     * returns {@code null}.
+     *
+     * @param y the row
+     * @return the row array, with at least {@link #width()} elements, or
+     *         {@code null} if not available
+     */
+    default TerrainType[] rowArray(int y) {
+        return null;
+    }
+
+    /**
+     * Hint that an area of terrain is likely to be accessed soon.
+     *
+     * Storage that loads terrain on demand can use this to load the area in the
+     * background. This default implementation does nothing.
+     *
+     * @param x      the x origin
+     * @param y      the y origin
+     * @param width  the area width
+     * @param height the area height
+     */
+    default void prefetch(int x, int y, int width, int height) {
+        // nothing to do
+    }
+
+    /**
+     * Get the terrain as a 2D array of rows.
+     *
+     * Implementations that do not store their data this way will create a new
+     * array with a copy of the terrain.
+     *
+     * @return the terrain
+     */
+    default TerrainType[][] toArray() {
+        final int width = width();
+        final int height = height();
+        TerrainType[][] result = new TerrainType[height][width];
+        for (int y = 0; y < height; y++) {
+            TerrainType[] row = result[y];
+            for (int x = 0; x < width; x++) {
+                row[x] = terrainAt(x, y);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,238 @@
+package coding101.tq.domain;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mapping of vehicle origin coordinates to current coordinates, indexed in
+ * both directions.
+ *
+ * The origin of a vehicle is its coordinate encoded on a map, and the current
+ * coordinate is where the vehicle has been moved to. Both directions are held
+ * in open-addressing hash tables of packed {@code long} coordinates, so testing
+ * for a vehicle at a coordinate or moving a vehicle does not allocate any
+ * objects or scan all vehicles.
+ *
+ * As a {@link Map} this serializes as a mapping of origin to current
+ * coordinates, iterated in origin {@link Coordinate} sort order.
+ */
+public final class VehicleIndex extends AbstractMap<Coordinate, Coordinate> {
+
+    private final LongHashTable byOrigin = new LongHashTable(true);
+    private final LongHashTable byCurrent = new LongHashTable(true);
+
+    /**
+     * Constructor.
+     */
+    public VehicleIndex() {
+        super();
+    }
+
+    /**
+     * Test if a vehicle is currently located at a coordinate.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if a vehicle is located at the coordinate
+     */
+    public boolean vehicleAt(int x, int y) {
+        return vehicleAt(Coordinate.pack(x, y));
+    }
+
+    /**
+     * Test if a vehicle is currently located at a packed coordinate.
+     *
+     * @param coordinate the packed coordinate
+     * @return {@code true} if a vehicle is located at the coordinate
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean vehicleAt(long coordinate) {
+        return byCurrent.containsKey(coordinate);
+    }
+
+    /**
+     * Test if a coordinate is the origin of a vehicle.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate is the origin of a vehicle, whether or
+     *         not the vehicle has moved
+     */
+    public boolean originAt(int x, int y) {
+        return originAt(Coordinate.pack(x, y));
+    }
+
+    /**
+     * Test if a packed coordinate is the origin of a vehicle.
+     *
+     * @param coordinate the packed coordinate
+     * @return {@code true} if the coordinate is the origin of a vehicle, whether or
+     *         not the vehicle has moved
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean originAt(long coordinate) {
+        return byOrigin.containsKey(coordinate);
+    }
+
+    /**
+     * Get the origin of the vehicle currently located at a coordinate.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the origin, or {@code null} if no vehicle is located at the
+     *         coordinate
+     */
+    public Coordinate originOf(int x, int y) {
+        final long current = Coordinate.pack(x, y);
+        return (byCurrent.containsKey(current) ? Coordinate.unpack(byCurrent.get(current)) : null);
+    }
+
+    /**
+     * Get the packed origin of a vehicle located at a packed coordinate.
+     *
+     * A vehicle that is not in this index has never been moved, so its origin is
+     * its current coordinate.
+     *
+     * @param current the packed coordinate
+     * @return the packed origin of the vehicle located at {@code current}, or
+     *         {@code current} if no vehicle is located there
+     * @see Coordinate#pack(int, int)
+     */
+    public long originOrSelf(long current) {
+        return (byCurrent.containsKey(current) ? byCurrent.get(current) : current);
+    }
+
+    /**
+     * Move the vehicle currently located at a coordinate.
+     *
+     * @param x    the x coordinate of the vehicle to move
+     * @param y    the y coordinate of the vehicle to move
+     * @param toX  the x coordinate to move to
+     * @param toY  the y coordinate to move to
+     * @return {@code true} if a vehicle was located at {@code x,y} and moved
+     */
+    public boolean move(int x, int y, int toX, int toY) {
+        return move(Coordinate.pack(x, y), Coordinate.pack(toX, toY));
+    }
+
+    /**
+     * Move the vehicle currently located at a packed coordinate.
+     *
+     * @param current the packed coordinate of the vehicle to move
+     * @param to      the packed coordinate to move to
+     * @return {@code true} if a vehicle was located at {@code current} and moved
+     * @see Coordinate#pack(int, int)
+     */
+    public boolean move(long current, long to) {
+        if (!byCurrent.containsKey(current)) {
+            return false;
+        }
+        final long origin = byCurrent.get(current);
+        byCurrent.remove(current);
+        byCurrent.put(to, origin);
+        byOrigin.put(origin, to);
+        return true;
+    }
+
+    @Override
+    public Coordinate put(Coordinate origin, Coordinate current) {
+        final long o = origin.pack();
+        final Coordinate result = (byOrigin.containsKey(o) ? Coordinate.unpack(byOrigin.get(o)) : null);
+        put(o, current.pack());
+        return result;
+    }
+
+    /**
+     * Set the current location of a vehicle.
+     *
+     * @param origin  the packed origin of the vehicle
+     * @param current the packed current coordinate of the vehicle
+     * @see Coordinate#pack(int, int)
+     */
+    public void put(long origin, long current) {
+        if (byOrigin.containsKey(origin)) {
+            byCurrent.remove(byOrigin.get(origin));
+        }
+        byOrigin.put(origin, current);
+        byCurrent.put(current, origin);
+    }
+
+    @Override
+    public Coordinate get(Object key) {
+        if (key instanceof Coordinate origin) {
+            final long o = origin.pack();
+            if (byOrigin.containsKey(o)) {
+                return Coordinate.unpack(byOrigin.get(o));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (key instanceof Coordinate origin ? originAt(origin.x(), origin.y()) : false);
+    }
+
+    @Override
+    public Coordinate remove(Object key) {
+        if (key instanceof Coordinate origin) {
+            final long o = origin.pack();
+            if (byOrigin.containsKey(o)) {
+                final long current = byOrigin.get(o);
+                byOrigin.remove(o);
+                byCurrent.remove(current);
+                return Coordinate.unpack(current);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return byOrigin.size();
+    }
+
+    @Override
+    public void clear() {
+        byOrigin.clear();
+        byCurrent.clear();
+    }
+
+    /**
+     * Get a sorted copy of the vehicle mappings.
+     *
+     * The returned set does not support modification.
+     */
+    @Override
+    public Set<Entry<Coordinate, Coordinate>> entrySet() {
+        final long[] origins = byOrigin.keys();
+        // flip the y sign bit so signed sorting orders by x and then y
+        for (int i = 0; i < origins.length; i++) {
+            origins[i] ^= 0x80000000L;
+        }
+        Arrays.sort(origins);
+        final List<Entry<Coordinate, Coordinate>> entries = new ArrayList<>(origins.length);
+        for (long o : origins) {
+            o ^= 0x80000000L;
+            entries.add(new SimpleImmutableEntry<>(Coordinate.unpack(o), Coordinate.unpack(byOrigin.get(o))));
+        }
+        return new AbstractSet<>() {
+
+            @Override
+            public Iterator<Entry<Coordinate, Coordinate>> iterator() {
+                return entries.iterator();
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+    }
+}
@@ -1,16 +1,50 @@
 package coding101.tq.domain;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import java.util.BitSet;
+import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
 /**
  * A map of "visited" terrain.
+ *
+ * This implementation stores a {@link BitSet} for each visited row, and can
+ * hold any coordinate. See {@link DenseVisitedMap} for an implementation sized
+ * to a specific map, or {@link CompressedVisitedMap} for an implementation
+ * whose size depends only on the number of visited coordinates.
+ *
+ * No type information is serialized: the implementation to deserialize is
+ * deduced from the properties present, so {@code visited} data deserializes as
+ * this class and {@code runs} data as {@link CompressedVisitedMap}.
  */
+@JsonTypeInfo(use = JsonTypeInfo.Id.DEDUCTION, defaultImpl = VisitedMap.class)
+@JsonSubTypes({@JsonSubTypes.Type(CompressedVisitedMap.class)})
 public class VisitedMap {
 
-    private SortedMap<Integer, BitSet> visitedRows = new TreeMap<>();
+    /**
+     * API for consuming runs of visited coordinates.
+     */
+    @FunctionalInterface
+    public static interface VisitedRunConsumer {
+
+        /**
+         * Consume a run of consecutive visited coordinates within a row.
+         *
+         * @param y      the y coordinate of the row
+         * @param x      the x coordinate of the start of the run
+         * @param length the number of coordinates in the run
+         */
+        void accept(int y, int x, int length);
+    }
+
+    // created on demand, as subclasses with their own storage never use it
+    private SortedMap<Integer, BitSet> visitedRows;
+
+    // statistics maintained as coordinates are visited, once attached to a map
+    private ExplorationStats exploration;
 
     /**
      * Constructor.
@@ -26,7 +60,16 @@ public class VisitedMap {
      */
     @JsonGetter(value = "visited")
     public SortedMap<Integer, BitSet> visited() {
-        return visitedRows;
+        return rows();
+    }
+
+    private SortedMap<Integer, BitSet> rows() {
+        SortedMap<Integer, BitSet> result = this.visitedRows;
+        if (result == null) {
+            result = new TreeMap<>();
+            this.visitedRows = result;
+        }
+        return result;
     }
 
     /**
@@ -37,12 +80,82 @@ public class VisitedMap {
      * @return {@code true} if the coordinate was not visited before
      */
     public boolean visit(int x, int y) {
-        BitSet row = visitedRows.computeIfAbsent(y, BitSet::new);
+        BitSet row = rows().computeIfAbsent(y, BitSet::new);
         boolean result = row.get(x);
-        row.set(x);
+        if (!result) {
+            row.set(x);
+            countVisit(x, y);
+        }
         return !result;
     }
 
+    /**
+     * Update the exploration statistics for a newly visited coordinate.
+     *
+     * Implementations must call this from {@link #visit(int, int)} when a
+     * coordinate is visited for the first time.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    protected final void countVisit(int x, int y) {
+        if (exploration != null) {
+            exploration.count(x, y);
+        }
+    }
+
+    /**
+     * Get the exploration statistics for a map.
+     *
+     * The first time this is called for a given map the statistics are built
+     * from the visited data in bulk, and after that they are maintained as
+     * coordinates are visited.
+     *
+     * @param map the map this visited data is for
+     * @return the statistics
+     */
+    public ExplorationStats exploration(TerrainMap map) {
+        ExplorationStats result = this.exploration;
+        if (result == null || result.map() != map) {
+            result = ExplorationStats.of(map, this);
+            this.exploration = result;
+        }
+        return result;
+    }
+
+    /**
+     * Call a consumer for every run of consecutive visited coordinates.
+     *
+     * The order the runs are provided in is implementation specific.
+     *
+     * @param out the consumer
+     */
+    public void forEachVisitedRun(VisitedRunConsumer out) {
+        if (visitedRows == null) {
+            return;
+        }
+        for (Map.Entry<Integer, BitSet> e : visitedRows.entrySet()) {
+            final int y = e.getKey();
+            final BitSet row = e.getValue();
+            for (int x = row.nextSetBit(0); x >= 0; ) {
+                final int end = row.nextClearBit(x);
+                out.accept(y, x, end - x);
+                x = row.nextSetBit(end);
+            }
+        }
+    }
+
+    /**
+     * Mark a specific packed map coordinate as visited.
+     *
+     * @param coordinate the packed coordinate
+     * @return {@code true} if the coordinate was not visited before
+     * @see Coordinate#pack(int, int)
+     */
+    public final boolean visit(long coordinate) {
+        return visit(Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
+    }
+
     /**
      * Test if a specific map coordinate has been visited before.
      *
@@ -51,10 +164,21 @@ public class VisitedMap {
      * @return {@code true} if the coordinate has been visited before
      */
     public boolean hasVisited(int x, int y) {
-        BitSet row = visitedRows.get(y);
+        BitSet row = (visitedRows != null ? visitedRows.get(y) : null);
         return (row != null ? row.get(x) : false);
     }
 
+    /**
+     * Test if a specific packed map coordinate has been visited before.
+     *
+     * @param coordinate the packed coordinate
+     * @return {@code true} if the coordinate has been visited before
+     * @see Coordinate#pack(int, int)
+     */
+    public final boolean hasVisited(long coordinate) {
+        return hasVisited(Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
+    }
+
     /**
      * Test if a specific map coordinate has been visited "near by" before.
      *
@@ -63,6 +187,9 @@ public class VisitedMap {
      * @return {@code true} if the coordinate has been visited "near by" before
      */
     public boolean hasVisitedNear(int x, int y) {
+        if (visitedRows == null) {
+            return false;
+        }
         for (int row = Math.max(0, y - 1), maxRow = y + 1; row <= maxRow; row++) {
             BitSet visitedRow = visitedRows.get(row);
             if (visitedRow == null) {
@@ -76,4 +203,34 @@ public class VisitedMap {
         }
         return false;
     }
+
+    /**
+     * Test if a specific packed map coordinate has been visited "near by" before.
+     *
+     * @param coordinate the packed coordinate
+     * @return {@code true} if the coordinate has been visited "near by" before
+     * @see Coordinate#pack(int, int)
+     */
+    public final boolean hasVisitedNear(long coordinate) {
+        return hasVisitedNear(Coordinate.unpackX(coordinate), Coordinate.unpackY(coordinate));
+    }
+
+    /**
+     * Test if any coordinate in a span of a row has been visited "near by"
+     * before.
+     *
+     * @param x     the x coordinate of the start of the span
+     * @param y     the y coordinate
+     * @param width the span width
+     * @return {@code true} if {@link #hasVisitedNear(int, int)} is {@code true}
+     *         for any coordinate in the span
+     */
+    public boolean hasVisitedNearAny(int x, int y, int width) {
+        for (int col = x, maxCol = x + width; col < maxCol; col++) {
+            if (hasVisitedNear(col, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
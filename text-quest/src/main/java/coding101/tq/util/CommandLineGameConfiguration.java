@@ -1,6 +1,7 @@
 package coding101.tq.util;
 
 import coding101.tq.GameConfiguration;
+import coding101.tq.ScrollMode;
 import coding101.tq.TextQuest;
 import coding101.tq.domain.ColorScheme;
 import coding101.tq.domain.PlayerItems;
@@ -54,6 +55,12 @@ public final class CommandLineGameConfiguration {
     /** The main map name CLI option. */
     public static final char OPT_MAIN_MAP_NAME = 'm';
 
+    /** The main map binary file path CLI option. */
+    public static final char OPT_MAIN_MAP_BINARY = 'b';
+
+    /** The main map memory budget CLI option. */
+    public static final char OPT_MAIN_MAP_MEMORY = 'M';
+
     /** The game save file path CLI option. */
     public static final char OPT_SAVE_PATH = 'f';
 
@@ -63,9 +70,18 @@ public final class CommandLineGameConfiguration {
     /** The GUI flag option. */
     public static final char OPT_GUI = 'g';
 
+    /** The map scroll mode CLI option. */
+    public static final char OPT_SCROLL_MODE = 's';
+
+    /** The procedural world seed CLI option. */
+    public static final char OPT_WORLD_SEED = 'w';
+
     /** The experience points option. */
     public static final char OPT_XP = 'x';
 
+    /** The default memory budget for a procedural world, in bytes. */
+    public static final long DEFAULT_WORLD_MEMORY_BUDGET = 64L * 1024L * 1024L;
+
     private CommandLineGameConfiguration() {
         // not available
     }
@@ -147,6 +163,21 @@ public final class CommandLineGameConfiguration {
                 .hasArg()
                 .desc("the main map name to load")
                 .build());
+        options.addOption(Option.builder(String.valueOf(OPT_MAIN_MAP_BINARY))
+                .longOpt("map-binary")
+                .hasArg()
+                .desc("the main map binary file path, memory-mapped instead of loading the map directory")
+                .build());
+        options.addOption(Option.builder(String.valueOf(OPT_MAIN_MAP_MEMORY))
+                .longOpt("map-memory")
+                .hasArg()
+                .desc("load the main map tiles on demand, keeping at most this many MB in memory")
+                .build());
+        options.addOption(Option.builder(String.valueOf(OPT_WORLD_SEED))
+                .longOpt("world-seed")
+                .hasArg()
+                .desc("generate an unbounded main map from this seed, instead of loading a map")
+                .build());
         options.addOption(Option.builder(String.valueOf(OPT_SAVE_PATH))
                 .longOpt("save-file")
                 .hasArg()
@@ -160,6 +191,11 @@ public final class CommandLineGameConfiguration {
                 .longOpt("gui")
                 .desc("use the image texture GUI renderer")
                 .build());
+        options.addOption(Option.builder(String.valueOf(OPT_SCROLL_MODE))
+                .longOpt("scroll")
+                .hasArg()
+                .desc("the map scroll mode: page, center, or dead-zone")
+                .build());
         return options;
     }
 
@@ -179,9 +215,45 @@ public final class CommandLineGameConfiguration {
         if (cl.hasOption(OPT_MAIN_MAP_NAME)) {
             mapName = cl.getOptionValue(OPT_MAIN_MAP_NAME);
         }
+        long memoryBudget = 0;
+        if (cl.hasOption(OPT_MAIN_MAP_MEMORY)) {
+            try {
+                memoryBudget = Long.parseLong(cl.getOptionValue(OPT_MAIN_MAP_MEMORY)) * 1024L * 1024L;
+                if (memoryBudget < 1) {
+                    throw new IllegalArgumentException();
+                }
+            } catch (Exception e) {
+                printErrorAndExit("The --map-memory argument must be a number 1 or more.");
+            }
+        }
+        if (cl.hasOption(OPT_WORLD_SEED)) {
+            long seed = 0;
+            try {
+                seed = Long.parseLong(cl.getOptionValue(OPT_WORLD_SEED));
+            } catch (NumberFormatException e) {
+                printErrorAndExit("The --world-seed argument must be a number.");
+            }
+            return ProceduralWorld.create(
+                    "world-%d".formatted(seed),
+                    seed,
+                    memoryBudget > 0 ? memoryBudget : DEFAULT_WORLD_MEMORY_BUDGET);
+        }
+        if (cl.hasOption(OPT_MAIN_MAP_BINARY)) {
+            String binPath = cl.getOptionValue(OPT_MAIN_MAP_BINARY);
+            try {
+                return TerrainMapBinary.open(Paths.get(binPath), mapName);
+            } catch (IOException e) {
+                printErrorAndExit("Error opening binary map [%s]: %s".formatted(binPath, e.getMessage()));
+                return null;
+            }
+        }
         try {
-            return TerrainMapBuilder.parseResources("%s/%s".formatted(mapPath, mapName))
-                    .build(mapName);
+            if (memoryBudget > 0) {
+                return TerrainMapBuilder.parsePagedResources(
+                        "%s/%s".formatted(mapPath, mapName), mapName, memoryBudget);
+            }
+            return TerrainMapBinary.load(
+                    "%s/%s".formatted(mapPath, mapName), mapName, TerrainMapBuilder.StorageMode.Packed);
         } catch (IllegalArgumentException e) {
             printErrorAndExit(e.getMessage());
             return null;
@@ -349,6 +421,14 @@ public final class CommandLineGameConfiguration {
             config = config.withGui(true);
         }
 
+        if (cl.hasOption(OPT_SCROLL_MODE)) {
+            try {
+                config = config.withScrollMode(ScrollMode.forKey(cl.getOptionValue(OPT_SCROLL_MODE)));
+            } catch (Exception e) {
+                printErrorAndExit("The --scroll argument must be one of page, center, or dead-zone.");
+            }
+        }
+
         return config;
     }
 }
@@ -0,0 +1,223 @@
+package coding101.tq.util;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.PackedTerrainStorage;
+import coding101.tq.domain.PagedTerrainStorage;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Generate terrain procedurally from a seed.
+ *
+ * Terrain is generated from two layers of fractal value noise: an elevation
+ * layer that decides between water, lowland, hills and mountains, and a
+ * moisture layer that decides between grass, forest, sand and lava within
+ * those bands. A small number of chests are scattered over the lowlands. The
+ * same seed always generates the same terrain, at any coordinate, so only the
+ * seed needs to be known to recreate a world.
+ *
+ * Caves and towns are not generated, as they require child maps that do not
+ * exist for a generated world.
+ *
+ * @see #create(String, long, long)
+ */
+public final class ProceduralWorld implements PagedTerrainStorage.TileLoader {
+
+    /** The width and height of the generated tiles. */
+    public static final int TILE_SIZE = 64;
+
+    /** The number of tiles across and down a generated world. */
+    public static final int TILES = Integer.MAX_VALUE / TILE_SIZE;
+
+    /** The default coordinate to start searching for a starting coordinate from. */
+    public static final int DEFAULT_ORIGIN = 1024;
+
+    private static final int ELEVATION_OCTAVES = 5;
+    private static final double ELEVATION_SCALE = 1.0 / 96.0;
+    private static final int MOISTURE_OCTAVES = 3;
+    private static final double MOISTURE_SCALE = 1.0 / 64.0;
+    private static final int CHEST_RARITY = 400;
+
+    private final long seed;
+
+    /**
+     * Constructor.
+     *
+     * @param seed the seed to generate terrain from
+     */
+    public ProceduralWorld(long seed) {
+        super();
+        this.seed = seed;
+    }
+
+    /**
+     * Create a map of generated terrain.
+     *
+     * The map is as large as {@link TerrainMap} coordinates allow, and the
+     * terrain is generated in tiles of {@link #TILE_SIZE} on demand. Tiles are
+     * evicted again as needed to keep the resident terrain within
+     * {@code memoryBudget}, and prefetched tiles are generated in parallel.
+     *
+     * The map {@code start} metadata is set to the first grass coordinate found
+     * near ({@link #DEFAULT_ORIGIN}, {@link #DEFAULT_ORIGIN}).
+     *
+     * @param name         the map name
+     * @param seed         the seed to generate terrain from
+     * @param memoryBudget the maximum number of bytes of terrain to keep
+     *                     resident
+     * @return the map
+     */
+    public static TerrainMap create(String name, long seed, long memoryBudget) {
+        ProceduralWorld world = new ProceduralWorld(seed);
+        PagedTerrainStorage storage = new PagedTerrainStorage(
+                TILE_SIZE,
+                TILE_SIZE,
+                TILES,
+                TILES,
+                PagedTerrainStorage.maxTilesForBudget(TILE_SIZE, TILE_SIZE, memoryBudget),
+                world,
+                ForkJoinPool.commonPool());
+        Map<String, String> metadata = new LinkedHashMap<>(4);
+        Coordinate start = world.findStart(DEFAULT_ORIGIN, DEFAULT_ORIGIN);
+        metadata.put(TerrainMap.START_META, "%d,%d".formatted(start.x(), start.y()));
+        return new TerrainMap(name, storage, metadata, TILE_SIZE, TILE_SIZE);
+    }
+
+    @Override
+    public boolean loadTile(int tileX, int tileY, PackedTerrainStorage dest) {
+        final int originX = tileX * TILE_SIZE;
+        final int originY = tileY * TILE_SIZE;
+        for (int y = 0, height = dest.height(); y < height; y++) {
+            for (int x = 0, width = dest.width(); x < width; x++) {
+                dest.set(x, y, terrainAt(originX + x, originY + y));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generate the terrain at a specific coordinate.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the terrain type, never {@code null}
+     */
+    public TerrainType terrainAt(int x, int y) {
+        final double e = fractalNoise(seed, x * ELEVATION_SCALE, y * ELEVATION_SCALE, ELEVATION_OCTAVES);
+        final double m = fractalNoise(~seed, x * MOISTURE_SCALE, y * MOISTURE_SCALE, MOISTURE_OCTAVES);
+        if (e < 0.42) {
+            return TerrainType.Water;
+        } else if (e < 0.45) {
+            return TerrainType.Sand;
+        } else if (e < 0.60) {
+            if (Math.floorMod(hash(seed + 1, x, y), CHEST_RARITY) == 0) {
+                return TerrainType.Chest;
+            }
+            if (m < 0.3) {
+                return TerrainType.Sand;
+            }
+            return (m > 0.55 ? TerrainType.Forest : TerrainType.Grass);
+        } else if (e < 0.66) {
+            return TerrainType.Hill;
+        } else if (e < 0.72 || m > 0.4) {
+            return TerrainType.Mountain;
+        }
+        return (e < 0.75 ? TerrainType.LavaRock : TerrainType.Lava);
+    }
+
+    /**
+     * Find the grass coordinate closest to a coordinate.
+     *
+     * @param x the x coordinate to search from
+     * @param y the y coordinate to search from
+     * @return the closest grass coordinate found, or the given coordinate if none
+     *         found nearby
+     */
+    public Coordinate findStart(int x, int y) {
+        // search in expanding square rings around x,y
+        for (int r = 0; r < 1024; r++) {
+            for (int dy = -r; dy <= r; dy++) {
+                for (int dx = -r; dx <= r; dx++) {
+                    if (Math.abs(dx) != r && Math.abs(dy) != r) {
+                        continue;
+                    }
+                    if (terrainAt(x + dx, y + dy) == TerrainType.Grass) {
+                        return new Coordinate(x + dx, y + dy);
+                    }
+                }
+            }
+        }
+        return new Coordinate(x, y);
+    }
+
+    /**
+     * Sum octaves of value noise.
+     *
+     * @param seed    the seed
+     * @param x       the x coordinate, scaled to the first octave frequency
+     * @param y       the y coordinate, scaled to the first octave frequency
+     * @param octaves the number of octaves
+     * @return the noise value, between {@code 0} and {@code 1}
+     */
+    private static double fractalNoise(long seed, double x, double y, int octaves) {
+        double sum = 0;
+        double amplitude = 1;
+        double total = 0;
+        for (int i = 0; i < octaves; i++) {
+            sum += valueNoise(seed + i, x, y) * amplitude;
+            total += amplitude;
+            amplitude *= 0.5;
+            x *= 2;
+            y *= 2;
+        }
+        return sum / total;
+    }
+
+    /**
+     * Smoothly interpolate between random values at integer lattice points.
+     *
+     * @param seed the seed
+     * @param x    the x coordinate
+     * @param y    the y coordinate
+     * @return the noise value, between {@code 0} and {@code 1}
+     */
+    private static double valueNoise(long seed, double x, double y) {
+        final long x0 = (long) Math.floor(x);
+        final long y0 = (long) Math.floor(y);
+        final double fx = smooth(x - x0);
+        final double fy = smooth(y - y0);
+        final double v00 = lattice(seed, x0, y0);
+        final double v10 = lattice(seed, x0 + 1, y0);
+        final double v01 = lattice(seed, x0, y0 + 1);
+        final double v11 = lattice(seed, x0 + 1, y0 + 1);
+        final double top = v00 + (v10 - v00) * fx;
+        final double bottom = v01 + (v11 - v01) * fx;
+        return top + (bottom - top) * fy;
+    }
+
+    private static double smooth(double t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static double lattice(long seed, long x, long y) {
+        return (hash(seed, x, y) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Hash a coordinate, using the SplitMix64 finalizer.
+     *
+     * @param seed the seed
+     * @param x    the x coordinate
+     * @param y    the y coordinate
+     * @return the hash
+     */
+    private static long hash(long seed, long x, long y) {
+        long h = seed ^ (x * 0x9E3779B97F4A7C15L) ^ (y * 0xC2B2AE3D27D4EB4FL);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,182 @@
+package coding101.tq.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import coding101.tq.domain.PackedTerrainStorage;
+import coding101.tq.domain.TerrainType;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+/**
+ * Byte-level parser for {@code US_ASCII} encoded terrain data.
+ *
+ * This parser produces the same results as
+ * {@link TerrainMapBuilder#parseTerrainData(java.io.BufferedReader, Map)}, but
+ * works directly on the raw bytes of the data rather than decoding each line
+ * into a string. Terrain characters are mapped to terrain types with a lookup
+ * table, rather than a per-character {@code switch}.
+ *
+ * Lines are terminated by {@code \n}, {@code \r} or {@code \r\n}. Blank lines
+ * or those staring with {@literal #} are ignored, except for metadata lines
+ * that match {@link TerrainMapBuilder#METADATA_REGEX}.
+ */
+public final class TerrainDataParser {
+
+    /**
+     * API for handling the rows of terrain found by the parser.
+     */
+    @FunctionalInterface
+    public static interface RowHandler {
+
+        /**
+         * Handle a row of terrain.
+         *
+         * @param row    the 0-based row index, counting only terrain rows
+         * @param buf    the buffer holding the terrain data
+         * @param start  the index of the first terrain character of the row in
+         *               {@code buf}
+         * @param length the number of terrain characters in the row
+         */
+        void row(int row, ByteBuffer buf, int start, int length);
+    }
+
+    /** A lookup table of US-ASCII terrain keys to associated terrain types. */
+    private static final TerrainType[] TERRAIN_LOOKUP = new TerrainType[128];
+
+    static {
+        for (int i = 0; i < TERRAIN_LOOKUP.length; i++) {
+            TERRAIN_LOOKUP[i] = TerrainType.forKey((char) i);
+        }
+    }
+
+    private TerrainDataParser() {
+        // not available
+    }
+
+    /**
+     * Get the terrain type for a US-ASCII terrain key.
+     *
+     * Any unsupported key will be mapped to {@code Empty}, the same as
+     * {@link TerrainType#forKey(char)}.
+     *
+     * @param key the key
+     * @return the terrain type
+     */
+    public static TerrainType terrainFor(byte key) {
+        return key >= 0 ? TERRAIN_LOOKUP[key] : TerrainType.Empty;
+    }
+
+    /**
+     * Parse terrain data into a 2D array of rows.
+     *
+     * @param buf      the data to parse, from its position to its limit
+     * @param metadata the metadata map to populate with any extracted metadata
+     * @return the terrain data
+     */
+    public static TerrainType[][] parseTerrainData(ByteBuffer buf, Map<String, String> metadata) {
+        final List<TerrainType[]> rows = new ArrayList<>(64);
+        parse(buf, metadata, (row, b, start, length) -> {
+            TerrainType[] r = new TerrainType[length];
+            for (int i = 0; i < length; i++) {
+                r[i] = terrainFor(b.get(start + i));
+            }
+            rows.add(r);
+        });
+        return rows.toArray(TerrainType[][]::new);
+    }
+
+    /**
+     * Parse terrain data directly into packed terrain storage.
+     *
+     * Terrain that falls outside the bounds of {@code dest} is ignored.
+     *
+     * @param buf      the data to parse, from its position to its limit
+     * @param metadata the metadata map to populate with any extracted metadata
+     * @param dest     the storage to write the terrain to
+     * @param x        the x coordinate in {@code dest} to write the first column
+     *                 of terrain to
+     * @param y        the y coordinate in {@code dest} to write the first row of
+     *                 terrain to
+     * @return the number of terrain rows parsed
+     */
+    public static int parseTerrainData(
+            ByteBuffer buf, Map<String, String> metadata, PackedTerrainStorage dest, int x, int y) {
+        final int maxCols = dest.width() - x;
+        final int maxRows = dest.height() - y;
+        return parse(buf, metadata, (row, b, start, length) -> {
+            if (row < maxRows) {
+                for (int i = 0, len = Math.min(length, maxCols); i < len; i++) {
+                    dest.set(x + i, y + row, terrainFor(b.get(start + i)));
+                }
+            }
+        });
+    }
+
+    /**
+     * Parse terrain data, passing each row of terrain to a handler.
+     *
+     * @param buf      the data to parse, from its position to its limit
+     * @param metadata the metadata map to populate with any extracted metadata
+     * @param handler  the handler to pass each row of terrain to
+     * @return the number of terrain rows parsed
+     */
+    public static int parse(ByteBuffer buf, Map<String, String> metadata, RowHandler handler) {
+        final int limit = buf.limit();
+        int rows = 0;
+        int pos = buf.position();
+        while (pos < limit) {
+            // find end of line
+            final int start = pos;
+            int end = start;
+            while (end < limit) {
+                byte b = buf.get(end);
+                if (b == '\n' || b == '\r') {
+                    break;
+                }
+                end++;
+            }
+
+            // skip line terminator, treating \r\n as a single terminator
+            pos = end + 1;
+            if (end < limit && buf.get(end) == '\r' && pos < limit && buf.get(pos) == '\n') {
+                pos++;
+            }
+
+            if (isBlank(buf, start, end)) {
+                // skip blank line
+                continue;
+            } else if (buf.get(start) == '#') {
+                if (end - start > 1 && buf.get(start + 1) == '-') {
+                    parseMetadataLine(buf, start, end, metadata);
+                }
+                continue;
+            }
+            handler.row(rows++, buf, start, end - start);
+        }
+        buf.position(limit);
+        return rows;
+    }
+
+    private static boolean isBlank(ByteBuffer buf, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(buf.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void parseMetadataLine(ByteBuffer buf, int start, int end, Map<String, String> metadata) {
+        byte[] data = new byte[end - start];
+        buf.get(start, data);
+        Matcher m = TerrainMapBuilder.METADATA_REGEX.matcher(new String(data, US_ASCII));
+        if (m.matches()) {
+            String key = m.group(1).toLowerCase();
+            String val = m.group(2).trim();
+            metadata.put(key, val);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package coding101.tq.util;
+
+import coding101.tq.domain.MappedTerrainStorage;
+import coding101.tq.domain.PackedTerrainStorage;
+import coding101.tq.domain.RunLengthTerrainStorage;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainStorage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+/**
+ * Support for the binary {@code .tqbin} map format.
+ *
+ * The format starts with a header, followed by the raw terrain data. The
+ * header is encoded like this (all numbers are big-endian):
+ *
+ * <ol>
+ * <li>the magic number {@code TQBN} (4 bytes)</li>
+ * <li>the format version (2 bytes)</li>
+ * <li>the header length, which is also the offset of the terrain data (4
+ * bytes)</li>
+ * <li>the map width and height (4 bytes each)</li>
+ * <li>the tile width and height the map was built from (4 bytes each)</li>
+ * <li>the number of metadata entries (4 bytes)</li>
+ * <li>each metadata key and value, encoded like
+ * {@link DataOutputStream#writeUTF(String)}</li>
+ * </ol>
+ *
+ * The terrain data is one byte per coordinate in row-major order, using the
+ * same encoding as {@link PackedTerrainStorage}. A map opened with
+ * {@link #open(Path, String)} is memory-mapped, so it opens quickly regardless
+ * of its size and the terrain is paged in as it is accessed.
+ */
+public final class TerrainMapBinary {
+
+    /** The binary map file name extension. */
+    public static final String FILE_EXTENSION = ".tqbin";
+
+    /** The magic number at the start of every binary map file. */
+    public static final int MAGIC = 0x5451424E;
+
+    /** The current format version. */
+    public static final short VERSION = 1;
+
+    /** The maximum header length accepted when reading a binary map. */
+    public static final int MAX_HEADER_LENGTH = 1024 * 1024;
+
+    /**
+     * The binary map header.
+     *
+     * @param width      the map width
+     * @param height     the map height
+     * @param tileWidth  the width of the tiles the map was built from
+     * @param tileHeight the height of the tiles the map was built from
+     * @param metadata   the map metadata
+     * @param dataOffset the offset of the terrain data from the start of the file
+     */
+    public static record Header(
+            int width, int height, int tileWidth, int tileHeight, Map<String, String> metadata, int dataOffset) {}
+
+    private TerrainMapBinary() {
+        // not available
+    }
+
+    /**
+     * Get the binary map path for a map directory.
+     *
+     * The binary map for a directory like {@code maps/main} is a sibling file
+     * named {@code maps/main.tqbin}. The path is resolved against the working
+     * directory, so this only finds binary maps on the file system; use
+     * {@link #open(Path, String)} to memory-map a binary map at any other
+     * location.
+     *
+     * @param directoryName the map directory
+     * @return the path
+     */
+    public static Path binaryPath(String directoryName) {
+        return Path.of(directoryName + FILE_EXTENSION);
+    }
+
+    /**
+     * Load a map, preferring a binary map file if one is available.
+     *
+     * If a {@link #binaryPath(String)} file exists for the given directory it
+     * will be memory-mapped. Otherwise if a classpath resource with the same path
+     * exists, such as those compiled by {@link TerrainMapIndex} at build time, it
+     * will be read with {@link #read(InputStream, String)}. Otherwise the tile
+     * resources in the directory will be parsed with
+     * {@link TerrainMapBuilder#parseResources(String)}.
+     *
+     * @param directoryName the map directory
+     * @param name          the map name
+     * @param storageMode   the storage mode to use if the map is not memory-mapped;
+     *                      a classpath binary map is read into packed storage
+     *                      unless {@code RunLength} is requested
+     * @return the map
+     * @throws IllegalArgumentException if the map cannot be loaded
+     */
+    public static TerrainMap load(String directoryName, String name, TerrainMapBuilder.StorageMode storageMode) {
+        Path bin = binaryPath(directoryName);
+        if (Files.isRegularFile(bin)) {
+            try {
+                return open(bin, name);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(
+                        "Error opening binary map [%s]: %s".formatted(bin, e.getMessage()), e);
+            }
+        }
+        String resource = directoryName + FILE_EXTENSION;
+        try (InputStream in = TerrainMapBinary.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in != null) {
+                TerrainMap map = read(new BufferedInputStream(in), name);
+                if (storageMode == TerrainMapBuilder.StorageMode.RunLength) {
+                    map = new TerrainMap(
+                            name,
+                            RunLengthTerrainStorage.of(map.storage()),
+                            map.metadata(),
+                            map.tileWidth(),
+                            map.tileHeight());
+                }
+                return map;
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(
+                    "Error reading binary map [%s]: %s".formatted(resource, e.getMessage()), e);
+        }
+        return TerrainMapBuilder.parseResources(directoryName)
+                .withStorageMode(storageMode)
+                .build(name);
+    }
+
+    /**
+     * Open a binary map file.
+     *
+     * @param path the path of the file to open
+     * @param name the map name
+     * @return the map
+     * @throws IOException if the file is not a valid binary map or any other I/O
+     *                     error occurs
+     */
+    public static TerrainMap open(Path path, String name) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            TerrainStorage storage =
+                    new MappedTerrainStorage(channel, header.dataOffset(), header.width(), header.height());
+            return new TerrainMap(name, storage, header.metadata(), header.tileWidth(), header.tileHeight());
+        }
+    }
+
+    /**
+     * Read the header of a binary map file.
+     *
+     * @param channel the channel to read from, positioned at the start of the
+     *                file
+     * @return the header
+     * @throws IOException if the file is not a valid binary map or any other I/O
+     *                     error occurs
+     */
+    public static Header readHeader(FileChannel channel) throws IOException {
+        // the channel is not closed here, so the caller can continue to use it
+        return readHeader(new DataInputStream(Channels.newInputStream(channel)));
+    }
+
+    private static Header readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary map file.");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary map version %d.".formatted(version));
+        }
+        int headerLength = in.readInt();
+        if (headerLength < 10 || headerLength > MAX_HEADER_LENGTH) {
+            throw new IOException("Invalid binary map header length %d.".formatted(headerLength));
+        }
+        byte[] buf = new byte[headerLength - 10];
+        in.readFully(buf);
+        try (DataInputStream h = new DataInputStream(new ByteArrayInputStream(buf))) {
+            int width = h.readInt();
+            int height = h.readInt();
+            int tileWidth = h.readInt();
+            int tileHeight = h.readInt();
+            int metaCount = h.readInt();
+
+            // each entry is at least a 2 byte key length and a 2 byte value length
+            if (metaCount < 0 || metaCount > h.available() / 4) {
+                throw new IOException("Invalid binary map metadata count %d.".formatted(metaCount));
+            }
+            Map<String, String> metadata = new LinkedHashMap<>(Math.max(4, metaCount));
+            for (int i = 0; i < metaCount; i++) {
+                String key = h.readUTF();
+                metadata.put(key, h.readUTF());
+            }
+            return new Header(width, height, tileWidth, tileHeight, metadata, headerLength);
+        }
+    }
+
+    /**
+     * Read a binary map from a stream.
+     *
+     * Unlike {@link #open(Path, String)} the terrain is read fully into memory,
+     * so this can be used for binary maps that are not available as files, such
+     * as classpath resources within a JAR.
+     *
+     * @param in   the stream to read from, positioned at the start of the binary
+     *             map
+     * @param name the map name
+     * @return the map
+     * @throws IOException if the data is not a valid binary map or any other I/O
+     *                     error occurs
+     */
+    public static TerrainMap read(InputStream in, String name) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        Header header = readHeader(data);
+        PackedTerrainStorage storage = new PackedTerrainStorage(header.width(), header.height());
+        final byte[] row = new byte[header.width()];
+        for (int y = 0, height = header.height(); y < height; y++) {
+            data.readFully(row);
+            try {
+                storage.setRow(0, y, row, 0, row.length);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid binary map terrain in row %d: %s".formatted(y, e.getMessage()), e);
+            }
+        }
+        return new TerrainMap(name, storage, header.metadata(), header.tileWidth(), header.tileHeight());
+    }
+
+    /**
+     * Write a map as a binary map file.
+     *
+     * @param map        the map to write
+     * @param tileWidth  the width of the tiles the map was built from
+     * @param tileHeight the height of the tiles the map was built from
+     * @param path       the path to write to
+     * @throws IOException if any I/O error occurs
+     */
+    public static void write(TerrainMap map, int tileWidth, int tileHeight, Path path) throws IOException {
+        // write to temp file, then move, to prevent broken data on failed write
+        Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), "map-", FILE_EXTENSION);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            write(map, tileWidth, tileHeight, out);
+            out.close();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Write a map in the binary map format.
+     *
+     * @param map        the map to write
+     * @param tileWidth  the width of the tiles the map was built from
+     * @param tileHeight the height of the tiles the map was built from
+     * @param out        the destination to write to
+     * @throws IOException if any I/O error occurs
+     */
+    public static void write(TerrainMap map, int tileWidth, int tileHeight, OutputStream out) throws IOException {
+        Objects.requireNonNull(map);
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream h = new DataOutputStream(headerBytes)) {
+            h.writeInt(map.width());
+            h.writeInt(map.height());
+            h.writeInt(tileWidth);
+            h.writeInt(tileHeight);
+            h.writeInt(map.metadata().size());
+            for (Entry<String, String> e : map.metadata().entrySet()) {
+                h.writeUTF(e.getKey());
+                h.writeUTF(e.getValue());
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(10 + headerBytes.size());
+        headerBytes.writeTo(data);
+
+        final TerrainStorage terrain = map.storage();
+        final byte[] row = new byte[map.width()];
+        for (int y = 0, height = map.height(); y < height; y++) {
+            for (int x = 0; x < row.length; x++) {
+                row[x] = PackedTerrainStorage.encode(terrain.terrainAt(x, y));
+            }
+            data.write(row);
+        }
+        data.flush();
+    }
+
+    /**
+     * Convert a directory of map tiles into a binary map file.
+     *
+     * @param args the map directory and the output file path
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: TerrainMapBinary <map directory> <output file>");
+            System.exit(1);
+        }
+        TerrainMapBuilder b = TerrainMapBuilder.parseResources(args[0]);
+        TerrainMap map = b.withStorageMode(TerrainMapBuilder.StorageMode.Packed)
+                .build(Path.of(args[0]).getFileName().toString());
+        try {
+            write(map, b.getTileWidth(), b.getTileHeight(), Path.of(args[1]));
+        } catch (IOException e) {
+            System.err.println("Error writing binary map [%s]: %s".formatted(args[1], e.getMessage()));
+            System.exit(1);
+        }
+    }
+}
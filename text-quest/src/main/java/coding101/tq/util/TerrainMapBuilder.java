@@ -1,8 +1,15 @@
 package coding101.tq.util;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.stream.Collectors.groupingBy;
 
+import coding101.tq.domain.ArrayTerrainStorage;
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.PackedTerrainStorage;
+import coding101.tq.domain.PagedTerrainStorage;
+import coding101.tq.domain.RunLengthTerrainStorage;
 import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainStorage;
 import coding101.tq.domain.TerrainType;
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.Resource;
@@ -11,18 +18,24 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.SortedMap;
 import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -157,9 +170,24 @@ public class TerrainMapBuilder {
      * This pattern expects the name to follow the pattern <code>X,Y.tqmap</code>,
      * where {@code X} and {@code Y} are integer numbers.
      */
-    public static final Pattern RESOURCE_NAME_REGEX = Pattern.compile(".*(\\d+),(\\d+).tqmap");
+    public static final Pattern RESOURCE_NAME_REGEX = Pattern.compile(".*?(\\d+),(\\d+)\\.tqmap");
 
-    private SortedSet<Tile> tiles = new TreeSet<>();
+    /**
+     * The supported terrain storage modes.
+     */
+    public static enum StorageMode {
+        /** Store terrain as a 2D array of rows, via {@link ArrayTerrainStorage}. */
+        Array,
+
+        /** Store terrain as one byte per coordinate, via {@link PackedTerrainStorage}. */
+        Packed,
+
+        /** Store terrain as runs within each row, via {@link RunLengthTerrainStorage}. */
+        RunLength,
+    }
+
+    private final SortedSet<Tile> tiles = new ConcurrentSkipListSet<>();
+    private StorageMode storageMode = StorageMode.Array;
 
     /**
      * Constructor.
@@ -177,9 +205,29 @@ public class TerrainMapBuilder {
         return tiles.size();
     }
 
+    /**
+     * Get the width of the loaded tiles.
+     *
+     * @return the tile width, or {@code 0} if no tiles have been loaded
+     */
+    public int getTileWidth() {
+        return tiles.isEmpty() ? 0 : tiles.first().getWidth();
+    }
+
+    /**
+     * Get the height of the loaded tiles.
+     *
+     * @return the tile height, or {@code 0} if no tiles have been loaded
+     */
+    public int getTileHeight() {
+        return tiles.isEmpty() ? 0 : tiles.first().getHeight();
+    }
+
     /**
      * Add a tile.
      *
+     * This method is thread-safe.
+     *
      * @param tile the tile to add
      * @return this instance
      */
@@ -188,6 +236,18 @@ public class TerrainMapBuilder {
         return this;
     }
 
+    /**
+     * Set the storage mode to use for built maps.
+     *
+     * @param storageMode the storage mode to set
+     * @return this instance
+     * @throws IllegalArgumentException if {@code storageMode} is {@literal null}
+     */
+    public TerrainMapBuilder withStorageMode(StorageMode storageMode) {
+        this.storageMode = Objects.requireNonNull(storageMode);
+        return this;
+    }
+
     /**
      * Build a {@link TerrainMap} from the loaded tiles.
      *
@@ -223,60 +283,123 @@ public class TerrainMapBuilder {
             }
         }
 
-        TerrainType[][] terrain = new TerrainType[rows][];
         Map<String, String> metadata = new LinkedHashMap<>(4);
         for (Tile t : tiles) {
             metadata.putAll(t.getMetadata());
-            for (int row = 0, len = t.getHeight(); row < len; row++) {
-                int destRow = t.y * tileHeight + row;
-                if (terrain[destRow] == null) {
-                    terrain[destRow] = new TerrainType[cols];
+        }
+
+        TerrainStorage storage =
+                switch (storageMode) {
+                    case Array -> buildArrayStorage(rows, cols, tileWidth, tileHeight);
+                    case Packed -> buildPackedStorage(rows, cols, tileWidth, tileHeight);
+                    case RunLength -> RunLengthTerrainStorage.of(
+                            buildPackedStorage(rows, cols, tileWidth, tileHeight));
+                };
+
+        return new TerrainMap(name, storage, metadata, tileWidth, tileHeight);
+    }
+
+    /**
+     * Get the tiles grouped into bands of tiles that share the same rows.
+     *
+     * Each band covers a distinct set of rows, so bands can be copied into the
+     * terrain storage in parallel.
+     *
+     * @return the tile bands
+     */
+    private Collection<List<Tile>> tileRowBands() {
+        return tiles.stream().collect(groupingBy(Tile::getY)).values();
+    }
+
+    private TerrainStorage buildArrayStorage(int rows, int cols, int tileWidth, int tileHeight) {
+        TerrainType[][] terrain = new TerrainType[rows][];
+        tileRowBands().parallelStream().forEach(band -> {
+            for (Tile t : band) {
+                for (int row = 0, len = t.getHeight(); row < len; row++) {
+                    int destRow = t.y * tileHeight + row;
+                    if (terrain[destRow] == null) {
+                        terrain[destRow] = new TerrainType[cols];
+                    }
+                    System.arraycopy(
+                            t.terrain[row],
+                            0,
+                            terrain[destRow],
+                            t.x * tileWidth,
+                            Math.min(t.terrain[row].length, tileWidth));
                 }
-                System.arraycopy(
-                        t.terrain[row],
-                        0,
-                        terrain[destRow],
-                        t.x * tileWidth,
-                        Math.min(t.terrain[row].length, tileWidth));
             }
-        }
+        });
+        return new ArrayTerrainStorage(terrain);
+    }
 
-        return new TerrainMap(name, terrain, metadata);
+    private TerrainStorage buildPackedStorage(int rows, int cols, int tileWidth, int tileHeight) {
+        PackedTerrainStorage terrain = new PackedTerrainStorage(cols, rows);
+        tileRowBands().parallelStream().forEach(band -> {
+            for (Tile t : band) {
+                for (int row = 0, len = t.getHeight(); row < len; row++) {
+                    terrain.setRow(
+                            t.x * tileWidth,
+                            t.y * tileHeight + row,
+                            t.terrain[row],
+                            0,
+                            Math.min(t.terrain[row].length, tileWidth));
+                }
+            }
+        });
+        return terrain;
     }
 
     /**
      * Parse all tile resources in a directory.
      *
+     * The tile resources are parsed in parallel.
+     *
      * @param directoryName the directory to scan and parse all tile resources from
      * @return the builder
      * @throws IllegalArgumentException if the resource cannot be parsed
      */
     public static TerrainMapBuilder parseResources(String directoryName) {
         TerrainMapBuilder b = new TerrainMapBuilder();
-        try (ScanResult scanResult = new ClassGraph().acceptPaths(directoryName).scan()) {
-            scanResult.getResourcesMatchingPattern(RESOURCE_NAME_REGEX).forEach((Resource res) -> {
-                try (InputStream in = res.open()) {
-                    b.addTile(parseTileResource(res.getPath(), in));
-                } catch (IOException e) {
-                    throw new IllegalArgumentException(
-                            "Error parsing resource [%s]: %s".formatted(res.getPath(), e.getMessage()), e);
-                }
-            });
+        tileResources(directoryName).parallelStream()
+                .map(TerrainMapBuilder::parseTileResource)
+                .forEach(b::addTile);
+        return b;
+    }
+
+    /**
+     * Find all tile resources in a directory.
+     *
+     * Classpath resources are searched first, using the {@link TerrainMapIndex}
+     * if available or scanning the classpath otherwise, falling back to file paths
+     * if no classpath resources are found. Only resources directly within the
+     * directory are returned, not those in nested directories.
+     *
+     * @param directoryName the directory to scan for tile resources
+     * @return the tile resource paths, never empty
+     * @throws IllegalArgumentException if no tile resources are found
+     */
+    private static List<String> tileResources(String directoryName) {
+        final List<String> result = new ArrayList<>(16);
+        final Path dir = Path.of(directoryName);
+        final List<String> indexed = TerrainMapIndex.tileResources(directoryName);
+        if (indexed != null) {
+            result.addAll(indexed);
+        } else {
+            try (ScanResult scanResult = new ClassGraph().acceptPaths(directoryName).scan()) {
+                scanResult.getResourcesMatchingPattern(RESOURCE_NAME_REGEX).forEach((Resource res) -> {
+                    if (dir.equals(Path.of(res.getPath()).getParent())) {
+                        result.add(res.getPath());
+                    }
+                });
+            }
         }
-        if (b.getSize() < 1) {
+        if (result.isEmpty()) {
             // try loading file paths
-            try (DirectoryStream<Path> s = Files.newDirectoryStream(Path.of(directoryName), (Path p) -> {
+            try (DirectoryStream<Path> s = Files.newDirectoryStream(dir, (Path p) -> {
                 Matcher m = RESOURCE_NAME_REGEX.matcher(p.getFileName().toString());
                 return m.find();
             })) {
-                s.forEach(p -> {
-                    try (InputStream in = Files.newInputStream(p)) {
-                        b.addTile(parseTileResource(p.toString(), in));
-                    } catch (IOException e) {
-                        throw new IllegalArgumentException(
-                                "Error parsing resource [%s]: %s".formatted(p, e.getMessage()), e);
-                    }
-                });
+                s.forEach(p -> result.add(p.toString()));
             } catch (NoSuchFileException e) {
                 throw new IllegalArgumentException("Map directory [%s] not found!".formatted(directoryName));
             } catch (IOException e) {
@@ -284,11 +407,97 @@ public class TerrainMapBuilder {
                         "Error loading tile files from directory [%s]: %s".formatted(directoryName, e.getMessage()), e);
             }
         }
-        if (b.getSize() < 1) {
+        if (result.isEmpty()) {
             throw new IllegalArgumentException(
                     "Map directory [%s] does not contain any map tile files!".formatted(directoryName));
         }
-        return b;
+        return result;
+    }
+
+    /**
+     * Create a {@link TerrainMap} that loads the tile resources in a directory on
+     * demand.
+     *
+     * Only the metadata of each tile resource is parsed by this method. The
+     * terrain of each tile is parsed when it is first accessed, and tiles are
+     * evicted again as needed to keep the resident terrain within
+     * {@code memoryBudget}.
+     *
+     * @param directoryName the directory to scan for tile resources
+     * @param name          the map name
+     * @param memoryBudget  the maximum number of bytes of terrain to keep
+     *                      resident
+     * @return the map
+     * @throws IllegalArgumentException if the resources cannot be parsed
+     * @see PagedTerrainStorage
+     */
+    public static TerrainMap parsePagedResources(String directoryName, String name, long memoryBudget) {
+        // find all tile resources, ordered like Tile so metadata is merged the same
+        final SortedMap<Coordinate, String> resources =
+                new TreeMap<>(Comparator.comparingInt(Coordinate::y).thenComparingInt(Coordinate::x));
+        for (String resource : tileResources(directoryName)) {
+            resources.put(tileCoordinate(Path.of(resource)), resource);
+        }
+
+        int tilesWide = 0;
+        int tilesHigh = 0;
+        Map<String, String> metadata = new LinkedHashMap<>(4);
+        for (Map.Entry<Coordinate, String> e : resources.entrySet()) {
+            tilesWide = Math.max(tilesWide, e.getKey().x() + 1);
+            tilesHigh = Math.max(tilesHigh, e.getKey().y() + 1);
+            try (BufferedReader r =
+                    new BufferedReader(new InputStreamReader(openResource(e.getValue()), US_ASCII))) {
+                parseMetadata(r, metadata);
+            } catch (IOException ex) {
+                throw new IllegalArgumentException(
+                        "Error reading resource [%s]: %s".formatted(e.getValue(), ex.getMessage()), ex);
+            }
+        }
+
+        // assume all tiles are the same size as the first
+        final Tile first = parseTileResource(resources.get(resources.firstKey()));
+        final int tileWidth = first.getWidth();
+        final int tileHeight = first.getHeight();
+
+        PagedTerrainStorage storage = new PagedTerrainStorage(
+                tileWidth,
+                tileHeight,
+                tilesWide,
+                tilesHigh,
+                PagedTerrainStorage.maxTilesForBudget(tileWidth, tileHeight, memoryBudget),
+                (tileX, tileY, dest) -> {
+                    String resource = resources.get(new Coordinate(tileX, tileY));
+                    if (resource == null) {
+                        return false;
+                    }
+                    try (InputStream in = openResource(resource)) {
+                        TerrainDataParser.parseTerrainData(
+                                ByteBuffer.wrap(in.readAllBytes()), new HashMap<>(4), dest, 0, 0);
+                    } catch (IOException e) {
+                        throw new IllegalArgumentException(
+                                "Error reading resource [%s]: %s".formatted(resource, e.getMessage()), e);
+                    }
+                    return true;
+                });
+        return new TerrainMap(name, storage, metadata, tileWidth, tileHeight);
+    }
+
+    private static Coordinate tileCoordinate(Path path) {
+        Matcher m = RESOURCE_NAME_REGEX.matcher(path.getFileName().toString());
+        if (!m.find()) {
+            throw new IllegalArgumentException("Resource must match 'X,Y.tqmap' pattern.");
+        }
+        return new Coordinate(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+    }
+
+    private static InputStream openResource(String resource) throws IOException {
+        // first try classpath resource
+        InputStream in = TerrainMapBuilder.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            // resource not found; try as file path
+            in = Files.newInputStream(Paths.get(resource));
+        }
+        return in;
     }
 
     /**
@@ -300,16 +509,8 @@ public class TerrainMapBuilder {
      * @throws IllegalArgumentException if the resource cannot be parsed
      */
     public static Tile parseTileResource(String resource) {
-        // first try classpath resource
-        try {
-            try (InputStream in = TerrainMapBuilder.class.getClassLoader().getResourceAsStream(resource)) {
-                return parseTileResource(resource, in);
-            } catch (NullPointerException e) {
-                // resource not found; try as file path
-                try (InputStream in2 = Files.newInputStream(Paths.get(resource))) {
-                    return parseTileResource(resource, in2);
-                }
-            }
+        try (InputStream in = openResource(resource)) {
+            return parseTileResource(resource, in);
         } catch (IOException e) {
             throw new IllegalArgumentException(
                     "Error reading resource [%s]: %s".formatted(resource, e.getMessage(), e));
@@ -335,9 +536,8 @@ public class TerrainMapBuilder {
         TerrainType[][] data = null;
         Map<String, String> metadata = new LinkedHashMap<>(4);
 
-        // first try classpath resource
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(in, US_ASCII))) {
-            data = parseTerrainData(r, metadata);
+        try {
+            data = TerrainDataParser.parseTerrainData(ByteBuffer.wrap(in.readAllBytes()), metadata);
         } catch (IOException e) {
             throw new IllegalArgumentException(
                     "Error reading resource [%s]: %s".formatted(resource, e.getMessage(), e));
@@ -370,15 +570,7 @@ public class TerrainMapBuilder {
                 // skip blank line
                 continue;
             } else if (line.charAt(0) == '#') {
-                if (line.length() > 1 && line.charAt(1) == '-') {
-                    // metadata line
-                    Matcher m = METADATA_REGEX.matcher(line);
-                    if (m.matches()) {
-                        String key = m.group(1).toLowerCase();
-                        String val = m.group(2).trim();
-                        metadata.put(key, val);
-                    }
-                }
+                parseMetadataLine(line, metadata);
                 continue;
             }
             // since we assume the data is US_ASCII, the string length is our row length
@@ -390,4 +582,39 @@ public class TerrainMapBuilder {
         }
         return rows.toArray(TerrainType[][]::new);
     }
+
+    /**
+     * Parse the metadata from {@code US_ASCII} encoded terrain data.
+     *
+     * Only the comment lines before the first line of terrain are parsed.
+     *
+     * @param r        the resource to parse
+     * @param metadata the metadata map to populate with any extracted metadata
+     * @throws IOException if any I/O error occurs
+     */
+    public static void parseMetadata(BufferedReader r, Map<String, String> metadata) throws IOException {
+        String line = null;
+        while ((line = r.readLine()) != null) {
+            if (line.isBlank()) {
+                // skip blank line
+                continue;
+            } else if (line.charAt(0) != '#') {
+                // reached the terrain
+                return;
+            }
+            parseMetadataLine(line, metadata);
+        }
+    }
+
+    private static void parseMetadataLine(String line, Map<String, String> metadata) {
+        if (line.length() > 1 && line.charAt(1) == '-') {
+            // metadata line
+            Matcher m = METADATA_REGEX.matcher(line);
+            if (m.matches()) {
+                String key = m.group(1).toLowerCase();
+                String val = m.group(2).trim();
+                metadata.put(key, val);
+            }
+        }
+    }
 }
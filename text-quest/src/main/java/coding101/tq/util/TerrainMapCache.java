@@ -0,0 +1,117 @@
+package coding101.tq.util;
+
+import coding101.tq.domain.TerrainMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * A size-bounded cache of {@link TerrainMap} instances, with support for
+ * loading maps in the background before they are needed.
+ *
+ * The least-recently-used maps are evicted once more than {@code maxSize} maps
+ * are cached.
+ */
+public class TerrainMapCache {
+
+    private final int maxSize;
+    private final Function<String, TerrainMap> loader;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<TerrainMap>> maps;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum number of maps to cache
+     * @param loader  the function to load a map by name
+     * @throws IllegalArgumentException if {@code loader} is {@code null} or
+     *                                  {@code maxSize} is less than {@code 1}
+     */
+    public TerrainMapCache(int maxSize, Function<String, TerrainMap> loader) {
+        super();
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be at least 1.");
+        }
+        this.maxSize = maxSize;
+        this.loader = Objects.requireNonNull(loader);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "TQ Map Loader");
+            t.setDaemon(true);
+            return t;
+        });
+        this.maps = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<TerrainMap>> eldest) {
+                return size() > TerrainMapCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get a map, loading it if it is not already cached.
+     *
+     * If the map is being loaded in the background already, this method will wait
+     * for that to complete.
+     *
+     * @param name the name of the map to get
+     * @return the map
+     * @throws IllegalArgumentException if the map cannot be loaded
+     */
+    public TerrainMap get(String name) {
+        CompletableFuture<TerrainMap> f;
+        synchronized (maps) {
+            f = maps.get(name);
+        }
+        if (f != null) {
+            try {
+                return f.join();
+            } catch (CompletionException e) {
+                // background load failed; forget it and try again below
+                synchronized (maps) {
+                    maps.remove(name, f);
+                }
+            }
+        }
+        TerrainMap map = loader.apply(name);
+        synchronized (maps) {
+            maps.put(name, CompletableFuture.completedFuture(map));
+        }
+        return map;
+    }
+
+    /**
+     * Load a map in the background, if it is not already cached.
+     *
+     * Any error loading the map is ignored, and will be reported when
+     * {@link #get(String)} is called for the same map.
+     *
+     * @param name the name of the map to load
+     */
+    public void prefetch(String name) {
+        synchronized (maps) {
+            if (!maps.containsKey(name)) {
+                maps.put(name, CompletableFuture.supplyAsync(() -> loader.apply(name), executor));
+            }
+        }
+    }
+
+    /**
+     * Test if a map is cached, or is being loaded in the background.
+     *
+     * @param name the name of the map to test
+     * @return {@code true} if the map is cached
+     */
+    public boolean contains(String name) {
+        synchronized (maps) {
+            return maps.containsKey(name);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package coding101.tq.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import coding101.tq.domain.TerrainMap;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Support for the map resource index, and for compiling map resources at build
+ * time.
+ *
+ * The index is a classpath resource named {@link #INDEX_RESOURCE} that lists
+ * every tile resource within {@link #MAPS_DIRECTORY}, one resource path per
+ * line. When the index is available, the tile resources of a map directory can
+ * be found without scanning the classpath.
+ *
+ * The {@link #main(String[])} method compiles a resources directory into a
+ * binary map for each map directory (see {@link TerrainMapBinary}) along with
+ * the index. This is run by the {@code compileMaps} Gradle task, so the
+ * compiled maps are included in the application JAR.
+ */
+public final class TerrainMapIndex {
+
+    /** The classpath directory that map resources are located in. */
+    public static final String MAPS_DIRECTORY = "META-INF/tqmaps";
+
+    /** The classpath resource path of the index. */
+    public static final String INDEX_RESOURCE = MAPS_DIRECTORY + "/index.txt";
+
+    private static Map<String, List<String>> index;
+    private static boolean indexLoaded;
+
+    private TerrainMapIndex() {
+        // not available
+    }
+
+    /**
+     * Get the tile resources of a map directory from the index.
+     *
+     * @param directoryName the map directory, for example
+     *                      {@code META-INF/tqmaps/main}
+     * @return the tile resource paths, or {@code null} if the index is not
+     *         available or does not cover {@code directoryName}, in which case the
+     *         classpath must be scanned instead
+     * @throws IllegalArgumentException if the index cannot be read
+     */
+    public static List<String> tileResources(String directoryName) {
+        if (!directoryName.startsWith(MAPS_DIRECTORY + "/")) {
+            return null;
+        }
+        Map<String, List<String>> idx = index();
+        if (idx == null) {
+            return null;
+        }
+        return idx.get(directoryName);
+    }
+
+    private static synchronized Map<String, List<String>> index() {
+        if (indexLoaded) {
+            return index;
+        }
+        try (InputStream in = TerrainMapIndex.class.getClassLoader().getResourceAsStream(INDEX_RESOURCE)) {
+            if (in != null) {
+                index = parseIndex(new BufferedReader(new InputStreamReader(in, UTF_8)));
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(
+                    "Error reading map index [%s]: %s".formatted(INDEX_RESOURCE, e.getMessage()), e);
+        }
+        indexLoaded = true;
+        return index;
+    }
+
+    /**
+     * Parse index data.
+     *
+     * Blank lines and those starting with {@literal #} are ignored.
+     *
+     * @param r the reader to parse
+     * @return mapping of map directory paths to associated tile resource paths
+     * @throws IOException if any I/O error occurs
+     */
+    public static Map<String, List<String>> parseIndex(BufferedReader r) throws IOException {
+        Map<String, List<String>> result = new TreeMap<>();
+        String line = null;
+        while ((line = r.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int idx = line.lastIndexOf('/');
+            if (idx < 1) {
+                continue;
+            }
+            result.computeIfAbsent(line.substring(0, idx), k -> new ArrayList<>(8)).add(line);
+        }
+        return result;
+    }
+
+    /**
+     * Compile all map directories within a resources directory.
+     *
+     * Every directory within {@link #MAPS_DIRECTORY} that contains tile
+     * resources is compiled into a binary map at the same relative path in
+     * {@code outputDir}, and {@link #INDEX_RESOURCE} is written listing every
+     * tile resource found.
+     *
+     * @param resourcesDir the resources directory to compile, for example
+     *                     {@code src/main/resources}
+     * @param outputDir    the directory to write the compiled resources to
+     * @return the number of map directories compiled
+     * @throws IOException if any I/O error occurs
+     */
+    public static int compile(Path resourcesDir, Path outputDir) throws IOException {
+        final Path mapsDir = resourcesDir.resolve(MAPS_DIRECTORY);
+        final Map<String, List<Path>> tiles = new TreeMap<>();
+        if (Files.isDirectory(mapsDir)) {
+            try (Stream<Path> s = Files.walk(mapsDir)) {
+                for (Path p : s.filter(Files::isRegularFile).sorted().toList()) {
+                    if (TerrainMapBuilder.RESOURCE_NAME_REGEX
+                            .matcher(p.getFileName().toString())
+                            .matches()) {
+                        tiles.computeIfAbsent(resourcePath(resourcesDir, p.getParent()), k -> new ArrayList<>(8))
+                                .add(p);
+                    }
+                }
+            }
+        }
+
+        final Path index = outputDir.resolve(INDEX_RESOURCE);
+        Files.createDirectories(index.getParent());
+        try (BufferedWriter w = Files.newBufferedWriter(index, UTF_8)) {
+            w.write("# Generated map tile resource index\n");
+            for (Map.Entry<String, List<Path>> e : tiles.entrySet()) {
+                TerrainMapBuilder b = new TerrainMapBuilder();
+                for (Path p : e.getValue()) {
+                    b.addTile(TerrainMapBuilder.parseTileResource(p.toString()));
+                    w.write(resourcePath(resourcesDir, p));
+                    w.write('\n');
+                }
+                String name = e.getKey().substring(e.getKey().lastIndexOf('/') + 1);
+                TerrainMap map = b.withStorageMode(TerrainMapBuilder.StorageMode.Packed)
+                        .build(name);
+                Path bin = outputDir.resolve(e.getKey() + TerrainMapBinary.FILE_EXTENSION);
+                Files.createDirectories(bin.getParent());
+                TerrainMapBinary.write(map, b.getTileWidth(), b.getTileHeight(), bin);
+            }
+        }
+        return tiles.size();
+    }
+
+    private static String resourcePath(Path resourcesDir, Path path) {
+        return resourcesDir.relativize(path).toString().replace('\\', '/');
+    }
+
+    /**
+     * Compile all map directories within a resources directory.
+     *
+     * @param args the resources directory and the output directory
+     * @see #compile(Path, Path)
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: TerrainMapIndex <resources directory> <output directory>");
+            System.exit(1);
+        }
+        try {
+            int count = compile(Path.of(args[0]), Path.of(args[1]));
+            System.out.println("Compiled %d maps.".formatted(count));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error compiling maps from [%s]: %s".formatted(args[0], e.getMessage()));
+            System.exit(1);
+        }
+    }
+}
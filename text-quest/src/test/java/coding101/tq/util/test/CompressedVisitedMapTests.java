@@ -0,0 +1,135 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.CompressedVisitedMap;
+import coding101.tq.domain.VisitedMap;
+import coding101.tq.util.BitSetJson;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link CompressedVisitedMap} class.
+ */
+public class CompressedVisitedMapTests {
+
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    public void setup() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(BitSetJson.createBitSetModule());
+    }
+
+    @Test
+    public void visit() {
+        // GIVEN
+        CompressedVisitedMap visited = new CompressedVisitedMap();
+
+        // WHEN
+        boolean first = visited.visit(1_000_000_000, 2);
+        boolean second = visited.visit(1_000_000_000, 2);
+
+        // THEN
+        then(first).as("First visit").isTrue();
+        then(second).as("Second visit").isFalse();
+        then(visited.hasVisited(1_000_000_000, 2)).as("Visited").isTrue();
+        then(visited.hasVisited(1_000_000_001, 2)).as("Not visited").isFalse();
+        then(visited.hasVisitedNear(1_000_000_001, 3)).as("Near").isTrue();
+        then(visited.containerBytes()).as("Size independent of coordinate").isLessThan(100L);
+    }
+
+    @Test
+    public void sameAsVisitedMap() {
+        // GIVEN
+        VisitedMap sparse = new VisitedMap();
+        CompressedVisitedMap compressed = new CompressedVisitedMap();
+        Random r = new Random(123);
+
+        // WHEN
+        for (int i = 0; i < 20_000; i++) {
+            // mix of scattered visits and runs, across chunks
+            int x = (i % 3 == 0 ? r.nextInt(200_000) : 65_000 + (i % 2_000));
+            int y = r.nextInt(4);
+            then(compressed.visit(x, y)).as("Visit %d,%d", x, y).isEqualTo(sparse.visit(x, y));
+        }
+
+        // THEN
+        then(compressed.visited()).as("Visited data same as sparse").isEqualTo(sparse.visited());
+        for (int y = 0; y < 4; y++) {
+            for (int x = 64_000; x < 68_000; x++) {
+                then(compressed.hasVisitedNear(x, y))
+                        .as("Near %d,%d", x, y)
+                        .isEqualTo(sparse.hasVisitedNear(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void runsCompress() {
+        // GIVEN
+        CompressedVisitedMap visited = new CompressedVisitedMap();
+
+        // WHEN
+        for (int x = 0; x < 60_000; x++) {
+            visited.visit(x, 0);
+        }
+
+        // THEN
+        then(visited.containerCount()).as("One container").isEqualTo(1);
+        then(visited.containerBytes()).as("Single run stored compactly").isLessThan(100L);
+        then(visited.runs()).as("Runs").containsOnlyKeys(0);
+        then(visited.runs().get(0)).as("Single run").containsExactly(0, 60_000);
+    }
+
+    @Test
+    public void jsonRoundTrip() throws IOException {
+        // GIVEN
+        CompressedVisitedMap visited = new CompressedVisitedMap();
+        for (int x = 65_530; x < 65_540; x++) {
+            visited.visit(x, 1);
+        }
+        visited.visit(3, 1);
+        visited.visit(7, 4);
+
+        // WHEN
+        String json = mapper.writeValueAsString(Map.of("main", visited));
+        Map<String, VisitedMap> result = mapper.readValue(json, new TypeReference<Map<String, VisitedMap>>() {});
+
+        // THEN
+        then(json)
+                .as("Runs joined across chunks")
+                .isEqualTo("""
+                {"main":{"runs":{"1":[3,1,65530,10],"4":[7,1]}}}""");
+        then(result.get("main")).as("Compressed map loaded").isInstanceOf(CompressedVisitedMap.class);
+        then(result.get("main").visited()).as("Visited data loaded").isEqualTo(visited.visited());
+    }
+
+    @Test
+    public void jsonVisitedMap() throws IOException {
+        // GIVEN
+        String json = """
+                {"main":{"visited":{"1":[6],"2":[1]}}}
+                """;
+
+        // WHEN
+        Map<String, VisitedMap> maps = mapper.readValue(json, new TypeReference<Map<String, VisitedMap>>() {});
+        CompressedVisitedMap result = CompressedVisitedMap.copyOf(maps.get("main"));
+
+        // THEN
+        then(maps.get("main").getClass()).as("Visited map loaded").isEqualTo(VisitedMap.class);
+        then(mapper.writeValueAsString(maps.get("main")))
+                .as("Visited map JSON unchanged")
+                .isEqualTo("""
+                {"visited":{"1":[6],"2":[1]}}""");
+        then(result.hasVisited(1, 1)).as("Copied visit").isTrue();
+        then(result.hasVisited(2, 1)).as("Copied visit").isTrue();
+        then(result.hasVisited(0, 2)).as("Copied visit").isTrue();
+        then(result.hasVisited(0, 1)).as("Not visited").isFalse();
+    }
+}
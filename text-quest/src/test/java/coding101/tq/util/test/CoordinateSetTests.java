@@ -0,0 +1,89 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.CoordinateSet;
+import coding101.tq.util.CoordinateJson;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link CoordinateSet} class.
+ */
+public class CoordinateSetTests {
+
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    public void setup() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(CoordinateJson.createCoordinateModule());
+    }
+
+    @Test
+    public void add() {
+        // GIVEN
+        CoordinateSet set = new CoordinateSet();
+
+        // WHEN
+        boolean first = set.add(3, 2);
+        boolean second = set.add(3, 2);
+        boolean zero = set.add(0, 0);
+
+        // THEN
+        then(first).as("First add").isTrue();
+        then(second).as("Second add").isFalse();
+        then(zero).as("Zero coordinate added").isTrue();
+        then(set).as("Size").hasSize(2);
+        then(set.contains(3, 2)).as("Contains").isTrue();
+        then(set.contains(0, 0)).as("Contains zero").isTrue();
+        then(set.contains(2, 3)).as("Not contains").isFalse();
+        then(set.contains(new Coordinate(3, 2))).as("Contains coordinate").isTrue();
+    }
+
+    @Test
+    public void sortedIteration() {
+        // GIVEN
+        CoordinateSet set = new CoordinateSet();
+        TreeSet<Coordinate> expected = new TreeSet<>();
+        Random r = new Random(123);
+
+        // WHEN
+        for (int i = 0; i < 1000; i++) {
+            int x = r.nextInt(200) - 100;
+            int y = r.nextInt(200) - 100;
+            then(set.add(x, y)).as("Add %d,%d", x, y).isEqualTo(expected.add(new Coordinate(x, y)));
+        }
+
+        // THEN
+        then(set).as("Iterates in coordinate order").containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void jsonRoundTrip() throws IOException {
+        // GIVEN
+        CoordinateSet set = new CoordinateSet();
+        set.add(5, 1);
+        set.add(2, 7);
+        set.add(2, 3);
+
+        // WHEN
+        String json = mapper.writeValueAsString(Map.of("main", set));
+        Map<String, CoordinateSet> result =
+                mapper.readValue(json, new TypeReference<Map<String, CoordinateSet>>() {});
+
+        // THEN
+        then(json).as("Sorted JSON").isEqualTo("""
+                {"main":["2,3","2,7","5,1"]}""");
+        then(result.get("main")).as("Set loaded").isInstanceOf(CoordinateSet.class);
+        then(result.get("main").contains(2, 7)).as("Loaded coordinate").isTrue();
+        then(result.get("main")).as("Loaded size").hasSize(3);
+    }
+}
@@ -0,0 +1,43 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import coding101.tq.domain.Coordinate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link Coordinate} class.
+ */
+public class CoordinateTests {
+
+    @Test
+    public void pack() {
+        // GIVEN
+        int[][] coords = new int[][] {{0, 0}, {1, 2}, {-1, 5}, {5, -1}, {Integer.MIN_VALUE, Integer.MAX_VALUE}};
+
+        for (int[] c : coords) {
+            // WHEN
+            long packed = Coordinate.pack(c[0], c[1]);
+
+            // THEN
+            then(Coordinate.unpackX(packed)).as("Unpacked x of %d,%d", c[0], c[1]).isEqualTo(c[0]);
+            then(Coordinate.unpackY(packed)).as("Unpacked y of %d,%d", c[0], c[1]).isEqualTo(c[1]);
+            then(Coordinate.unpack(packed)).as("Unpacked").isEqualTo(new Coordinate(c[0], c[1]));
+            then(new Coordinate(c[0], c[1]).pack()).as("Packed instance").isEqualTo(packed);
+        }
+    }
+
+    @Test
+    public void forKey() {
+        then(Coordinate.forKey("12,345")).as("Exact key").isEqualTo(new Coordinate(12, 345));
+        then(Coordinate.forKey(" 12,345 ")).as("Key within other text").isEqualTo(new Coordinate(12, 345));
+        then(Coordinate.forKey(null)).as("Null key").isNull();
+        thenThrownBy(() -> Coordinate.forKey("12"))
+                .as("Invalid key")
+                .isInstanceOf(IllegalArgumentException.class);
+        thenThrownBy(() -> Coordinate.forKey("1,99999999999"))
+                .as("Key out of range")
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
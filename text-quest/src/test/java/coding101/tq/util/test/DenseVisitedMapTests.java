@@ -0,0 +1,111 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.DenseVisitedMap;
+import coding101.tq.domain.VisitedMap;
+import coding101.tq.util.BitSetJson;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link DenseVisitedMap} class.
+ */
+public class DenseVisitedMapTests {
+
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    public void setup() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(BitSetJson.createBitSetModule());
+    }
+
+    @Test
+    public void visit() {
+        // GIVEN
+        DenseVisitedMap visited = new DenseVisitedMap(10, 5);
+
+        // WHEN
+        boolean first = visited.visit(3, 2);
+        boolean second = visited.visit(3, 2);
+
+        // THEN
+        then(first).as("First visit").isTrue();
+        then(second).as("Second visit").isFalse();
+        then(visited.hasVisited(3, 2)).as("Visited").isTrue();
+        then(visited.hasVisited(4, 2)).as("Not visited").isFalse();
+        then(visited.visit(10, 2)).as("Out of bounds ignored").isFalse();
+    }
+
+    @Test
+    public void hasVisitedNear() {
+        // GIVEN
+        DenseVisitedMap visited = new DenseVisitedMap(64, 3);
+        visited.visit(63, 0);
+
+        // THEN
+        then(visited.hasVisitedNear(62, 1)).as("Diagonal neighbour").isTrue();
+        then(visited.hasVisitedNear(64, 1)).as("Neighbour outside map").isTrue();
+        then(visited.hasVisitedNear(63, -1)).as("Neighbour above map").isTrue();
+        then(visited.hasVisitedNear(61, 1)).as("Too far left").isFalse();
+        then(visited.hasVisitedNear(63, 2)).as("Too far down").isFalse();
+        then(visited.hasVisitedNear(-100, -100)).as("Far out of bounds").isFalse();
+    }
+
+    @Test
+    public void hasVisitedNearAny() {
+        // GIVEN
+        DenseVisitedMap visited = new DenseVisitedMap(200, 3);
+        visited.visit(130, 1);
+
+        // THEN
+        then(visited.hasVisitedNearAny(0, 0, 200)).as("Span across words").isTrue();
+        then(visited.hasVisitedNearAny(131, 2, 1)).as("Span of one").isTrue();
+        then(visited.hasVisitedNearAny(0, 1, 129)).as("Span ends before revealed").isFalse();
+        then(visited.hasVisitedNearAny(132, 1, 100)).as("Span starts after revealed").isFalse();
+        then(visited.hasVisitedNearAny(0, 3, 200)).as("Row not revealed").isFalse();
+    }
+
+    @Test
+    public void jsonSameAsVisitedMap() throws IOException {
+        // GIVEN
+        VisitedMap sparse = new VisitedMap();
+        DenseVisitedMap dense = new DenseVisitedMap(100, 10);
+        for (int i = 0; i < 10; i++) {
+            sparse.visit(i * 9, i);
+            dense.visit(i * 9, i);
+        }
+
+        // WHEN
+        String sparseJson = mapper.writeValueAsString(sparse);
+        String denseJson = mapper.writeValueAsString(dense);
+
+        // THEN
+        then(denseJson).as("JSON same as sparse").isEqualTo(sparseJson);
+    }
+
+    @Test
+    public void copyOf() throws IOException {
+        // GIVEN
+        String json = """
+                {"main":{"visited":{"1":[6],"2":[1]}}}
+                """;
+        Map<String, VisitedMap> maps = mapper.readValue(json, new TypeReference<Map<String, VisitedMap>>() {});
+
+        // WHEN
+        DenseVisitedMap result = DenseVisitedMap.copyOf(10, 5, maps.get("main"));
+
+        // THEN
+        then(result.hasVisited(1, 1)).as("Copied visit").isTrue();
+        then(result.hasVisited(2, 1)).as("Copied visit").isTrue();
+        then(result.hasVisited(0, 2)).as("Copied visit").isTrue();
+        then(result.hasVisited(0, 1)).as("Not visited").isFalse();
+        then(result.hasVisitedNear(3, 0)).as("Revealed rebuilt from copied visits").isTrue();
+        then(result.hasVisitedNear(4, 0)).as("Not revealed").isFalse();
+    }
+}
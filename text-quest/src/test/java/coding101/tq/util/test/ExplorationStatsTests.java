@@ -0,0 +1,93 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.CompressedVisitedMap;
+import coding101.tq.domain.DenseVisitedMap;
+import coding101.tq.domain.ExplorationStats;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.domain.VisitedMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link ExplorationStats} class.
+ */
+public class ExplorationStatsTests {
+
+    // the left half grass and the right half water
+    private static TerrainMap map(int width, int height, int tileWidth, int tileHeight) {
+        String[] rows = new String[height];
+        Arrays.fill(rows, ".".repeat(width / 2) + "~".repeat(width - width / 2));
+        return TestMaps.map("test", tileWidth, tileHeight, rows);
+    }
+
+    @Test
+    public void incremental() {
+        // GIVEN
+        TerrainMap map = map(10, 4, 4, 2);
+        VisitedMap visited = new DenseVisitedMap(10, 4);
+        ExplorationStats stats = visited.exploration(map);
+
+        // WHEN
+        visited.visit(0, 0);
+        visited.visit(1, 0);
+        visited.visit(1, 0);
+        visited.visit(9, 3);
+
+        // THEN
+        then(stats.visitedCount()).as("Visited count").isEqualTo(3L);
+        then(stats.totalCount()).as("Total count").isEqualTo(40L);
+        then(stats.percentVisited()).as("Visited percent").isEqualTo(7.5);
+        then(stats.visitedCount(TerrainType.Grass)).as("Grass count").isEqualTo(2L);
+        then(stats.visitedCount(TerrainType.Water)).as("Water count").isEqualTo(1L);
+        then(stats.tileVisitedCount(0, 0)).as("First tile count").isEqualTo(2);
+        then(stats.tileTotalCount(2, 1)).as("Edge tile total").isEqualTo(4L);
+        then(stats.tilePercentVisitedAt(9, 3)).as("Edge tile percent").isEqualTo(25.0);
+    }
+
+    @Test
+    public void bulkSameAsIncremental() {
+        // GIVEN
+        TerrainMap map = map(300, 20, 64, 8);
+        List<VisitedMap> maps = List.of(new VisitedMap(), new DenseVisitedMap(300, 20), new CompressedVisitedMap());
+        List<ExplorationStats> incremental =
+                maps.stream().map(v -> v.exploration(map)).toList();
+        Random r = new Random(123);
+
+        // WHEN
+        for (int i = 0; i < 2000; i++) {
+            int x = r.nextInt(320);
+            int y = r.nextInt(24);
+            for (VisitedMap v : maps) {
+                v.visit(x, y);
+            }
+        }
+
+        // THEN
+        for (int i = 0; i < maps.size(); i++) {
+            ExplorationStats inc = incremental.get(i);
+            ExplorationStats bulk = ExplorationStats.of(map, maps.get(i));
+            then(bulk.visitedCount()).as("Visited count %d", i).isEqualTo(inc.visitedCount());
+            then(bulk.visitedCount(TerrainType.Water))
+                    .as("Water count %d", i)
+                    .isEqualTo(inc.visitedCount(TerrainType.Water));
+            for (int tileY = 0; tileY < 3; tileY++) {
+                for (int tileX = 0; tileX < 5; tileX++) {
+                    then(bulk.tileVisitedCount(tileX, tileY))
+                            .as("Tile %d,%d count %d", tileX, tileY, i)
+                            .isEqualTo(inc.tileVisitedCount(tileX, tileY));
+                }
+            }
+        }
+        then(incremental.get(1).visitedCount())
+                .as("Dense same as sparse")
+                .isEqualTo(incremental.get(0).visitedCount());
+        then(incremental.get(2).visitedCount())
+                .as("Compressed same as sparse")
+                .isEqualTo(incremental.get(0).visitedCount());
+    }
+}
@@ -0,0 +1,155 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.GameConfiguration;
+import coding101.tq.GameUI;
+import coding101.tq.HeadlessGame;
+import coding101.tq.MapPane;
+import coding101.tq.ScrollMode;
+import coding101.tq.domain.ColorPalette;
+import coding101.tq.domain.ColorScheme;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.PlayerItems;
+import coding101.tq.domain.Settings;
+import coding101.tq.domain.TerrainMap;
+import com.googlecode.lanterna.TextCharacter;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.input.KeyType;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Timer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link HeadlessGame} class.
+ */
+public class HeadlessGameTests {
+
+    private static HeadlessGame game() throws IOException {
+        return game(TestMaps.map("test", "..~", ".^~"), GameConfiguration.DEFAULTS);
+    }
+
+    private static HeadlessGame game(TerrainMap map, GameConfiguration config) throws IOException {
+        ColorPalette palette = new ColorPalette(
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null);
+        Settings settings = new Settings(new ColorScheme(palette, palette), new PlayerItems());
+        Player player = new Player(config);
+        player.setActiveMapName(map.getName());
+        return new HeadlessGame(settings, map, player);
+    }
+
+    @Test
+    public void scriptedInput() throws IOException {
+        // GIVEN
+        try (HeadlessGame game = game()) {
+            // WHEN
+            game.input(new KeyStroke(KeyType.Enter)).type("b12x3\n");
+
+            // THEN
+            then(game.remainingInput()).as("Script queued").isEqualTo(7);
+            then(game.readYesNo()).as("Enter read as yes").isTrue();
+            then(game.readCharacter()).as("Character read").isEqualTo('b');
+            then(game.readInteger(1, 1)).as("Digits read until Enter").isEqualTo(123);
+            then(game.remainingInput()).as("Script consumed").isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void scriptExhausted() throws IOException {
+        // GIVEN
+        try (HeadlessGame game = game()) {
+            // WHEN
+            game.type("4");
+
+            // THEN
+            then(game.readInteger(1, 1)).as("Digits read until end of script").isEqualTo(4);
+            then(game.readYesNo()).as("No input read as no").isFalse();
+            then(game.readCharacter()).as("No input read as no character").isEqualTo((char) 0);
+            then(game.readInteger(1, 1)).as("No input read as no integer").isNull();
+        }
+    }
+
+    @Test
+    public void draw() throws IOException {
+        // GIVEN
+        Timer timer = new Timer(true);
+        try (HeadlessGame game = game()) {
+            GameUI ui = new GameUI(game, timer, 20, 1);
+
+            // WHEN
+            ui.draw();
+            ui.map().movePlayer(1, 0);
+            game.renderLoop().requestRefresh();
+
+            // THEN
+            then(game.player().getX()).as("Player moved").isEqualTo(1);
+            then(game.renderLoop().refreshCount()).as("Screen refreshed").isGreaterThan(0L);
+            then(game.terminal().getBufferCharacter(2, 1).getCharacterString())
+                    .as("Player drawn on terminal, offset by the map pane border")
+                    .isEqualTo("@");
+        } finally {
+            timer.cancel();
+        }
+    }
+
+    @Test
+    public void drawScrolled() throws IOException {
+        // GIVEN
+        String[] rows = new String[30];
+        Arrays.fill(rows, ".^,A".repeat(25));
+        TerrainMap map = TestMaps.map("test", rows);
+        GameConfiguration config = GameConfiguration.DEFAULTS.withScrollMode(ScrollMode.Center).withRevealMap(true);
+        Timer timer = new Timer(true);
+        try (HeadlessGame game = game(map, config)) {
+            game.player().moveTo(map, 50, 15);
+            GameUI ui = new GameUI(game, timer, 20, 1);
+            MapPane pane = ui.map();
+            ui.draw();
+            final int startX = pane.originX();
+
+            // WHEN
+            pane.movePlayer(51, 15);
+            game.renderLoop().requestRefresh();
+
+            // THEN
+            then(pane.originX()).as("Viewport scrolled one column").isEqualTo(startX + 1);
+            final int screenRow = pane.top();
+            StringBuilder expected = new StringBuilder();
+            StringBuilder actual = new StringBuilder();
+            for (int i = 0; i < pane.width(); i++) {
+                expected.append(map.terrainAt(pane.originX() + i, pane.originY()).getKey());
+                TextCharacter c = game.terminal().getBufferCharacter(pane.left() + i, screenRow);
+                actual.append(c.getCharacter());
+            }
+            then(actual.toString())
+                    .as("Pane row shifted left by one column, with the exposed column drawn")
+                    .isEqualTo(expected.toString());
+            final int playerCol = 51 - pane.originX() + pane.left();
+            final int playerRow = 15 - pane.originY() + pane.top();
+            then(game.terminal().getBufferCharacter(playerCol, playerRow).getCharacterString())
+                    .as("Player drawn at new position")
+                    .isEqualTo("@");
+        } finally {
+            timer.cancel();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.PackedTerrainStorage;
+import coding101.tq.domain.PagedTerrainStorage;
+import coding101.tq.domain.PagedTerrainStorage.TileLoader;
+import coding101.tq.domain.TerrainType;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link PagedTerrainStorage} class.
+ */
+public class PagedTerrainStorageTests {
+
+    private static boolean tile(PackedTerrainStorage dest, TerrainType type) {
+        for (int y = 0; y < dest.height(); y++) {
+            for (int x = 0; x < dest.width(); x++) {
+                dest.set(x, y, type);
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void loadOnDemand() {
+        // GIVEN
+        List<String> loaded = new ArrayList<>();
+        PagedTerrainStorage storage = new PagedTerrainStorage(2, 2, 3, 1, 3, (x, y, dest) -> {
+            loaded.add("%d,%d".formatted(x, y));
+            return tile(dest, x == 1 ? TerrainType.Water : TerrainType.Grass);
+        });
+
+        // WHEN
+        TerrainType t = storage.terrainAt(3, 1);
+
+        // THEN
+        then(t).as("Terrain from tile").isEqualTo(TerrainType.Water);
+        then(loaded).as("Only accessed tile loaded").containsExactly("1,0");
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        // GIVEN
+        List<String> loaded = new ArrayList<>();
+        PagedTerrainStorage storage = new PagedTerrainStorage(2, 2, 3, 1, 2, (x, y, dest) -> {
+            loaded.add("%d,%d".formatted(x, y));
+            return tile(dest, TerrainType.Grass);
+        });
+
+        // WHEN
+        storage.terrainAt(0, 0);
+        storage.terrainAt(2, 0);
+        storage.terrainAt(0, 0);
+        storage.terrainAt(4, 0); // evicts 1,0
+        storage.terrainAt(0, 0);
+        storage.terrainAt(2, 0); // reloads 1,0
+
+        // THEN
+        then(storage.residentTiles()).as("Resident tiles limited").isEqualTo(2);
+        then(loaded).as("Least recently used tile evicted").containsExactly("0,0", "1,0", "2,0", "1,0");
+    }
+
+    @Test
+    public void prefetchKeepsLastAccessedTile() {
+        // GIVEN
+        List<String> loaded = new ArrayList<>();
+        TileLoader loader = (x, y, dest) -> {
+            loaded.add("%d,%d".formatted(x, y));
+            return tile(dest, TerrainType.Grass);
+        };
+        PagedTerrainStorage storage = new PagedTerrainStorage(2, 2, 3, 1, 2, loader, Runnable::run);
+        storage.terrainAt(0, 0);
+
+        // WHEN
+        storage.terrainAt(1, 1);
+        storage.prefetch(2, 0, 2, 2);
+        storage.prefetch(4, 0, 2, 2); // evicts 1,0, not the last accessed 0,0
+        storage.terrainAt(4, 0);
+        storage.terrainAt(0, 0);
+
+        // THEN
+        then(storage.residentTiles()).as("Resident tiles limited").isEqualTo(2);
+        then(loaded).as("Last accessed tile kept resident").containsExactly("0,0", "1,0", "2,0");
+    }
+
+    @Test
+    public void missingTile() {
+        // GIVEN
+        PagedTerrainStorage storage = new PagedTerrainStorage(2, 2, 2, 2, 4, (x, y, dest) -> false);
+
+        // WHEN
+        TerrainType t = storage.terrainAt(3, 3);
+
+        // THEN
+        then(t).as("No terrain for missing tile").isNull();
+    }
+}
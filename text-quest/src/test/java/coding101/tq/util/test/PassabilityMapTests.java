@@ -0,0 +1,144 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.MovementRules;
+import coding101.tq.domain.PassabilityMap;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainStorage;
+import coding101.tq.domain.TerrainType;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link PassabilityMap} and {@link MovementRules} classes.
+ */
+public class PassabilityMapTests {
+
+    // grass, then a ship above a mountain, then water with lava in the bottom right
+    private static final String[] TERRAIN = {".&~~", ".A~="};
+
+    private static TerrainType generated(int x, int y) {
+        return TerrainType.values()[(int) ((x * 31L + y * 17L) % TerrainType.values().length)];
+    }
+
+    @Test
+    public void masks() {
+        then(MovementRules.passable(MovementRules.ON_FOOT, TerrainType.Grass))
+                .as("Grass passable on foot")
+                .isTrue();
+        then(MovementRules.passable(MovementRules.ON_FOOT, TerrainType.Water))
+                .as("Water not passable on foot")
+                .isFalse();
+        then(MovementRules.passable(MovementRules.ON_BOARD, TerrainType.Water))
+                .as("Water passable on board")
+                .isTrue();
+        then(MovementRules.passable(MovementRules.ON_BOARD, TerrainType.Grass))
+                .as("Grass not passable on board")
+                .isFalse();
+        then(MovementRules.passable(
+                        MovementRules.mask(false, MovementRules.mask(TerrainType.Mountain)), TerrainType.Mountain))
+                .as("Mountain passable on foot with immunity")
+                .isTrue();
+        then(MovementRules.mask(true, MovementRules.mask(TerrainType.Mountain)))
+                .as("Immunities do not apply on board")
+                .isEqualTo(MovementRules.ON_BOARD);
+    }
+
+    @Test
+    public void smallMap() {
+        // GIVEN
+        TerrainMap map = TestMaps.map("test", TERRAIN);
+
+        // WHEN
+        PassabilityMap p = map.passability(MovementRules.ON_FOOT);
+
+        // THEN
+        then(map.passability(MovementRules.ON_FOOT)).as("Bitmap cached").isSameAs(p);
+        for (int y = 0; y < map.height(); y++) {
+            for (int x = 0; x < map.width(); x++) {
+                then(p.passable(x, y))
+                        .as("Passable at %d,%d", x, y)
+                        .isEqualTo(MovementRules.passable(MovementRules.ON_FOOT, map.terrainAt(x, y)));
+            }
+        }
+        then(p.passable(-1, 0)).as("Out of bounds treated as empty").isTrue();
+        then(map.passability(MovementRules.ON_BOARD).passable(-1, 0))
+                .as("Out of bounds treated as empty on board")
+                .isFalse();
+    }
+
+    @Test
+    public void largeMap() {
+        // GIVEN
+        TerrainStorage storage = new TerrainStorage() {
+
+            @Override
+            public int width() {
+                return 20_000;
+            }
+
+            @Override
+            public int height() {
+                return 10_000;
+            }
+
+            @Override
+            public TerrainType terrainAt(int x, int y) {
+                return generated(x, y);
+            }
+        };
+        TerrainMap map = new TerrainMap("large", storage, Map.of(), 100, 100);
+        Random r = new Random(123);
+
+        // WHEN
+        PassabilityMap p = map.passability(MovementRules.ON_FOOT);
+
+        // THEN
+        for (int i = 0; i < 1_000; i++) {
+            int x = r.nextInt(storage.width());
+            int y = r.nextInt(storage.height());
+            then(p.passable(x, y))
+                    .as("Passable at %d,%d", x, y)
+                    .isEqualTo(MovementRules.passable(MovementRules.ON_FOOT, generated(x, y)));
+        }
+    }
+
+    @Test
+    public void canMoveTo() {
+        // GIVEN
+        TerrainMap map = TestMaps.map("test", TERRAIN);
+        Player player = new Player();
+        player.moveTo(map, 0, 0);
+
+        // THEN
+        then(player.canMoveTo(map, 0, 1)).as("Can walk on grass").isTrue();
+        then(player.canMoveTo(map, 1, 1)).as("Can not walk on mountain").isFalse();
+        then(player.canMoveTo(map, 2, 0)).as("Can not walk on water").isFalse();
+        then(player.canMoveTo(map, 1, 0)).as("Can walk onto ship").isTrue();
+
+        // WHEN
+        player.moveTo(map, 1, 0);
+        player.board();
+
+        // THEN
+        then(player.canMoveTo(map, 2, 0)).as("Can sail on water").isTrue();
+        then(player.canMoveTo(map, 0, 0)).as("Can not sail on grass").isFalse();
+
+        // WHEN
+        player.moveTo(map, 2, 0);
+
+        // THEN
+        then(player.canMoveTo(map, 1, 0)).as("Can sail onto origin of moved ship").isTrue();
+
+        // WHEN
+        player.moveTo(map, 2, 1);
+        player.disembark();
+
+        // THEN
+        then(player.canMoveTo(map, 2, 0)).as("Can not walk on water").isFalse();
+        then(player.canMoveTo(map, 1, 0)).as("Can walk onto origin of moved ship").isTrue();
+    }
+}
@@ -0,0 +1,129 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.MovementRules;
+import coding101.tq.domain.PassabilityMap;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.PlayerMapState;
+import coding101.tq.domain.TerrainMap;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link PlayerMapState} class.
+ */
+public class PlayerMapStateTests {
+
+    // grass, then a ship above a chest, then water
+    private static final String[] TERRAIN = {".&~", ".%~"};
+
+    @Test
+    public void cachedPerMap() {
+        // GIVEN
+        Player player = new Player();
+        TerrainMap main = TestMaps.map("main", TERRAIN);
+        TerrainMap other = TestMaps.map("other", TERRAIN);
+
+        // WHEN
+        PlayerMapState state = player.mapState(main);
+
+        // THEN
+        then(player.mapState(main)).as("Same map returns cached state").isSameAs(state);
+        then(player.mapState(other)).as("Other map state").isNotSameAs(state);
+        then(player.mapState(main)).as("State resolved again").isNotSameAs(state);
+    }
+
+    @Test
+    public void sharesPlayerData() {
+        // GIVEN
+        Player player = new Player();
+        TerrainMap main = TestMaps.map("main", TERRAIN);
+        PlayerMapState state = player.mapState(main);
+
+        // WHEN
+        player.moveTo(main, 0, 1);
+        boolean interacted = state.interacted(1, 1);
+
+        // THEN
+        then(state.hasVisited(0, 1)).as("Visit through player visible in state").isTrue();
+        then(interacted).as("Interaction added").isTrue();
+        then(player.hasInteracted(main, 1, 1)).as("Interaction visible through player").isTrue();
+        then(player.getInteractions()).as("Interaction saved in player data").containsKey("main");
+    }
+
+    @Test
+    public void vehicleLocatedAt() {
+        // GIVEN
+        Player player = new Player();
+        TerrainMap main = TestMaps.map("main", TERRAIN);
+        player.moveTo(main, 1, 0);
+        player.board();
+
+        // WHEN
+        player.moveTo(main, 2, 0);
+        PlayerMapState state = player.mapState(main);
+
+        // THEN
+        then(state.vehicleLocatedAt(2, 0)).as("Ship moved to water").isTrue();
+        then(state.vehicleLocatedAt(1, 0)).as("Ship moved from origin").isFalse();
+        then(player.getVehicles().get("main"))
+                .as("Vehicles data")
+                .containsExactly(Map.entry(new Coordinate(1, 0), new Coordinate(2, 0)));
+    }
+
+    @Test
+    public void queriesDoNotCreateData() {
+        // GIVEN
+        Player player = new Player();
+        TerrainMap main = TestMaps.map("main", TERRAIN);
+
+        // WHEN
+        boolean visited = player.hasVisited(main, 0, 0);
+        boolean visitedNear = player.hasVisitedNear(main, 0, 0);
+        boolean canMove = player.canMoveTo(main, 0, 1);
+
+        // THEN
+        then(visited).as("Not visited").isFalse();
+        then(visitedNear).as("Not visited near").isFalse();
+        then(canMove).as("Can move to grass").isTrue();
+        then(player.getVisitedMaps()).as("No visited data created by queries").isEmpty();
+        then(player.getInteractions()).as("No interactions data created by queries").isEmpty();
+    }
+
+    @Test
+    public void passabilityFollowsMovementMode() {
+        // GIVEN
+        Player player = new Player();
+        TerrainMap main = TestMaps.map("main", TERRAIN);
+        player.moveTo(main, 1, 0);
+        PlayerMapState state = player.mapState(main);
+        PassabilityMap onFoot = state.passability();
+
+        // WHEN
+        player.board();
+        PassabilityMap onBoard = player.mapState(main).passability();
+        player.disembark();
+
+        // THEN
+        then(onFoot.mask()).as("On foot passability").isEqualTo(MovementRules.ON_FOOT);
+        then(onBoard.mask()).as("On board passability").isEqualTo(MovementRules.ON_BOARD);
+        then(player.mapState(main).passability()).as("On foot passability restored").isSameAs(onFoot);
+    }
+
+    @Test
+    public void invalidatedBySetter() {
+        // GIVEN
+        Player player = new Player();
+        TerrainMap main = TestMaps.map("main", TERRAIN);
+        PlayerMapState state = player.mapState(main);
+
+        // WHEN
+        player.setInteractions(new HashMap<>());
+
+        // THEN
+        then(player.mapState(main)).as("State resolved again after data replaced").isNotSameAs(state);
+    }
+}
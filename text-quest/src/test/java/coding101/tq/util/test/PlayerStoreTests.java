@@ -0,0 +1,121 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.Player;
+import coding101.tq.domain.PlayerStore;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link PlayerStore} class.
+ */
+public class PlayerStoreTests {
+
+    // grass and lava, with sand in the bottom right
+    private static final String[] TERRAIN = {".=.", ".=,"};
+
+    private static void place(Player player, TerrainMap map, int x, int y) {
+        player.setActiveMapName(map.getName());
+        player.setX(x);
+        player.setY(y);
+    }
+
+    @Test
+    public void slots() {
+        // GIVEN
+        PlayerStore store = new PlayerStore(1);
+        Player a = new Player(store);
+        Player b = new Player(store);
+        Player c = new Player(store);
+        b.setXp(5);
+
+        // WHEN
+        store.remove(b.slot());
+        Player d = new Player(store);
+
+        // THEN
+        then(store.size()).as("Player count").isEqualTo(3);
+        then(d.slot()).as("Released slot reused").isEqualTo(b.slot());
+        then(store.active(a.slot())).as("Slot active").isTrue();
+        then(store.active(c.slot())).as("Slot active").isTrue();
+        then(d.getXp()).as("Reused slot reset").isEqualTo(0);
+    }
+
+    @Test
+    public void playerView() {
+        // GIVEN
+        PlayerStore store = new PlayerStore();
+        Player p1 = new Player(store);
+        Player p2 = new Player(store);
+
+        // WHEN
+        p1.setHealth(10);
+        p1.setCoins(-1);
+        p2.setXp(7);
+
+        // THEN
+        then(store.health(p1.slot())).as("Health in store").isEqualTo(10);
+        then(store.coins(p1.slot())).as("Coins clamped").isEqualTo(0);
+        then(store.xp(p2.slot())).as("XP in store").isEqualTo(7);
+        then(p1.getXp()).as("XP per slot").isEqualTo(0);
+        then(new Player().store()).as("Default store per player").isNotSameAs(new Player().store());
+    }
+
+    @Test
+    public void bulkUpdates() {
+        // GIVEN
+        PlayerStore store = new PlayerStore(2);
+        TerrainMap main = TestMaps.map("main", TERRAIN);
+        TerrainMap other = TestMaps.map("other", TERRAIN);
+        Player[] players = new Player[5];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new Player(store);
+            players[i].setHealth(10);
+            players[i].setXp(1);
+        }
+        place(players[0], main, 1, 0);
+        place(players[1], main, 1, 1);
+        place(players[2], main, 2, 1);
+        place(players[3], other, 1, 0);
+        place(players[4], main, 1, 0);
+        store.remove(players[4].slot());
+
+        // WHEN
+        store.awardXp(3);
+        int damaged = store.applyTerrainDamage(main, TerrainType.Lava, 4);
+
+        // THEN
+        then(damaged).as("Players on lava of main map damaged").isEqualTo(2);
+        then(players[0].getHealth()).as("Damaged").isEqualTo(6);
+        then(players[1].getHealth()).as("Damaged").isEqualTo(6);
+        then(players[2].getHealth()).as("Not on lava").isEqualTo(10);
+        then(players[3].getHealth()).as("Not on map").isEqualTo(10);
+        for (int i = 0; i < 4; i++) {
+            then(players[i].getXp()).as("XP awarded to %d", i).isEqualTo(4);
+        }
+    }
+
+    @Test
+    public void visitAll() {
+        // GIVEN
+        PlayerStore store = new PlayerStore();
+        TerrainMap main = TestMaps.map("main", TERRAIN);
+        Player p1 = new Player(store);
+        Player p2 = new Player(store);
+        p1.moveTo(main, 0, 0);
+        p2.moveTo(main, 2, 1);
+
+        // WHEN
+        p1.setX(2);
+        p1.setY(0);
+        int visited = store.visitAll(main);
+
+        // THEN
+        then(visited).as("New coordinates visited").isEqualTo(1);
+        then(p1.hasVisited(main, 2, 0)).as("Visited through store").isTrue();
+        then(p2.hasVisited(main, 2, 0)).as("Visited per player").isFalse();
+        then(p1.getVisitedMaps().get("main")).as("Shared visited data").isSameAs(store.visited("main", p1.slot()));
+    }
+}
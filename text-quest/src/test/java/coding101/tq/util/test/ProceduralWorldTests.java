@@ -0,0 +1,82 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.PackedTerrainStorage;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.ProceduralWorld;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link ProceduralWorld} class.
+ */
+public class ProceduralWorldTests {
+
+    private static final long MEMORY_BUDGET = 1024L * 1024L;
+
+    @Test
+    public void deterministic() {
+        // GIVEN
+        TerrainMap map1 = ProceduralWorld.create("test", 123, MEMORY_BUDGET);
+        TerrainMap map2 = ProceduralWorld.create("test", 123, MEMORY_BUDGET);
+        TerrainMap other = ProceduralWorld.create("test", 321, MEMORY_BUDGET);
+
+        // WHEN
+        String result1 = map1.render(1000, 1000, 100, 50);
+        String result2 = map2.render(1000, 1000, 100, 50);
+        String otherResult = other.render(1000, 1000, 100, 50);
+
+        // THEN
+        then(result1).as("Same seed generates same terrain").isEqualTo(result2);
+        then(otherResult).as("Different seed generates different terrain").isNotEqualTo(result1);
+    }
+
+    @Test
+    public void tileMatchesTerrain() {
+        // GIVEN
+        ProceduralWorld world = new ProceduralWorld(123);
+        final int size = ProceduralWorld.TILE_SIZE;
+        PackedTerrainStorage tile = new PackedTerrainStorage(size, size);
+
+        // WHEN
+        boolean result = world.loadTile(3, 5, tile);
+
+        // THEN
+        then(result).as("Tile always generated").isTrue();
+        for (int y = 0; y < tile.height(); y++) {
+            for (int x = 0; x < tile.width(); x++) {
+                then(tile.terrainAt(x, y))
+                        .as("Tile terrain at %d,%d", x, y)
+                        .isEqualTo(world.terrainAt(3 * size + x, 5 * size + y));
+            }
+        }
+    }
+
+    @Test
+    public void startOnGrass() {
+        // WHEN
+        TerrainMap map = ProceduralWorld.create("test", 123, MEMORY_BUDGET);
+
+        // THEN
+        Coordinate start = map.startingCoordinate();
+        then(map.terrainAt(start.x(), start.y())).as("Start on grass").isEqualTo(TerrainType.Grass);
+    }
+
+    @Test
+    public void extremeCoordinates() {
+        // GIVEN
+        TerrainMap map = ProceduralWorld.create("test", 123, MEMORY_BUDGET);
+        final int x = map.width() - 10;
+        final int y = map.height() - 10;
+
+        // WHEN
+        TerrainType result = map.terrainAt(x, y);
+
+        // THEN
+        then(map.width()).as("World is effectively unbounded").isGreaterThan(2_000_000_000);
+        then(result).as("Terrain generated at extreme coordinate").isNotNull().isNotEqualTo(TerrainType.Empty);
+        then(map.terrainAt(map.width(), y)).as("Out of bounds").isEqualTo(TerrainType.Empty);
+    }
+}
@@ -0,0 +1,136 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.RenderLoop;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.input.KeyType;
+import com.googlecode.lanterna.screen.Screen;
+import com.googlecode.lanterna.screen.TerminalScreen;
+import com.googlecode.lanterna.terminal.virtual.DefaultVirtualTerminal;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link RenderLoop} class.
+ */
+public class RenderLoopTests {
+
+    private DefaultVirtualTerminal terminal;
+    private Screen screen;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        terminal = new DefaultVirtualTerminal(new TerminalSize(4, 2));
+        screen = new TerminalScreen(terminal);
+        screen.startScreen();
+    }
+
+    // call a task on a new thread and wait for it, returning any exception it throws
+    private static Throwable callOnOtherThread(Callable<?> task) throws InterruptedException {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread t = new Thread(() -> {
+            try {
+                task.call();
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        t.start();
+        t.join();
+        return error.get();
+    }
+
+    @Test
+    public void ownerOnly() throws InterruptedException {
+        // GIVEN
+        RenderLoop loop = new RenderLoop(screen, RenderLoop.UNLIMITED_REFRESHES);
+        loop.start(false);
+
+        // WHEN
+        Throwable refreshError = callOnOtherThread(() -> {
+            loop.requestRefresh();
+            return null;
+        });
+        Throwable readError = callOnOtherThread(loop::readInput);
+
+        // THEN
+        then(refreshError).as("Refresh requested by other thread rejected").isInstanceOf(IllegalStateException.class);
+        then(readError).as("Input read by other thread rejected").isInstanceOf(IllegalStateException.class);
+        then(loop.refreshCount()).as("Screen not refreshed").isEqualTo(0L);
+    }
+
+    @Test
+    public void postRunsOnOwner() throws IOException, InterruptedException {
+        // GIVEN
+        RenderLoop loop = new RenderLoop(screen, RenderLoop.UNLIMITED_REFRESHES);
+        loop.start();
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        try {
+            // WHEN
+            callOnOtherThread(() -> {
+                loop.post(() -> ranOn.set(Thread.currentThread()));
+                return null;
+            });
+            terminal.addInput(new KeyStroke(KeyType.Enter));
+            KeyStroke keyStroke = loop.readInput();
+
+            // THEN
+            then(ranOn.get()).as("Posted change run on owner thread").isSameAs(Thread.currentThread());
+            then(keyStroke.getKeyType()).as("Key stroke read after posted change").isEqualTo(KeyType.Enter);
+        } finally {
+            loop.stop();
+        }
+    }
+
+    @Test
+    public void refreshCoalesced() throws IOException {
+        // GIVEN
+        RenderLoop loop = new RenderLoop(screen, 1);
+        loop.start(false);
+
+        // WHEN
+        loop.requestRefresh();
+        loop.requestRefresh();
+        loop.requestRefresh();
+
+        // THEN
+        then(loop.refreshCount()).as("Only first request within interval refreshed").isEqualTo(1L);
+
+        // WHEN
+        loop.flush();
+        loop.flush();
+
+        // THEN
+        then(loop.refreshCount()).as("Coalesced requests refreshed once by flush").isEqualTo(2L);
+    }
+
+    @Test
+    public void stopJoinsInputThread() throws IOException {
+        // GIVEN
+        Set<Thread> existingThreads = Thread.getAllStackTraces().keySet();
+        RenderLoop loop = new RenderLoop(screen, RenderLoop.UNLIMITED_REFRESHES);
+        loop.start();
+        List<Thread> inputThreads = Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> !existingThreads.contains(t) && "TQ Input".equals(t.getName()))
+                .toList();
+        then(inputThreads).as("Input thread started").hasSize(1);
+
+        // WHEN
+        loop.stop();
+        boolean alive = inputThreads.getFirst().isAlive();
+        loop.stop();
+        terminal.addInput(new KeyStroke(KeyType.Enter));
+
+        // THEN
+        then(alive).as("Input thread finished before stop returned").isFalse();
+        then(screen.pollInput()).as("Input left on screen once stopped").isNotNull();
+    }
+}
@@ -0,0 +1,81 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.ColorPalette;
+import coding101.tq.domain.ResolvedColorPalette;
+import coding101.tq.domain.TerrainType;
+import com.googlecode.lanterna.TextColor.ANSI;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link ResolvedColorPalette} class.
+ */
+public class ResolvedColorPaletteTests {
+
+    private static ColorPalette palette() {
+        return new ColorPalette(
+                "White",
+                null,
+                "red",
+                null,
+                "magenta",
+                "brown",
+                null,
+                "darkgreen",
+                "green",
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                "darkgray",
+                "darkblue");
+    }
+
+    @Test
+    public void terrain() {
+        // GIVEN
+        ColorPalette palette = palette();
+
+        // WHEN
+        ResolvedColorPalette resolved = palette.resolve();
+
+        // THEN
+        for (TerrainType type : TerrainType.values()) {
+            then(resolved.terrain(type, ANSI.BLACK))
+                    .as("Resolved %s color same as palette color", type)
+                    .isEqualTo(palette.terrain(type, ANSI.BLACK));
+        }
+        then(resolved.terrain(TerrainType.Grass, ANSI.BLACK))
+                .as("Configured color resolved")
+                .isEqualTo(ANSI.GREEN_BRIGHT);
+        then(resolved.terrain(TerrainType.WallCorner, ANSI.BLACK))
+                .as("Wall color resolved for all wall types")
+                .isEqualTo(ANSI.BLACK_BRIGHT);
+        then(resolved.terrain(TerrainType.Hill, ANSI.YELLOW))
+                .as("Default color used when not configured")
+                .isEqualTo(ANSI.YELLOW);
+        then(resolved.terrain(TerrainType.Empty, ANSI.CYAN))
+                .as("Default color used for Empty")
+                .isEqualTo(ANSI.CYAN);
+        then(resolved.terrain(null, ANSI.CYAN)).as("Default color used for null").isEqualTo(ANSI.CYAN);
+    }
+
+    @Test
+    public void ui() {
+        // WHEN
+        ResolvedColorPalette resolved = palette().resolve();
+
+        // THEN
+        then(resolved.uiText(ANSI.BLACK)).as("Configured color resolved ignoring case").isEqualTo(ANSI.WHITE_BRIGHT);
+        then(resolved.uiBorder(ANSI.WHITE)).as("Default color used when not configured").isEqualTo(ANSI.WHITE);
+        then(resolved.health(ANSI.BLACK)).as("Health color resolved").isEqualTo(ANSI.RED_BRIGHT);
+        then(resolved.healthPartial(ANSI.RED)).as("Default partial health color").isEqualTo(ANSI.RED);
+        then(resolved.player(ANSI.BLACK)).as("Player color resolved").isEqualTo(ANSI.MAGENTA_BRIGHT);
+        then(resolved.cave(ANSI.BLACK)).as("Cave color resolved").isEqualTo(ANSI.YELLOW);
+    }
+}
@@ -0,0 +1,84 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.RunLengthTerrainStorage;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.TerrainMapBuilder;
+import coding101.tq.util.TerrainMapBuilder.StorageMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link RunLengthTerrainStorage} class.
+ */
+public class RunLengthTerrainStorageTests {
+
+    private static TerrainType[][] ocean(int width, int height) {
+        TerrainType[][] result = new TerrainType[height][width];
+        for (TerrainType[] row : result) {
+            Arrays.fill(row, TerrainType.Water);
+        }
+        return result;
+    }
+
+    @Test
+    public void runCount() {
+        // GIVEN
+        TerrainType[][] terrain = ocean(1000, 100);
+        terrain[5][500] = TerrainType.Town;
+
+        // WHEN
+        RunLengthTerrainStorage storage = RunLengthTerrainStorage.of(terrain);
+
+        // THEN
+        then(storage.runCount()).as("One run per row, plus two for the town").isEqualTo(102);
+        then(storage.terrainAt(499, 5)).as("Terrain before run").isEqualTo(TerrainType.Water);
+        then(storage.terrainAt(500, 5)).as("Terrain within run").isEqualTo(TerrainType.Town);
+        then(storage.terrainAt(501, 5)).as("Terrain after run").isEqualTo(TerrainType.Water);
+        then(storage.terrainAt(999, 99)).as("Terrain at end").isEqualTo(TerrainType.Water);
+    }
+
+    @Test
+    public void walkRow() {
+        // GIVEN
+        TerrainType[][] terrain = ocean(6, 1);
+        terrain[0][2] = TerrainType.Grass;
+        terrain[0][3] = TerrainType.Grass;
+        terrain[0][4] = null;
+        RunLengthTerrainStorage storage = RunLengthTerrainStorage.of(terrain);
+
+        // WHEN
+        List<TerrainType> result = new ArrayList<>();
+        storage.walkRow(1, 0, 5, (x, y, t) -> result.add(t));
+
+        // THEN
+        then(result)
+                .as("Runs decoded in order")
+                .containsExactly(TerrainType.Water, TerrainType.Grass, TerrainType.Grass, null, TerrainType.Water);
+    }
+
+    @Test
+    public void sameAsPacked() {
+        // GIVEN
+        TerrainMap packed = TerrainMapBuilder.parseResources("coding101/tq/util/test/map02")
+                .withStorageMode(StorageMode.Packed)
+                .build("");
+
+        // WHEN
+        TerrainMap result = TerrainMapBuilder.parseResources("coding101/tq/util/test/map02")
+                .withStorageMode(StorageMode.RunLength)
+                .build("");
+
+        // THEN
+        then(result.storage()).as("Run length storage used").isInstanceOf(RunLengthTerrainStorage.class);
+        then(result.render()).as("Renders same as packed").isEqualTo(packed.render());
+        then(result.render(-2, 3, 14, 3))
+                .as("Out of bounds render same as packed")
+                .isEqualTo(packed.render(-2, 3, 14, 3));
+        then(result.terrainAt(0, 7)).as("Missing tile terrain preserved").isNull();
+    }
+}
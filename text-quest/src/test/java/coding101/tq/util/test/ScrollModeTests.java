@@ -0,0 +1,76 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenIllegalArgumentException;
+
+import coding101.tq.ScrollMode;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link ScrollMode} class.
+ */
+public class ScrollModeTests {
+
+    @Test
+    public void forKey() {
+        then(ScrollMode.forKey("dead-zone")).as("Key resolved").isEqualTo(ScrollMode.DeadZone);
+        then(ScrollMode.forKey("CENTER")).as("Key resolved ignoring case").isEqualTo(ScrollMode.Center);
+        thenIllegalArgumentException()
+                .as("Unsupported key throws")
+                .isThrownBy(() -> ScrollMode.forKey("smooth"));
+    }
+
+    @Test
+    public void page() {
+        // WHEN
+        int origin = ScrollMode.Page.origin(25, 10, 10, 100);
+
+        // THEN
+        then(origin).as("Origin at start of page").isEqualTo(20);
+        then(ScrollMode.Page.origin(9, 20, 10, 100)).as("Origin at start of previous page").isEqualTo(0);
+    }
+
+    @Test
+    public void center() {
+        then(ScrollMode.Center.origin(25, ScrollMode.NO_ORIGIN, 10, 100))
+                .as("Player centered")
+                .isEqualTo(20);
+        then(ScrollMode.Center.origin(26, 20, 10, 100))
+                .as("Origin follows player")
+                .isEqualTo(21);
+        then(ScrollMode.Center.origin(2, 0, 10, 100))
+                .as("Origin clamped to left of map")
+                .isEqualTo(0);
+        then(ScrollMode.Center.origin(98, 80, 10, 100))
+                .as("Origin clamped to right of map")
+                .isEqualTo(90);
+        then(ScrollMode.Center.origin(3, ScrollMode.NO_ORIGIN, 10, 8))
+                .as("Origin 0 when map fits in pane")
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void deadZone() {
+        // GIVEN
+        final int origin = 20;
+        final int margin = ScrollMode.deadZoneMargin(10);
+
+        // THEN
+        then(margin).as("Margin quarter of pane").isEqualTo(2);
+        then(ScrollMode.DeadZone.origin(25, ScrollMode.NO_ORIGIN, 10, 100))
+                .as("Player centered without an origin")
+                .isEqualTo(20);
+        then(ScrollMode.DeadZone.origin(origin + margin, origin, 10, 100))
+                .as("Origin unchanged at left of dead zone")
+                .isEqualTo(origin);
+        then(ScrollMode.DeadZone.origin(origin + 10 - 1 - margin, origin, 10, 100))
+                .as("Origin unchanged at right of dead zone")
+                .isEqualTo(origin);
+        then(ScrollMode.DeadZone.origin(origin + margin - 1, origin, 10, 100))
+                .as("Origin scrolls left when player enters left margin")
+                .isEqualTo(origin - 1);
+        then(ScrollMode.DeadZone.origin(origin + 10 - margin, origin, 10, 100))
+                .as("Origin scrolls right when player enters right margin")
+                .isEqualTo(origin + 1);
+    }
+}
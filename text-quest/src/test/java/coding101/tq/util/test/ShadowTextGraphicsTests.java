@@ -0,0 +1,137 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.ShadowTextGraphics;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.TextColor.ANSI;
+import com.googlecode.lanterna.graphics.TextGraphics;
+import com.googlecode.lanterna.screen.Screen;
+import com.googlecode.lanterna.screen.TerminalScreen;
+import com.googlecode.lanterna.terminal.virtual.DefaultVirtualTerminal;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link ShadowTextGraphics} class.
+ */
+public class ShadowTextGraphicsTests {
+
+    private DefaultVirtualTerminal terminal;
+    private Screen screen;
+    private TextGraphics delegate;
+    private ShadowTextGraphics graphics;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        terminal = new DefaultVirtualTerminal(new TerminalSize(4, 2));
+        screen = new TerminalScreen(terminal);
+        screen.startScreen();
+        delegate = screen.newTextGraphics();
+        graphics = new ShadowTextGraphics(delegate);
+    }
+
+    private char delegateCharacter(int column, int row) {
+        return delegate.getCharacter(column, row).getCharacter();
+    }
+
+    @Test
+    public void skipUnchanged() {
+        // WHEN
+        graphics.setCharacter(1, 0, 'a');
+        graphics.setCharacter(1, 0, 'a');
+        graphics.setForegroundColor(ANSI.RED);
+        graphics.setCharacter(1, 0, 'a');
+
+        // THEN
+        then(graphics.changedCount()).as("First draw and color change drawn").isEqualTo(2L);
+        then(graphics.unchangedCount()).as("Equal character skipped").isEqualTo(1L);
+        then(delegateCharacter(1, 0)).as("Character drawn to delegate").isEqualTo('a');
+        then(delegate.getCharacter(1, 0).getForegroundColor()).as("Color change drawn to delegate").isEqualTo(ANSI.RED);
+    }
+
+    @Test
+    public void nestedFrames() {
+        // GIVEN
+        graphics.setCharacter(0, 0, 'a');
+        graphics.setCharacter(1, 0, 'b');
+
+        // WHEN
+        graphics.beginFrame();
+        graphics.beginFrame();
+        graphics.fill(' ');
+        graphics.setCharacter(0, 0, 'a');
+        graphics.setCharacter(1, 0, 'c');
+        graphics.endFrame();
+
+        // THEN
+        then(delegateCharacter(1, 0)).as("Inner frame end draws nothing").isEqualTo('b');
+        then(graphics.changedCount()).as("Inner frame end counts no changes").isEqualTo(2L);
+
+        // WHEN
+        graphics.endFrame();
+
+        // THEN
+        then(delegateCharacter(0, 0)).as("Unchanged cell kept").isEqualTo('a');
+        then(delegateCharacter(1, 0)).as("Changed cell drawn").isEqualTo('c');
+        then(delegateCharacter(3, 1)).as("Cleared cell drawn").isEqualTo(' ');
+        then(graphics.changedCount()).as("Changed cell and 6 cells not drawn before the frame drawn").isEqualTo(9L);
+        then(graphics.unchangedCount()).as("Cell redrawn the same in the frame skipped").isEqualTo(1L);
+    }
+
+    @Test
+    public void getCharacterInFrame() {
+        // GIVEN
+        graphics.setCharacter(0, 0, 'a');
+
+        // WHEN
+        graphics.beginFrame();
+        graphics.setCharacter(0, 0, 'b');
+
+        // THEN
+        then(graphics.getCharacter(0, 0).getCharacter()).as("Frame character read").isEqualTo('b');
+        then(delegateCharacter(0, 0)).as("Frame character not drawn yet").isEqualTo('a');
+
+        // WHEN
+        graphics.endFrame();
+
+        // THEN
+        then(graphics.getCharacter(0, 0).getCharacter()).as("Drawn character read").isEqualTo('b');
+        then(delegateCharacter(0, 0)).as("Frame character drawn").isEqualTo('b');
+    }
+
+    @Test
+    public void resize() {
+        // GIVEN
+        graphics.setCharacter(0, 0, 'a');
+
+        // WHEN
+        terminal.setTerminalSize(new TerminalSize(5, 3));
+        screen.doResizeIfNecessary();
+        graphics.setCharacter(0, 0, 'a');
+        graphics.setCharacter(4, 2, 'b');
+
+        // THEN
+        then(graphics.changedCount()).as("Same character drawn again after resize").isEqualTo(3L);
+        then(graphics.unchangedCount()).as("Nothing skipped after resize").isEqualTo(0L);
+        then(delegateCharacter(0, 0)).as("Character drawn to delegate").isEqualTo('a');
+        then(delegateCharacter(4, 2)).as("Character drawn to new cell").isEqualTo('b');
+    }
+
+    @Test
+    public void invalidate() {
+        // GIVEN
+        graphics.setCharacter(0, 0, 'a');
+        delegate.setCharacter(0, 0, 'x');
+
+        // WHEN
+        graphics.invalidate();
+        graphics.setCharacter(0, 0, 'a');
+
+        // THEN
+        then(graphics.changedCount()).as("Same character drawn again after invalidate").isEqualTo(2L);
+        then(graphics.unchangedCount()).as("Nothing skipped after invalidate").isEqualTo(0L);
+        then(delegateCharacter(0, 0)).as("Character drawn over other drawing").isEqualTo('a');
+    }
+}
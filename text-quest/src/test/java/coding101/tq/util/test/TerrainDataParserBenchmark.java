@@ -0,0 +1,83 @@
+package coding101.tq.util.test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.TerrainDataParser;
+import coding101.tq.util.TerrainMapBuilder;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Random;
+
+/**
+ * Compare the throughput of the reader-based and byte-level terrain data
+ * parsers.
+ *
+ * Run with optional arguments for the generated tile width, height, and number
+ * of iterations.
+ */
+public class TerrainDataParserBenchmark {
+
+    private static final String KEYS = "~~~~....^^AAm,,O*$";
+
+    private static byte[] generate(int width, int height) {
+        Random rng = new Random(1);
+        StringBuilder buf = new StringBuilder((width + 1) * height + 32);
+        buf.append("#- start: 1,1\n");
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                buf.append(KEYS.charAt(rng.nextInt(KEYS.length())));
+            }
+            buf.append('\n');
+        }
+        return buf.toString().getBytes(US_ASCII);
+    }
+
+    private static TerrainType[][] parseReader(byte[] data) throws IOException {
+        try (BufferedReader r =
+                new BufferedReader(new InputStreamReader(new ByteArrayInputStream(data), US_ASCII))) {
+            return TerrainMapBuilder.parseTerrainData(r, new LinkedHashMap<>(4));
+        }
+    }
+
+    private static TerrainType[][] parseBytes(byte[] data) {
+        return TerrainDataParser.parseTerrainData(ByteBuffer.wrap(data), new LinkedHashMap<>(4));
+    }
+
+    private static void report(String name, long bytes, long nanos) {
+        System.out.println("%-8s %8.1f MB/s".formatted(name, (bytes / 1_000_000.0) / (nanos / 1_000_000_000.0)));
+    }
+
+    public static void main(String[] args) throws IOException {
+        final int width = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        final int height = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        final byte[] data = generate(width, height);
+        final long total = (long) data.length * iterations;
+
+        // warm up
+        for (int i = 0; i < 5; i++) {
+            parseReader(data);
+            parseBytes(data);
+        }
+
+        long rows = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            rows += parseReader(data).length;
+        }
+        report("reader", total, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            rows += parseBytes(data).length;
+        }
+        report("bytes", total, System.nanoTime() - start);
+
+        System.out.println("Parsed %d rows".formatted(rows));
+    }
+}
@@ -0,0 +1,81 @@
+package coding101.tq.util.test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.PackedTerrainStorage;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.TerrainDataParser;
+import coding101.tq.util.TerrainMapBuilder;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link TerrainDataParser} class.
+ */
+public class TerrainDataParserTests {
+
+    @Test
+    public void parseTerrainData_sameAsReader() throws IOException {
+        // GIVEN
+        byte[] data;
+        try (InputStream in = getClass().getResourceAsStream("test-map-with-metadata.tqmap")) {
+            data = in.readAllBytes();
+        }
+        Map<String, String> expectedMetadata = new LinkedHashMap<>(4);
+        TerrainType[][] expected = TerrainMapBuilder.parseTerrainData(
+                new BufferedReader(new StringReader(new String(data, US_ASCII))), expectedMetadata);
+
+        // WHEN
+        Map<String, String> metadata = new LinkedHashMap<>(4);
+        TerrainType[][] result = TerrainDataParser.parseTerrainData(ByteBuffer.wrap(data), metadata);
+
+        // THEN
+        then(result).as("Terrain same as reader parser").isDeepEqualTo(expected);
+        then(metadata).as("Metadata same as reader parser").containsExactlyEntriesOf(expectedMetadata);
+    }
+
+    @Test
+    public void parseTerrainData_lineTerminators() {
+        // GIVEN
+        ByteBuffer buf = ByteBuffer.wrap("#- foo: bar\r\n~~.\r\n\r\nAAA\r# comment\n.".getBytes(US_ASCII));
+
+        // WHEN
+        Map<String, String> metadata = new LinkedHashMap<>(4);
+        TerrainType[][] result = TerrainDataParser.parseTerrainData(buf, metadata);
+
+        // THEN
+        then(result)
+                .as("Rows parsed for all line terminators")
+                .isDeepEqualTo(new TerrainType[][] {
+                    {TerrainType.Water, TerrainType.Water, TerrainType.Grass},
+                    {TerrainType.Mountain, TerrainType.Mountain, TerrainType.Mountain},
+                    {TerrainType.Grass}
+                });
+        then(metadata).as("Metadata parsed").containsExactly(Map.entry("foo", "bar"));
+        then(buf.hasRemaining()).as("Buffer consumed").isFalse();
+    }
+
+    @Test
+    public void parseTerrainData_packed() {
+        // GIVEN
+        ByteBuffer buf = ByteBuffer.wrap("~~~\nAAA\n...\n".getBytes(US_ASCII));
+        PackedTerrainStorage dest = new PackedTerrainStorage(4, 3);
+
+        // WHEN
+        int rows = TerrainDataParser.parseTerrainData(buf, new LinkedHashMap<>(4), dest, 1, 1);
+
+        // THEN
+        then(rows).as("All rows parsed").isEqualTo(3);
+        then(dest.terrainAt(0, 1)).as("Terrain before offset untouched").isNull();
+        then(dest.terrainAt(1, 1)).as("Terrain written at offset").isEqualTo(TerrainType.Water);
+        then(dest.terrainAt(3, 2)).as("Terrain written at offset").isEqualTo(TerrainType.Mountain);
+        then(dest.terrainAt(1, 0)).as("Terrain before offset untouched").isNull();
+    }
+}
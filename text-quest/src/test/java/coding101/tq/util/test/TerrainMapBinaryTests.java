@@ -0,0 +1,145 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import coding101.tq.domain.MappedTerrainStorage;
+import coding101.tq.domain.PackedTerrainStorage;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.TerrainMapBinary;
+import coding101.tq.util.TerrainMapBinary.Header;
+import coding101.tq.util.TerrainMapBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for the {@link TerrainMapBinary} class.
+ */
+public class TerrainMapBinaryTests {
+
+    @TempDir
+    Path tmpDir;
+
+    // the offset of the metadata count within a binary map
+    private static final int METADATA_COUNT_OFFSET = 26;
+
+    private static byte[] binary(TerrainMap map) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TerrainMapBinary.write(map, 0, 0, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void writeAndOpen() throws IOException {
+        // GIVEN
+        TerrainMapBuilder b = TerrainMapBuilder.parseResources("coding101/tq/util/test/map02");
+        TerrainMap map = b.build("test");
+        Path path = tmpDir.resolve("test.tqbin");
+
+        // WHEN
+        TerrainMapBinary.write(map, b.getTileWidth(), b.getTileHeight(), path);
+        TerrainMap result = TerrainMapBinary.open(path, "test");
+
+        // THEN
+        then(result.storage()).as("Memory mapped storage used").isInstanceOf(MappedTerrainStorage.class);
+        then(result.render()).as("Binary map renders same as original").isEqualTo(map.render());
+        then(result.metadata()).as("Metadata preserved").containsExactlyEntriesOf(map.metadata());
+        then(result.terrainAt(9, 7)).as("Terrain available").isEqualTo(TerrainType.Mountain);
+        then(result.terrainAt(0, 7)).as("Missing tile terrain preserved").isNull();
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        // GIVEN
+        TerrainMapBuilder b = TerrainMapBuilder.parseResources("coding101/tq/util/test/map02");
+        TerrainMap map = b.build("test");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TerrainMapBinary.write(map, b.getTileWidth(), b.getTileHeight(), out);
+
+        // WHEN
+        TerrainMap result = TerrainMapBinary.read(new ByteArrayInputStream(out.toByteArray()), "test");
+
+        // THEN
+        then(result.storage()).as("Packed storage used").isInstanceOf(PackedTerrainStorage.class);
+        then(result.render()).as("Binary map renders same as original").isEqualTo(map.render());
+        then(result.metadata()).as("Metadata preserved").containsExactlyEntriesOf(map.metadata());
+        then(result.terrainAt(0, 7)).as("Missing tile terrain preserved").isNull();
+    }
+
+    @Test
+    public void readHeader() throws IOException {
+        // GIVEN
+        TerrainMapBuilder b = TerrainMapBuilder.parseResources("coding101/tq/util/test/map01");
+        TerrainMap map = b.build("test");
+        Path path = tmpDir.resolve("test.tqbin");
+        TerrainMapBinary.write(map, b.getTileWidth(), b.getTileHeight(), path);
+
+        // WHEN
+        Header header;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            header = TerrainMapBinary.readHeader(channel);
+        }
+
+        // THEN
+        then(header)
+                .as("Map width")
+                .returns(10, Header::width)
+                .as("Map height")
+                .returns(10, Header::height)
+                .as("Tile width")
+                .returns(5, Header::tileWidth)
+                .as("Tile height")
+                .returns(5, Header::tileHeight);
+    }
+
+    @Test
+    public void readInvalidMetadataCount() throws IOException {
+        // GIVEN
+        byte[] negative = binary(TestMaps.map("test", "..~"));
+        ByteBuffer.wrap(negative).putInt(METADATA_COUNT_OFFSET, -1);
+        byte[] tooLarge = binary(TestMaps.map("test", "..~"));
+        ByteBuffer.wrap(tooLarge).putInt(METADATA_COUNT_OFFSET, Integer.MAX_VALUE);
+
+        // THEN
+        thenThrownBy(() -> TerrainMapBinary.read(new ByteArrayInputStream(negative), "test"))
+                .as("Negative metadata count rejected")
+                .isInstanceOf(IOException.class);
+        thenThrownBy(() -> TerrainMapBinary.read(new ByteArrayInputStream(tooLarge), "test"))
+                .as("Metadata count larger than the header rejected")
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void readInvalidTerrain() throws IOException {
+        // GIVEN
+        byte[] data = binary(TestMaps.map("test", "..~", ".^~"));
+        data[data.length - 1] = (byte) TerrainType.values().length;
+
+        // THEN
+        thenThrownBy(() -> TerrainMapBinary.read(new ByteArrayInputStream(data), "test"))
+                .as("Invalid terrain value rejected")
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void readNoTerrain() throws IOException {
+        // GIVEN
+        byte[] data = binary(TestMaps.map("test", "..~", ".^~"));
+        data[data.length - 1] = PackedTerrainStorage.NO_TERRAIN;
+
+        // WHEN
+        TerrainMap result = TerrainMapBinary.read(new ByteArrayInputStream(data), "test");
+
+        // THEN
+        then(result.terrainAt(1, 1)).as("Terrain copied").isEqualTo(TerrainType.Forest);
+        then(result.terrainAt(2, 1)).as("No terrain copied").isNull();
+    }
+}
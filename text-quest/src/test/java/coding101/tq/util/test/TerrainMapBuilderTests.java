@@ -2,8 +2,10 @@ package coding101.tq.util.test;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
+import coding101.tq.domain.PackedTerrainStorage;
 import coding101.tq.domain.TerrainMap;
 import coding101.tq.util.TerrainMapBuilder;
+import coding101.tq.util.TerrainMapBuilder.StorageMode;
 import coding101.tq.util.TerrainMapBuilder.Tile;
 import java.io.IOException;
 import java.io.InputStream;
@@ -70,6 +72,50 @@ public class TerrainMapBuilderTests {
                 .isEqualTo(expectedMap);
     }
 
+    @Test
+    public void parseClassPathResources_packed() {
+        // WHEN
+        TerrainMap tm = TerrainMapBuilder.parseResources("coding101/tq/util/test/map02")
+                .withStorageMode(StorageMode.Packed)
+                .build("");
+        String result = tm.render();
+
+        // THEN
+        String expectedMap =
+                """
+				AAAAA~~~~~
+				~~~~.=====
+				^^^AA^^^^^
+				^^AAA.....
+				===~AAAAAA
+				         .
+				     .....
+				         A
+				     =====
+				     AAAAA
+				"""
+                        .trim();
+
+        then(tm.storage()).as("Packed storage used").isInstanceOf(PackedTerrainStorage.class);
+        then(result)
+                .as("Parsed quadrant tiles with missing tiles into complete packed map")
+                .isEqualTo(expectedMap);
+    }
+
+    @Test
+    public void parsePagedResources() {
+        // GIVEN
+        TerrainMap expected =
+                TerrainMapBuilder.parseResources("coding101/tq/util/test/map02").build("");
+
+        // WHEN
+        TerrainMap tm = TerrainMapBuilder.parsePagedResources("coding101/tq/util/test/map02", "", 25);
+
+        // THEN
+        then(tm.render()).as("Paged map renders same as fully parsed map").isEqualTo(expected.render());
+        then(tm.metadata()).as("Metadata parsed and merged").containsExactlyEntriesOf(expected.metadata());
+    }
+
     @Test
     public void parseTileMetadata() throws IOException {
         // GIVEN
@@ -88,6 +134,20 @@ public class TerrainMapBuilderTests {
         }
     }
 
+    @Test
+    public void parseTileResource_multiDigitCoordinates() throws IOException {
+        // GIVEN
+        try (InputStream in = getClass().getResourceAsStream("test-map-with-metadata.tqmap")) {
+
+            // WHEN
+            Tile tile = TerrainMapBuilder.parseTileResource("some/path/0012,0103.tqmap", in);
+
+            // THEN
+            then(tile.getX()).as("X coordinate parsed").isEqualTo(12);
+            then(tile.getY()).as("Y coordinate parsed").isEqualTo(103);
+        }
+    }
+
     @Test
     public void parseMergedMetadata() {
         // WHEN
@@ -0,0 +1,51 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.util.TerrainMapCache;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link TerrainMapCache} class.
+ */
+public class TerrainMapCacheTests {
+
+    @Test
+    public void prefetchThenGet() {
+        // GIVEN
+        List<String> loaded = new CopyOnWriteArrayList<>();
+        TerrainMapCache cache = new TerrainMapCache(2, name -> {
+            loaded.add(name);
+            return TestMaps.map(name, ".");
+        });
+
+        // WHEN
+        cache.prefetch("a");
+        cache.prefetch("a");
+        TerrainMap result = cache.get("a");
+
+        // THEN
+        then(result.getName()).as("Map returned").isEqualTo("a");
+        then(loaded).as("Map loaded once").containsExactly("a");
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        // GIVEN
+        TerrainMapCache cache = new TerrainMapCache(2, name -> TestMaps.map(name, "."));
+
+        // WHEN
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+
+        // THEN
+        then(cache.contains("a")).as("Recently used map kept").isTrue();
+        then(cache.contains("b")).as("Least recently used map evicted").isFalse();
+        then(cache.contains("c")).as("New map cached").isTrue();
+    }
+}
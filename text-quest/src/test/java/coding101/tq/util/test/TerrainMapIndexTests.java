@@ -0,0 +1,96 @@
+package coding101.tq.util.test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.util.TerrainMapBinary;
+import coding101.tq.util.TerrainMapBuilder;
+import coding101.tq.util.TerrainMapIndex;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for the {@link TerrainMapIndex} class.
+ */
+public class TerrainMapIndexTests {
+
+    @TempDir
+    Path tmpDir;
+
+    private void copyTile(String resource, Path dest) throws IOException {
+        Files.createDirectories(dest.getParent());
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+            Files.copy(in, dest);
+        }
+    }
+
+    @Test
+    public void parseIndex() throws IOException {
+        // GIVEN
+        String data = """
+                # comment
+                META-INF/tqmaps/main/0000,0000.tqmap
+                META-INF/tqmaps/main/0001,0000.tqmap
+
+                META-INF/tqmaps/main/0008,0004/0000,0000.tqmap
+                """;
+
+        // WHEN
+        Map<String, List<String>> result = TerrainMapIndex.parseIndex(new BufferedReader(new StringReader(data)));
+
+        // THEN
+        then(result)
+                .as("Tile resources grouped by directory")
+                .containsOnlyKeys("META-INF/tqmaps/main", "META-INF/tqmaps/main/0008,0004");
+        then(result.get("META-INF/tqmaps/main"))
+                .as("Tile resources in order")
+                .containsExactly("META-INF/tqmaps/main/0000,0000.tqmap", "META-INF/tqmaps/main/0001,0000.tqmap");
+    }
+
+    @Test
+    public void tileResources_outsideMapsDirectory() {
+        // WHEN
+        List<String> result = TerrainMapIndex.tileResources("coding101/tq/util/test/map02");
+
+        // THEN
+        then(result).as("Directory outside index must be scanned").isNull();
+    }
+
+    @Test
+    public void compile() throws IOException {
+        // GIVEN
+        Path resourcesDir = tmpDir.resolve("resources");
+        Path mapsDir = resourcesDir.resolve(TerrainMapIndex.MAPS_DIRECTORY);
+        for (String tile : new String[] {"0000,0000.tqmap", "0001,0000.tqmap", "0001,0001.tqmap"}) {
+            copyTile("coding101/tq/util/test/map02/" + tile, mapsDir.resolve("test/" + tile));
+        }
+        Path outputDir = tmpDir.resolve("output");
+
+        // WHEN
+        int count = TerrainMapIndex.compile(resourcesDir, outputDir);
+
+        // THEN
+        then(count).as("One map directory compiled").isEqualTo(1);
+        then(Files.readAllLines(outputDir.resolve(TerrainMapIndex.INDEX_RESOURCE), UTF_8))
+                .as("Index lists tile resources")
+                .contains(
+                        "META-INF/tqmaps/test/0000,0000.tqmap",
+                        "META-INF/tqmaps/test/0001,0000.tqmap",
+                        "META-INF/tqmaps/test/0001,0001.tqmap");
+
+        TerrainMap expected =
+                TerrainMapBuilder.parseResources("coding101/tq/util/test/map02").build("test");
+        TerrainMap result = TerrainMapBinary.open(outputDir.resolve("META-INF/tqmaps/test.tqbin"), "test");
+        then(result.render()).as("Compiled map renders same as tiles").isEqualTo(expected.render());
+        then(result.metadata()).as("Metadata compiled").containsExactlyEntriesOf(expected.metadata());
+    }
+}
@@ -3,8 +3,15 @@ package coding101.tq.util.test;
 import static org.assertj.core.api.BDDAssertions.then;
 
 import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainMap.TerrainSpanConsumer;
 import coding101.tq.domain.TerrainType;
 import coding101.tq.util.TerrainMapBuilder;
+import coding101.tq.util.TerrainMapBuilder.StorageMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -14,10 +21,14 @@ import org.junit.jupiter.api.Test;
 public class TerrainMapTests {
 
     private static TerrainMap map01;
+    private static TerrainMap packedMap01;
 
     @BeforeAll
     public static void setupClass() {
         map01 = TerrainMapBuilder.parseResources("coding101/tq/util/test/map01").build("");
+        packedMap01 = TerrainMapBuilder.parseResources("coding101/tq/util/test/map01")
+                .withStorageMode(StorageMode.Packed)
+                .build("");
     }
 
     @Test
@@ -61,4 +72,111 @@ public class TerrainMapTests {
         // THEN
         then(result).as("Empty terrain returned for invalid coordinate").isEqualTo(TerrainType.Empty);
     }
+
+    @Test
+    public void packed_render() {
+        // WHEN
+        String result = packedMap01.render();
+
+        // THEN
+        then(result).as("Packed map renders same as array map").isEqualTo(map01.render());
+    }
+
+    @Test
+    public void packed_terrainAt() {
+        // WHEN
+        TerrainType result = packedMap01.terrainAt(2, 7);
+        TerrainType overflow = packedMap01.terrainAt(99, 7);
+
+        // THEN
+        then(result).as("Terrain returned for valid coordinate").isEqualTo(TerrainType.Town);
+        then(overflow).as("Empty terrain returned for invalid coordinate").isEqualTo(TerrainType.Empty);
+    }
+
+    @Test
+    public void packed_jsonRoundTrip() throws IOException {
+        // GIVEN
+        ObjectMapper mapper = new ObjectMapper();
+
+        // WHEN
+        String json = mapper.writeValueAsString(packedMap01);
+        TerrainMap result = mapper.readValue(json, TerrainMap.class);
+
+        // THEN
+        then(json).as("Packed map serialized same as array map").isEqualTo(mapper.writeValueAsString(map01));
+        then(result.render()).as("Deserialized map renders same as original").isEqualTo(map01.render());
+    }
+
+    private static List<String> walked(TerrainMap map, int x, int y, int width, int height) {
+        List<String> result = new ArrayList<>();
+        map.walk(x, y, width, height, (col, row, t) -> result.add("%d,%d=%s".formatted(col, row, t)));
+        return result;
+    }
+
+    private static List<String> walkedRows(TerrainMap map, int x, int y, int width, int height) {
+        return walkedRows(map, x, y, width, height, null);
+    }
+
+    private static List<String> walkedRows(TerrainMap map, int x, int y, int width, int height, TerrainType[] buffer) {
+        List<String> result = new ArrayList<>();
+        TerrainSpanConsumer out = (col, row, types, offset, length) -> {
+            for (int i = 0; i < length; i++) {
+                result.add("%d,%d=%s".formatted(col + i, row, types[offset + i]));
+            }
+        };
+        if (buffer != null) {
+            map.walkRows(x, y, width, height, buffer, out);
+        } else {
+            map.walkRows(x, y, width, height, out);
+        }
+        return result;
+    }
+
+    @Test
+    public void walkRows() {
+        // WHEN
+        List<String> result = walkedRows(map01, 1, 2, 5, 3);
+
+        // THEN
+        then(result).as("Rows walked same as coordinates").isEqualTo(walked(map01, 1, 2, 5, 3));
+    }
+
+    @Test
+    public void walkRows_outOfBounds() {
+        // GIVEN
+        final int width = map01.width() + 6;
+        final int height = map01.height() + 4;
+        TerrainMap runLengthMap = TerrainMapBuilder.parseResources("coding101/tq/util/test/map01")
+                .withStorageMode(StorageMode.RunLength)
+                .build("");
+
+        // WHEN
+        List<String> result = walkedRows(map01, -3, -2, width, height);
+        List<String> packedResult = walkedRows(packedMap01, -3, -2, width, height);
+        List<String> runLengthResult = walkedRows(runLengthMap, -3, -2, width, height);
+
+        // THEN
+        List<String> expected = walked(map01, -3, -2, width, height);
+        then(result).as("Out of bounds coordinates walked with null terrain").isEqualTo(expected);
+        then(packedResult).as("Packed map rows walked same as array map").isEqualTo(expected);
+        then(runLengthResult).as("Run-length map rows walked same as array map").isEqualTo(expected);
+    }
+
+    @Test
+    public void walkRows_buffer() {
+        // GIVEN
+        final int width = map01.width() + 6;
+        final int height = map01.height() + 4;
+        TerrainType[] buffer = new TerrainType[width + 2];
+        Arrays.fill(buffer, TerrainType.Lava);
+
+        // WHEN
+        List<String> result = walkedRows(packedMap01, -3, -2, width, height, buffer);
+        List<String> again = walkedRows(packedMap01, -3, -2, width, height, buffer);
+
+        // THEN
+        List<String> expected = walked(map01, -3, -2, width, height);
+        then(result).as("Rows walked with buffer, ignoring its previous contents").isEqualTo(expected);
+        then(again).as("Rows walked again with same buffer").isEqualTo(expected);
+    }
 }
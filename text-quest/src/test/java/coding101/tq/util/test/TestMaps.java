@@ -0,0 +1,52 @@
+package coding101.tq.util.test;
+
+import coding101.tq.domain.ArrayTerrainStorage;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import java.util.Map;
+
+/**
+ * Test map fixtures.
+ */
+public final class TestMaps {
+
+    private TestMaps() {
+        // not available
+    }
+
+    /**
+     * Create a map from rows of terrain keys.
+     *
+     * Each row is a string of terrain keys, the same as a row of a map tile
+     * resource, for example {@code ".&~"} for grass, a ship, and water.
+     *
+     * @param name the map name
+     * @param rows the terrain rows
+     * @return the map
+     * @see TerrainType#forKey(char)
+     */
+    public static TerrainMap map(String name, String... rows) {
+        return map(name, 0, 0, rows);
+    }
+
+    /**
+     * Create a map from rows of terrain keys, built from tiles of a given size.
+     *
+     * @param name       the map name
+     * @param tileWidth  the tile width
+     * @param tileHeight the tile height
+     * @param rows       the terrain rows
+     * @return the map
+     * @see TerrainType#forKey(char)
+     */
+    public static TerrainMap map(String name, int tileWidth, int tileHeight, String... rows) {
+        TerrainType[][] terrain = new TerrainType[rows.length][];
+        for (int y = 0; y < rows.length; y++) {
+            terrain[y] = new TerrainType[rows[y].length()];
+            for (int x = 0; x < terrain[y].length; x++) {
+                terrain[y][x] = TerrainType.forKey(rows[y].charAt(x));
+            }
+        }
+        return new TerrainMap(name, new ArrayTerrainStorage(terrain), Map.of(), tileWidth, tileHeight);
+    }
+}
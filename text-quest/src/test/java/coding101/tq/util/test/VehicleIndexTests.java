@@ -0,0 +1,91 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.VehicleIndex;
+import coding101.tq.util.CoordinateJson;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link VehicleIndex} class.
+ */
+public class VehicleIndexTests {
+
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    public void setup() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(CoordinateJson.createCoordinateModule());
+    }
+
+    @Test
+    public void move() {
+        // GIVEN
+        VehicleIndex index = new VehicleIndex();
+        index.put(new Coordinate(3, 4), new Coordinate(3, 4));
+
+        // WHEN
+        boolean moved = index.move(3, 4, 4, 4);
+        boolean movedAgain = index.move(4, 4, 5, 5);
+        boolean notMoved = index.move(3, 4, 6, 6);
+
+        // THEN
+        then(moved).as("Moved").isTrue();
+        then(movedAgain).as("Moved again").isTrue();
+        then(notMoved).as("No vehicle at old location").isFalse();
+        then(index.vehicleAt(5, 5)).as("Vehicle at new location").isTrue();
+        then(index.vehicleAt(3, 4)).as("Vehicle not at origin").isFalse();
+        then(index.vehicleAt(4, 4)).as("Vehicle not at previous location").isFalse();
+        then(index.originAt(3, 4)).as("Origin").isTrue();
+        then(index.originOf(5, 5)).as("Origin of vehicle").isEqualTo(new Coordinate(3, 4));
+        then(index).as("Map view").containsExactly(Map.entry(new Coordinate(3, 4), new Coordinate(5, 5)));
+    }
+
+    @Test
+    public void manyVehicles() {
+        // GIVEN
+        VehicleIndex index = new VehicleIndex();
+        for (int i = 0; i < 1000; i++) {
+            index.put(new Coordinate(i, 0), new Coordinate(i, 0));
+        }
+
+        // WHEN
+        for (int i = 0; i < 1000; i += 2) {
+            index.move(i, 0, i, 1);
+        }
+
+        // THEN
+        then(index).as("Size").hasSize(1000);
+        for (int i = 0; i < 1000; i++) {
+            boolean moved = (i % 2 == 0);
+            then(index.vehicleAt(i, 1)).as("Moved vehicle %d", i).isEqualTo(moved);
+            then(index.vehicleAt(i, 0)).as("Unmoved vehicle %d", i).isEqualTo(!moved);
+        }
+    }
+
+    @Test
+    public void jsonRoundTrip() throws IOException {
+        // GIVEN
+        VehicleIndex index = new VehicleIndex();
+        index.put(new Coordinate(5, 1), new Coordinate(6, 1));
+        index.put(new Coordinate(2, 3), new Coordinate(2, 4));
+
+        // WHEN
+        String json = mapper.writeValueAsString(Map.of("main", index));
+        Map<String, VehicleIndex> result = mapper.readValue(json, new TypeReference<Map<String, VehicleIndex>>() {});
+
+        // THEN
+        then(json).as("Sorted JSON").isEqualTo("""
+                {"main":{"2,3":"2,4","5,1":"6,1"}}""");
+        then(result.get("main")).as("Index loaded").isInstanceOf(VehicleIndex.class);
+        then(result.get("main").vehicleAt(6, 1)).as("Loaded vehicle").isTrue();
+        then(result.get("main").originOf(2, 4)).as("Loaded origin").isEqualTo(new Coordinate(2, 3));
+    }
+}